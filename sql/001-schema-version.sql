@@ -0,0 +1,15 @@
+-- Records which of the numbered scripts in this folder have been run. The application reads the highest
+-- version at login and keeps its modules closed until the database is as new as it needs.
+-- Run the scripts in order, by a DBA or a login with DDL rights; the desk login only reads and writes data.
+-- Every script is safe to run again: each statement checks the catalog first.
+
+IF OBJECT_ID(N'dbo.SchemaVersion', N'U') IS NULL
+    CREATE TABLE dbo.SchemaVersion (
+        Version INT NOT NULL CONSTRAINT PK_SchemaVersion PRIMARY KEY,
+        Script NVARCHAR(200) NOT NULL,
+        AppliedAt DATETIME2(0) NOT NULL CONSTRAINT DF_SchemaVersion_AppliedAt DEFAULT SYSDATETIME());
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 1)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (1, N'001-schema-version.sql');
+GO
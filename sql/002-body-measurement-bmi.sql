@@ -0,0 +1,32 @@
+-- BMI is computed from weight and height on every write (same rounding as BodyMeasurementDAO, height in cm).
+-- Data migration, not just schema: hand-typed values that disagree with weight and height are recomputed
+-- once, and the old values are kept in BodyMeasurementBmiBackup, whose existence also marks the step done.
+-- One transaction, so a failure leaves neither the backup table nor changed rows behind.
+
+IF OBJECT_ID(N'dbo.BodyMeasurementBmiBackup', N'U') IS NULL
+BEGIN
+    SET XACT_ABORT ON;
+    BEGIN TRANSACTION;
+    CREATE TABLE dbo.BodyMeasurementBmiBackup (
+        MeasurementID INT NOT NULL CONSTRAINT PK_BodyMeasurementBmiBackup PRIMARY KEY,
+        OldBMI FLOAT NULL,
+        NewBMI FLOAT NOT NULL,
+        RecomputedAt DATETIME2(0) NOT NULL CONSTRAINT DF_BodyMeasurementBmiBackup_RecomputedAt DEFAULT SYSDATETIME());
+    UPDATE dbo.BodyMeasurement
+    SET BMI = CASE WHEN Height > 0 THEN ROUND(Weight / SQUARE(Height / 100.0), 2) ELSE 0 END
+    OUTPUT deleted.MeasurementID, deleted.BMI, inserted.BMI
+        INTO dbo.BodyMeasurementBmiBackup (MeasurementID, OldBMI, NewBMI)
+    WHERE BMI IS NULL OR BMI <> CASE WHEN Height > 0 THEN ROUND(Weight / SQUARE(Height / 100.0), 2) ELSE 0 END;
+    COMMIT TRANSACTION;
+END
+GO
+
+-- BMI range queries (BodyMeasurementDAO.getMeasurementsByBmiRange)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_BodyMeasurement_BMI'
+               AND object_id = OBJECT_ID(N'dbo.BodyMeasurement'))
+    CREATE INDEX IX_BodyMeasurement_BMI ON dbo.BodyMeasurement (BMI) INCLUDE (MemberID, Weight, Height);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 2)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (2, N'002-body-measurement-bmi.sql');
+GO
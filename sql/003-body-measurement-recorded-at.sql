@@ -0,0 +1,18 @@
+-- Measurements become a per-member time series. Existing rows get the time of the upgrade;
+-- there is no better date to give them.
+
+IF COL_LENGTH(N'dbo.BodyMeasurement', N'RecordedAt') IS NULL
+    ALTER TABLE dbo.BodyMeasurement ADD RecordedAt DATETIME2(0) NOT NULL
+        CONSTRAINT DF_BodyMeasurement_RecordedAt DEFAULT SYSDATETIME();
+GO
+
+-- A separate batch: a batch can't index a column it has only just added
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_BodyMeasurement_Member_RecordedAt'
+               AND object_id = OBJECT_ID(N'dbo.BodyMeasurement'))
+    CREATE INDEX IX_BodyMeasurement_Member_RecordedAt ON dbo.BodyMeasurement (MemberID, RecordedAt)
+        INCLUDE (Weight, Height, BMI, BodyFatPercentage);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 3)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (3, N'003-body-measurement-recorded-at.sql');
+GO
@@ -0,0 +1,20 @@
+-- Card tokens scanned at the door; a card can be moved to another member or switched off.
+
+IF OBJECT_ID(N'dbo.MemberCard', N'U') IS NULL
+    CREATE TABLE dbo.MemberCard (
+        CardToken NVARCHAR(64) NOT NULL CONSTRAINT PK_MemberCard PRIMARY KEY,
+        MemberID VARCHAR(20) NOT NULL,
+        IssuedAt DATETIME2(0) NOT NULL CONSTRAINT DF_MemberCard_IssuedAt DEFAULT SYSDATETIME(),
+        IsActive BIT NOT NULL CONSTRAINT DF_MemberCard_IsActive DEFAULT 1);
+GO
+
+-- The check-in lookup only loads memberships that haven't ended yet
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_EndDate'
+               AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_EndDate ON dbo.Membership (EndDate)
+        INCLUDE (MemberID, StartDate, MembershipType, PaymentAmount, PaymentDate, PaymentStatus);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 4)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (4, N'004-member-card.sql');
+GO
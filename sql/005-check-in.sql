@@ -0,0 +1,17 @@
+-- Append-only attendance log: clustered on time for the hour and day counts; the desk-made ID is
+-- only checked on insert.
+
+IF OBJECT_ID(N'dbo.CheckIn', N'U') IS NULL
+    CREATE TABLE dbo.CheckIn (
+        CheckInID UNIQUEIDENTIFIER NOT NULL CONSTRAINT PK_CheckIn PRIMARY KEY NONCLUSTERED,
+        MemberID VARCHAR(20) NOT NULL,
+        CheckedInAt DATETIME2(0) NOT NULL,
+        MatchedBy VARCHAR(10) NOT NULL,
+        Admission VARCHAR(20) NOT NULL,
+        INDEX CIX_CheckIn_CheckedInAt CLUSTERED (CheckedInAt),
+        INDEX IX_CheckIn_Member (MemberID, CheckedInAt));
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 5)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (5, N'005-check-in.sql');
+GO
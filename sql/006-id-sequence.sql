@@ -0,0 +1,23 @@
+-- Shared counters for the prefixed IDs (M0001, P0001) the desks hand out (see db.IdAllocator). Each
+-- counter's row is added by the application on first use, starting after the highest ID in its table.
+
+IF OBJECT_ID(N'dbo.IdSequence', N'U') IS NULL
+    CREATE TABLE dbo.IdSequence (
+        SequenceName VARCHAR(50) NOT NULL CONSTRAINT PK_IdSequence PRIMARY KEY,
+        NextValue BIGINT NOT NULL);
+GO
+
+-- Member IDs are zero-padded to four digits and simply get longer past M9999, so listing them in ID order
+-- sorts by length first (M9999 before M10000). This column and index let the member list seek that order.
+IF COL_LENGTH(N'dbo.Member', N'MemberIDLength') IS NULL
+    ALTER TABLE dbo.Member ADD MemberIDLength AS CAST(LEN(MemberID) AS TINYINT) PERSISTED;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Member_IDOrder'
+               AND object_id = OBJECT_ID(N'dbo.Member'))
+    CREATE UNIQUE INDEX IX_Member_IDOrder ON dbo.Member (MemberIDLength, MemberID);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 6)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (6, N'006-id-sequence.sql');
+GO
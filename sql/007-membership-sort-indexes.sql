@@ -0,0 +1,23 @@
+-- The membership table is read a window at a time in whatever order the user sorts it, seeking from the
+-- last row on screen (see MembershipDAO.getMembershipsAfter). One index per sortable column, each ending in
+-- MembershipID (the tie-breaker), so every order is an index seek rather than a sort of the whole table.
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_MemberID_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_MemberID_Sort ON dbo.Membership (MemberID, MembershipID);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_MembershipType_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_MembershipType_Sort ON dbo.Membership (MembershipType, MembershipID);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_StartDate_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_StartDate_Sort ON dbo.Membership (StartDate, MembershipID);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_EndDate_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_EndDate_Sort ON dbo.Membership (EndDate, MembershipID);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_PaymentAmount_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_PaymentAmount_Sort ON dbo.Membership (PaymentAmount, MembershipID);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_PaymentDate_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_PaymentDate_Sort ON dbo.Membership (PaymentDate, MembershipID);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'IX_Membership_PaymentStatus_Sort' AND object_id = OBJECT_ID(N'dbo.Membership'))
+    CREATE INDEX IX_Membership_PaymentStatus_Sort ON dbo.Membership (PaymentStatus, MembershipID);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM dbo.SchemaVersion WHERE Version = 7)
+    INSERT INTO dbo.SchemaVersion (Version, Script) VALUES (7, N'007-membership-sort-indexes.sql');
+GO
@@ -0,0 +1,25 @@
+-- Enables SQL Server change tracking for the tables the desks edit, so each desk sees the others'
+-- changes within a few seconds (see db.ChangeFeed). Run once per database by a DBA or a login with
+-- ALTER permission on the database; the application itself never changes these settings.
+-- Run it after the numbered scripts, which create the tables it tracks. Safe to run again: every
+-- statement checks first.
+
+-- Two days of history is plenty for desks polling every few seconds
+IF NOT EXISTS (SELECT 1 FROM sys.change_tracking_databases WHERE database_id = DB_ID())
+    ALTER DATABASE CURRENT SET CHANGE_TRACKING = ON (CHANGE_RETENTION = 2 DAYS, AUTO_CLEANUP = ON);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.change_tracking_tables WHERE object_id = OBJECT_ID(N'dbo.Member'))
+    ALTER TABLE dbo.Member ENABLE CHANGE_TRACKING;
+IF NOT EXISTS (SELECT 1 FROM sys.change_tracking_tables WHERE object_id = OBJECT_ID(N'dbo.Membership'))
+    ALTER TABLE dbo.Membership ENABLE CHANGE_TRACKING;
+IF NOT EXISTS (SELECT 1 FROM sys.change_tracking_tables WHERE object_id = OBJECT_ID(N'dbo.BodyMeasurement'))
+    ALTER TABLE dbo.BodyMeasurement ENABLE CHANGE_TRACKING;
+IF NOT EXISTS (SELECT 1 FROM sys.change_tracking_tables WHERE object_id = OBJECT_ID(N'dbo.Payment'))
+    ALTER TABLE dbo.Payment ENABLE CHANGE_TRACKING;
+-- MemberCard comes from 004-member-card.sql. If that ran later than this script, run this one again; until
+-- then the desks read the other tables' changes as usual and pick up card changes through periodic reloads.
+IF OBJECT_ID(N'dbo.MemberCard', N'U') IS NOT NULL
+    AND NOT EXISTS (SELECT 1 FROM sys.change_tracking_tables WHERE object_id = OBJECT_ID(N'dbo.MemberCard'))
+    ALTER TABLE dbo.MemberCard ENABLE CHANGE_TRACKING;
+GO
@@ -0,0 +1,92 @@
+package calc;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BMI, BMR, TDEE and body fat for a whole member base: one object per member with the scalar
+ * formulas (how the screens work today) versus the array kernels in {@link BatchFormulas}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyCompositionBatchBenchmark {
+
+    @Param({"10000"})
+    private int members;
+
+    private record Person(double weightKg, double heightCm, int age, boolean male, double activityFactor) {
+    }
+
+    private record Metrics(double bmi, double bmr, double tdee, double bodyFat) {
+    }
+
+    private Person[] people;
+    private Metrics[] metrics;
+
+    private double[] weightKg;
+    private double[] heightCm;
+    private int[] age;
+    private boolean[] male;
+    private double[] activityFactor;
+    private double[] bmi;
+    private double[] bmr;
+    private double[] tdee;
+    private double[] bodyFat;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        weightKg = new double[members];
+        heightCm = new double[members];
+        age = new int[members];
+        male = new boolean[members];
+        activityFactor = new double[members];
+        bmi = new double[members];
+        bmr = new double[members];
+        tdee = new double[members];
+        bodyFat = new double[members];
+        people = new Person[members];
+        metrics = new Metrics[members];
+        for (int i = 0; i < members; i++) {
+            weightKg[i] = 50 + random.nextDouble() * 60;
+            heightCm[i] = 150 + random.nextDouble() * 45;
+            age[i] = 18 + random.nextInt(50);
+            male[i] = random.nextBoolean();
+            activityFactor[i] = 1.2 + random.nextInt(5) * 0.175;
+            people[i] = new Person(weightKg[i], heightCm[i], age[i], male[i], activityFactor[i]);
+        }
+    }
+
+    @Benchmark
+    public Metrics[] perMemberObjects() {
+        for (int i = 0; i < members; i++) {
+            Person p = people[i];
+            double bmi = HealthFormulas.bmi(p.weightKg(), p.heightCm());
+            double bmr = HealthFormulas.bmr(p.weightKg(), p.heightCm(), p.age(), p.male());
+            metrics[i] = new Metrics(bmi, bmr, HealthFormulas.tdee(bmr, p.activityFactor()),
+                    HealthFormulas.bodyFatPercent(bmi, p.age(), p.male()));
+        }
+        return metrics;
+    }
+
+    @Benchmark
+    public double[] batchFormulas() {
+        BatchFormulas.bmi(weightKg, heightCm, bmi, members);
+        BatchFormulas.bmr(weightKg, heightCm, age, male, bmr, members);
+        BatchFormulas.tdee(bmr, activityFactor, tdee, members);
+        BatchFormulas.bodyFatPercent(bmi, age, male, bodyFat, members);
+        return bodyFat;
+    }
+
+    @Benchmark
+    public double[] batchFormulasSinglePass() {
+        BatchFormulas.bodyComposition(weightKg, heightCm, age, male, activityFactor, bmi, bmr, tdee, bodyFat, members);
+        return bodyFat;
+    }
+}
@@ -0,0 +1,44 @@
+package calc;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Health Calculators formulas, one call per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HealthFormulasBenchmark {
+
+    // Non-final fields so the JIT cannot fold the inputs into constants
+    private double weightKg = 72.5;
+    private double heightCm = 176.0;
+    private int age = 34;
+    private String activityLabel = "1.55 - Moderately Active (moderate exercise/sports 3-5 days/week)";
+
+    @Benchmark
+    public double bmi() {
+        return HealthFormulas.bmi(weightKg, heightCm);
+    }
+
+    @Benchmark
+    public String bmiCategory() {
+        return HealthFormulas.bmiCategory(HealthFormulas.bmi(weightKg, heightCm));
+    }
+
+    @Benchmark
+    public double bmr() {
+        return HealthFormulas.bmr(weightKg, heightCm, age, true);
+    }
+
+    @Benchmark
+    public double tdeeFromLabel() {
+        return HealthFormulas.tdee(HealthFormulas.bmr(weightKg, heightCm, age, false),
+                HealthFormulas.activityFactor(activityLabel));
+    }
+}
@@ -0,0 +1,91 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * In-memory H2 database (in SQL Server compatibility mode) with the Member, Membership and
+ * BodyMeasurement tables, filled with generated rows. Lets the benchmarks run offline.
+ */
+final class BenchDatabase {
+
+    private static final String[] FIRST_NAMES = {"Nimal", "Kasun", "Ayesha", "Dilani", "Ruwan", "Sanduni", "Tharindu", "Ishara", "John", "Maria"};
+    private static final String[] LAST_NAMES = {"Perera", "Silva", "Fernando", "Jayasinghe", "Bandara", "Wickrama", "Smith", "Garcia"};
+    private static final String[] PLAN_TYPES = {"Monthly", "Quarterly", "Annual"};
+    private static final String[] STATUSES = {"Paid", "Pending", "Overdue"};
+
+    private BenchDatabase() {
+    }
+
+    // Opens a fresh, private in-memory database holding rowCount members, memberships and measurements.
+    static Connection open(String name, int rowCount) throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:h2:mem:" + name + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE Member (MemberID VARCHAR(10) PRIMARY KEY, FirstName VARCHAR(50), LastName VARCHAR(50), " +
+                    "ContactNumber VARCHAR(20), Email VARCHAR(100), DateOfBirth DATE, JoiningDate DATE, Address VARCHAR(200))");
+            stmt.execute("CREATE TABLE Membership (MembershipID INT IDENTITY(1,1) PRIMARY KEY, MemberID VARCHAR(10), " +
+                    "StartDate DATE, EndDate DATE, MembershipType VARCHAR(50), PaymentAmount DECIMAL(10,2), " +
+                    "PaymentDate DATE, PaymentStatus VARCHAR(20))");
+            stmt.execute("CREATE TABLE BodyMeasurement (MeasurementID INT IDENTITY(1,1) PRIMARY KEY, MemberID VARCHAR(10), " +
+                    "RecordedAt DATETIME2(0) DEFAULT CURRENT_TIMESTAMP, Weight DECIMAL(5,2), Height DECIMAL(5,2), " +
+                    "BMI DECIMAL(5,2), BodyFatPercentage DECIMAL(5,2))");
+        }
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.of(2025, 1, 1);
+        conn.setAutoCommit(false);
+        try (PreparedStatement member = conn.prepareStatement("INSERT INTO Member VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement membership = conn.prepareStatement("INSERT INTO Membership " +
+                     "(MemberID, StartDate, EndDate, MembershipType, PaymentAmount, PaymentDate, PaymentStatus) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement measurement = conn.prepareStatement("INSERT INTO BodyMeasurement " +
+                     "(MemberID, Weight, Height, BMI, BodyFatPercentage) VALUES (?, ?, ?, ?, ?)")) {
+
+            for (int i = 1; i <= rowCount; i++) {
+                String id = String.format("M%04d", i);
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                LocalDate joined = today.minusDays(random.nextInt(2000));
+
+                member.setString(1, id);
+                member.setString(2, first);
+                member.setString(3, last);
+                member.setString(4, "07" + (10000000 + random.nextInt(89999999)));
+                member.setString(5, first.toLowerCase() + "." + last.toLowerCase() + i + "@example.com");
+                member.setDate(6, Date.valueOf(today.minusYears(18 + random.nextInt(50))));
+                member.setDate(7, Date.valueOf(joined));
+                member.setString(8, i + " Galle Road, Colombo");
+                member.addBatch();
+
+                membership.setString(1, id);
+                membership.setDate(2, Date.valueOf(joined));
+                membership.setDate(3, Date.valueOf(joined.plusMonths(12)));
+                membership.setString(4, PLAN_TYPES[random.nextInt(PLAN_TYPES.length)]);
+                membership.setDouble(5, 5000 + random.nextInt(40000));
+                membership.setDate(6, Date.valueOf(joined));
+                membership.setString(7, STATUSES[random.nextInt(STATUSES.length)]);
+                membership.addBatch();
+
+                double weight = 50 + random.nextInt(50);
+                double height = 150 + random.nextInt(40);
+                measurement.setString(1, id);
+                measurement.setDouble(2, weight);
+                measurement.setDouble(3, height);
+                measurement.setDouble(4, weight / Math.pow(height / 100.0, 2));
+                measurement.setDouble(5, 10 + random.nextInt(25));
+                measurement.addBatch();
+            }
+            member.executeBatch();
+            membership.executeBatch();
+            measurement.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return conn;
+    }
+}
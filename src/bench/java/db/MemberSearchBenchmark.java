@@ -0,0 +1,70 @@
+package db;
+
+import model.Member;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One search keystroke: the original MemberController predicate (lower-casing every field
+ * of every row) against a lookup in {@link MemberSearchIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+    @Param({"10000", "50000"})
+    private int members;
+
+    @Param({"per", "nimal sil", "m0042"})
+    private String query;
+
+    private List<Member> all;
+    private MemberSearchIndex index;
+
+    @Setup
+    public void setUp() throws SQLException {
+        all = new ArrayList<>(members);
+        try (Connection conn = BenchDatabase.open("search" + members, members);
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM Member");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                all.add(MemberDAO.mapMember(rs));
+            }
+        }
+        index = new MemberSearchIndex();
+        for (Member member : all) {
+            index.add(member);
+        }
+    }
+
+    @Benchmark
+    public List<Member> linearPredicate() {
+        String lowerCaseFilter = query.toLowerCase();
+        List<Member> matches = new ArrayList<>();
+        for (Member member : all) {
+            if (member.getMemberId().toLowerCase().contains(lowerCaseFilter)
+                    || member.getFirstName().toLowerCase().contains(lowerCaseFilter)
+                    || member.getLastName().toLowerCase().contains(lowerCaseFilter)
+                    || member.getEmail().toLowerCase().contains(lowerCaseFilter)) {
+                matches.add(member);
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<Member> prefixIndex() {
+        return index.search(query, 500);
+    }
+}
@@ -0,0 +1,90 @@
+package db;
+
+import model.BodyMeasurement;
+import model.Member;
+import model.Membership;
+import model.MembershipRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResultSet -> model mapping as done by the DAOs' map methods, over the same queries
+ * (against H2, so the numbers are for the Java side, not for SQL Server).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private Connection conn;
+    private PreparedStatement members;
+    private PreparedStatement memberships;
+    private PreparedStatement measurements;
+
+    @Setup
+    public void setUp() throws SQLException {
+        conn = BenchDatabase.open("mapping" + rows, rows);
+        members = conn.prepareStatement("SELECT * FROM Member");
+        memberships = conn.prepareStatement("SELECT M.*, Mem.FirstName, Mem.LastName FROM Membership M " +
+                "JOIN Member Mem ON M.MemberID = Mem.MemberID ORDER BY M.MembershipID DESC");
+        measurements = conn.prepareStatement("SELECT BM.*, M.FirstName, M.LastName FROM BodyMeasurement BM " +
+                "JOIN Member M ON BM.MemberID = M.MemberID ORDER BY BM.MeasurementID DESC");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public void mapMembers(Blackhole bh) throws SQLException {
+        try (ResultSet rs = members.executeQuery()) {
+            while (rs.next()) {
+                Member member = MemberDAO.mapMember(rs);
+                bh.consume(member);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapMemberships(Blackhole bh) throws SQLException {
+        try (ResultSet rs = memberships.executeQuery()) {
+            while (rs.next()) {
+                Membership membership = MembershipDAO.mapMembership(rs);
+                bh.consume(membership);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapMembershipRecords(Blackhole bh) throws SQLException {
+        try (ResultSet rs = memberships.executeQuery()) {
+            while (rs.next()) {
+                MembershipRecord membership = MembershipDAO.mapMembershipRecord(rs);
+                bh.consume(membership);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapMeasurements(Blackhole bh) throws SQLException {
+        try (ResultSet rs = measurements.executeQuery()) {
+            while (rs.next()) {
+                BodyMeasurement measurement = BodyMeasurementDAO.mapMeasurement(rs);
+                bh.consume(measurement);
+            }
+        }
+    }
+}
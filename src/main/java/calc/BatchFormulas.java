@@ -0,0 +1,75 @@
+package calc;
+
+/**
+ * {@link HealthFormulas} over whole arrays: element i of each output is the formula applied to
+ * element i of the inputs, for the first count elements. The loops allocate nothing and are plain
+ * counted loops over primitive arrays with straight-line bodies (the scalar formulas, inlined by
+ * the JIT), the shape HotSpot's auto-vectorizer looks for. Results are identical to calling the
+ * scalar formulas one by one.
+ * <p>
+ * Output arrays may be the same as an input array (e.g. computing TDEE in place over BMR).
+ */
+public final class BatchFormulas {
+
+    private BatchFormulas() {
+    }
+
+    public static void bmi(double[] weightKg, double[] heightCm, double[] bmiOut, int count) {
+        checkCount(count, weightKg.length, heightCm.length, bmiOut.length);
+        for (int i = 0; i < count; i++) {
+            bmiOut[i] = HealthFormulas.bmi(weightKg[i], heightCm[i]);
+        }
+    }
+
+    public static void bmr(double[] weightKg, double[] heightCm, int[] age, boolean[] male,
+                           double[] bmrOut, int count) {
+        checkCount(count, weightKg.length, heightCm.length, age.length, male.length, bmrOut.length);
+        for (int i = 0; i < count; i++) {
+            bmrOut[i] = HealthFormulas.bmr(weightKg[i], heightCm[i], age[i], male[i]);
+        }
+    }
+
+    public static void tdee(double[] bmr, double[] activityFactor, double[] tdeeOut, int count) {
+        checkCount(count, bmr.length, activityFactor.length, tdeeOut.length);
+        for (int i = 0; i < count; i++) {
+            tdeeOut[i] = HealthFormulas.tdee(bmr[i], activityFactor[i]);
+        }
+    }
+
+    public static void bodyFatPercent(double[] bmi, int[] age, boolean[] male, double[] bodyFatOut, int count) {
+        checkCount(count, bmi.length, age.length, male.length, bodyFatOut.length);
+        for (int i = 0; i < count; i++) {
+            bodyFatOut[i] = HealthFormulas.bodyFatPercent(bmi[i], age[i], male[i]);
+        }
+    }
+
+    /**
+     * All four formulas in one pass, which reads each input once instead of once per formula.
+     */
+    public static void bodyComposition(double[] weightKg, double[] heightCm, int[] age, boolean[] male,
+                                       double[] activityFactor, double[] bmiOut, double[] bmrOut,
+                                       double[] tdeeOut, double[] bodyFatOut, int count) {
+        checkCount(count, weightKg.length, heightCm.length, age.length, male.length, activityFactor.length,
+                bmiOut.length, bmrOut.length, tdeeOut.length, bodyFatOut.length);
+        for (int i = 0; i < count; i++) {
+            double bmi = HealthFormulas.bmi(weightKg[i], heightCm[i]);
+            double bmr = HealthFormulas.bmr(weightKg[i], heightCm[i], age[i], male[i]);
+            bmiOut[i] = bmi;
+            bmrOut[i] = bmr;
+            tdeeOut[i] = HealthFormulas.tdee(bmr, activityFactor[i]);
+            bodyFatOut[i] = HealthFormulas.bodyFatPercent(bmi, age[i], male[i]);
+        }
+    }
+
+    // Checking up front lets the JIT drop the per-element bounds checks from the loops
+    private static void checkCount(int count, int... lengths) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        for (int length : lengths) {
+            if (length < count) {
+                throw new IllegalArgumentException("Array of length " + length + " is shorter than count " + count);
+            }
+        }
+    }
+}
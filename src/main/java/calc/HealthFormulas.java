@@ -0,0 +1,46 @@
+package calc;
+
+/**
+ * The formulas behind the Health Calculators screen, kept free of JavaFX so they can be
+ * reused outside the UI (and benchmarked on their own).
+ */
+public final class HealthFormulas {
+
+    private HealthFormulas() {
+    }
+
+    // Body Mass Index from weight in kg and height in cm.
+    public static double bmi(double weightKg, double heightCm) {
+        double heightM = heightCm / 100.0;
+        return weightKg / (heightM * heightM);
+    }
+
+    public static String bmiCategory(double bmi) {
+        if (bmi < 18.5) return "Underweight";
+        if (bmi < 24.9) return "Normal weight (Healthy)";
+        if (bmi < 29.9) return "Overweight";
+        return "Obesity";
+    }
+
+    // Basal Metabolic Rate (Mifflin-St Jeor) in Calories/day.
+    public static double bmr(double weightKg, double heightCm, int age, boolean male) {
+        double bmr = (10.0 * weightKg) + (6.25 * heightCm) - (5.0 * age);
+        return male ? bmr + 5 : bmr - 161;
+    }
+
+    // Body fat percentage estimated from BMI (Deurenberg et al., adults).
+    public static double bodyFatPercent(double bmi, int age, boolean male) {
+        double bodyFat = (1.20 * bmi) + (0.23 * age) - 5.4;
+        return male ? bodyFat - 10.8 : bodyFat;
+    }
+
+    // Total Daily Energy Expenditure in Calories/day.
+    public static double tdee(double bmr, double activityFactor) {
+        return bmr * activityFactor;
+    }
+
+    // Reads the factor from an activity level label such as "1.55 - Moderately Active (...)".
+    public static double activityFactor(String activityLabel) {
+        return Double.parseDouble(activityLabel.substring(0, activityLabel.indexOf(' ')));
+    }
+}
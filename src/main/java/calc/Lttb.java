@@ -0,0 +1,67 @@
+package calc;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013). Picks threshold points from a
+ * series so that a line chart of them looks like a chart of the whole series: the points are split
+ * into equal buckets, and from each bucket the point forming the largest triangle with the point
+ * kept before it and the average of the next bucket is kept. Peaks and dips survive, unlike with
+ * averaging. The first and last points are always kept.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Returns the indexes (ascending) of the points to keep out of the first count points of x/y.
+     * x must be ascending. If count is already at most threshold, or threshold is below 3,
+     * every index is returned.
+     */
+    public static int[] downsample(double[] x, double[] y, int count, int threshold) {
+        if (count <= threshold || threshold < 3) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (count - 2) / (threshold - 2); // First and last points sit outside the buckets
+        int previous = 0;
+        kept[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (or the last point, for the final bucket)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; the factor doesn't change which is largest
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+
+        kept[threshold - 1] = count - 1;
+        return kept;
+    }
+}
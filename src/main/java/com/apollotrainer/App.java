@@ -1,5 +1,9 @@
 package com.apollotrainer;
 
+import db.CheckInLog;
+import db.DataAccessExecutor;
+import db.DatabaseConnection;
+import db.SchemaCheck;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,6 +16,9 @@ public class App extends Application {
 
     @Override
     public void start(Stage stage) throws IOException {
+        // Check the schema version while the user logs in (the dashboard waits for it)
+        DataAccessExecutor.execute(SchemaCheck::check);
+
         // Load the FXML for the initial Login screen
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
         Parent root = fxmlLoader.load();
@@ -31,6 +38,14 @@ public class App extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        // Write out queued check-ins, stop background queries and release pooled database connections on exit
+        CheckInLog.getInstance().close();
+        DataAccessExecutor.shutdown();
+        DatabaseConnection.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,81 @@
+package db;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a bulk insert. Bulk inserts are all-or-nothing: either every row was inserted,
+ * or none were and rowErrors says which rows (0-based indexes into the input list) were the problem.
+ * error is set when the whole operation failed for a reason not tied to one row (e.g. no connection).
+ */
+public record BatchResult(int inserted, SortedMap<Integer, String> rowErrors, String error) {
+
+    // Rows sent to the server per executeBatch() call
+    static final int BATCH_SIZE = Integer.getInteger("apollo.db.batchSize", 500);
+
+    // SQL Server errors caused by a row's values, in case the driver reports a generic SQLSTATE: duplicate
+    // key (2627, 2601), foreign key or check (547), NULL (515), too long (8152, 2628), conversion (245, 241, 242, 8114)
+    private static final Set<Integer> ROW_ERROR_CODES = Set.of(2627, 2601, 547, 515, 8152, 2628, 245, 241, 242, 8114);
+
+    public boolean isSuccess() {
+        return error == null && rowErrors.isEmpty();
+    }
+
+    static BatchResult inserted(int count) {
+        return new BatchResult(count, Collections.emptySortedMap(), null);
+    }
+
+    static BatchResult rejected(SortedMap<Integer, String> rowErrors) {
+        return new BatchResult(0, Collections.unmodifiableSortedMap(rowErrors), null);
+    }
+
+    static BatchResult failed(String error) {
+        return new BatchResult(0, Collections.emptySortedMap(), error);
+    }
+
+    /**
+     * Works out which rows of the chunk starting at firstRow (of rowCount rows in all) failed. Depending
+     * on the error the driver either marks failed statements with EXECUTE_FAILED or stops at the first
+     * failure, in which case the failing row is the one after the last count returned.
+     * <p>
+     * Only data and constraint errors are blamed on rows. Anything else (deadlock victim, timeout,
+     * lost connection) would fail any row, so the whole batch is reported as failed and can be retried.
+     * So is a failure that can't be pinned on a row of the chunk (e.g. the driver returned a count for
+     * every row), rather than blaming a row that isn't there.
+     */
+    static BatchResult fromBatchFailure(int firstRow, int rowCount, BatchUpdateException e) {
+        if (!isRowError(e)) {
+            return failed(e.getMessage());
+        }
+        int chunkEnd = Math.min(firstRow + BATCH_SIZE, rowCount);
+        SortedMap<Integer, String> rowErrors = new TreeMap<>();
+        int[] counts = e.getUpdateCounts();
+        if (counts != null) {
+            for (int i = 0; i < counts.length && firstRow + i < chunkEnd; i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) {
+                    rowErrors.put(firstRow + i, e.getMessage());
+                }
+            }
+        }
+        if (rowErrors.isEmpty()) {
+            int failedRow = firstRow + (counts == null ? 0 : counts.length);
+            if (failedRow >= chunkEnd) {
+                return failed(e.getMessage());
+            }
+            rowErrors.put(failedRow, e.getMessage());
+        }
+        return rejected(rowErrors);
+    }
+
+    // SQLSTATE class 22 = data exception (e.g. value too long), 23 = constraint violation
+    static boolean isRowError(SQLException e) {
+        String state = e.getSQLState();
+        return (state != null && (state.startsWith("22") || state.startsWith("23")))
+                || ROW_ERROR_CODES.contains(e.getErrorCode());
+    }
+}
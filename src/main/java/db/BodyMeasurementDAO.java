@@ -1,88 +1,384 @@
 package db;
 
+import calc.BatchFormulas;
+import calc.HealthFormulas;
 import model.BodyMeasurement;
+import model.TrendPoint;
 import java.sql.*;
-import java.time.LocalDate;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class BodyMeasurementDAO {
 
+    /**
+     * The BMI stored for a measurement: computed from weight and height, rounded to 2 decimals,
+     * 0 when there is no height. BMI is never taken from user input, so it can't go stale.
+     */
+    public static double storedBmi(double weightKg, double heightCm) {
+        if (heightCm <= 0) {
+            return 0;
+        }
+        return Math.round(HealthFormulas.bmi(weightKg, heightCm) * 100) / 100.0;
+    }
+
+    // storedBmi for many measurements at once, through the batch formulas
+    static double[] storedBmis(double[] weightKg, double[] heightCm) {
+        double[] bmi = new double[weightKg.length];
+        BatchFormulas.bmi(weightKg, heightCm, bmi, bmi.length);
+        for (int i = 0; i < bmi.length; i++) {
+            bmi[i] = heightCm[i] > 0 ? Math.round(bmi[i] * 100) / 100.0 : 0;
+        }
+        return bmi;
+    }
+
     /**
      * C - Create: Adds a new body measurement record.
+     * The insert and the read-back of the new ID and member name run as one batch,
+     * so the returned record can go straight into the table without a reload.
+     * The record's BMI is replaced by the computed one.
      */
-    public boolean addMeasurement(BodyMeasurement record) {
+    public Optional<BodyMeasurement> addMeasurement(BodyMeasurement record) {
         // Updated SQL to match the five columns in your schema
-        String sql = "INSERT INTO BodyMeasurement (MemberID, Weight, Height, BMI, BodyFatPercentage) VALUES (?, ?, ?, ?, ?)";
+        String sql = "SET NOCOUNT ON; " +
+                "INSERT INTO BodyMeasurement (MemberID, RecordedAt, Weight, Height, BMI, BodyFatPercentage) VALUES (?, ?, ?, ?, ?, ?); " +
+                "SELECT BM.MeasurementID, M.FirstName, M.LastName FROM BodyMeasurement BM " +
+                "JOIN Member M ON BM.MemberID = M.MemberID " +
+                "WHERE BM.MeasurementID = SCOPE_IDENTITY()";
+
+        record.setBmi(storedBmi(record.getWeight(), record.getHeight()));
+        if (record.getRecordedAt() == null) {
+            record.setRecordedAt(LocalDateTime.now());
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, record.getMemberID());
-            pstmt.setDouble(2, record.getWeight());
-            pstmt.setDouble(3, record.getHeight());
-            pstmt.setDouble(4, record.getBmi());
-            pstmt.setDouble(5, record.getBodyFatPercentage());
+            pstmt.setTimestamp(2, Timestamp.valueOf(record.getRecordedAt()));
+            pstmt.setDouble(3, record.getWeight());
+            pstmt.setDouble(4, record.getHeight());
+            pstmt.setDouble(5, record.getBmi());
+            pstmt.setDouble(6, record.getBodyFatPercentage());
 
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        record.setMeasurementID(rs.getInt(1));
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    record.setMeasurementID(rs.getInt("MeasurementID"));
+                    record.setMemberName(rs.getString("FirstName") + " " + rs.getString("LastName"));
+                    TrendCache.getInstance().invalidate(record.getMemberID());
+                    return Optional.of(record);
                 }
-                return true;
             }
-            return false;
+            return Optional.empty();
 
         } catch (SQLException e) {
             System.err.println("Error adding body measurement: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * C - Create (bulk): Inserts many measurements in one transaction using JDBC batches. Used by the
+     * CSV import. BMIs are computed for the whole list in one pass and set on the records; records
+     * without a RecordedAt get the current time.
+     * @return How many were inserted, or which rows were rejected (nothing is inserted then).
+     */
+    public BatchResult addMeasurements(List<BodyMeasurement> records) {
+        String sql = "INSERT INTO BodyMeasurement (MemberID, RecordedAt, Weight, Height, BMI, BodyFatPercentage) VALUES (?, ?, ?, ?, ?, ?)";
+
+        if (records.isEmpty()) {
+            return BatchResult.inserted(0);
+        }
+
+        double[] weights = new double[records.size()];
+        double[] heights = new double[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            weights[i] = records.get(i).getWeight();
+            heights[i] = records.get(i).getHeight();
+        }
+        double[] bmis = storedBmis(weights, heights);
+        LocalDateTime now = LocalDateTime.now();
+
+        int chunkStart = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < records.size(); i++) {
+                    BodyMeasurement record = records.get(i);
+                    pstmt.setString(1, record.getMemberID());
+                    pstmt.setTimestamp(2, Timestamp.valueOf(record.getRecordedAt() == null ? now : record.getRecordedAt()));
+                    pstmt.setDouble(3, weights[i]);
+                    pstmt.setDouble(4, heights[i]);
+                    pstmt.setDouble(5, bmis[i]);
+                    pstmt.setDouble(6, record.getBodyFatPercentage());
+                    pstmt.addBatch();
+
+                    if ((i + 1) % BatchResult.BATCH_SIZE == 0 || i == records.size() - 1) {
+                        pstmt.executeBatch();
+                        chunkStart = i + 1;
+                    }
+                }
+                conn.commit();
+            } catch (BatchUpdateException e) {
+                conn.rollback();
+                System.err.println("Bulk measurement insert rolled back: " + e.getMessage());
+                return BatchResult.fromBatchFailure(chunkStart, records.size(), e);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            for (int i = 0; i < records.size(); i++) {
+                records.get(i).setBmi(bmis[i]);
+                if (records.get(i).getRecordedAt() == null) {
+                    records.get(i).setRecordedAt(now);
+                }
+            }
+            TrendCache.getInstance().invalidateAll(); // An import usually covers many members
+            return BatchResult.inserted(records.size());
+
+        } catch (SQLException e) {
+            System.err.println("Error adding body measurements: " + e.getMessage());
+            return BatchResult.failed(e.getMessage());
         }
     }
 
     /**
-     * R - Read All: Retrieves all body measurement records with member names.
+     * R - Read (paged): Retrieves the next page of records, newest MeasurementID first.
+     * Pass null for the first page, then the last MeasurementID of the previous page.
      */
-    public List<BodyMeasurement> getAllMeasurements() {
+    public Page<BodyMeasurement> getMeasurementsPage(Integer beforeMeasurementID, int pageSize) {
         List<BodyMeasurement> records = new ArrayList<>();
-        // Updated SQL query (removed RecordDate, ordered by MeasurementID DESC as a default)
-        String sql = "SELECT BM.*, M.FirstName, M.LastName FROM BodyMeasurement BM " +
+        String sql = "SELECT TOP (?) BM.*, M.FirstName, M.LastName FROM BodyMeasurement BM " +
                 "JOIN Member M ON BM.MemberID = M.MemberID " +
+                (beforeMeasurementID == null ? "" : "WHERE BM.MeasurementID < ? ") +
                 "ORDER BY BM.MeasurementID DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                String memberName = rs.getString("FirstName") + " " + rs.getString("LastName");
-
-                BodyMeasurement record = new BodyMeasurement(
-                        rs.getInt("MeasurementID"),
-                        rs.getString("MemberID"),
-                        memberName,
-                        rs.getDouble("Weight"),
-                        rs.getDouble("Height"),
-                        rs.getDouble("BMI"),
-                        rs.getDouble("BodyFatPercentage")
-                );
-                records.add(record);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, pageSize + 1); // One extra row tells us whether another page exists
+            if (beforeMeasurementID != null) {
+                pstmt.setInt(2, beforeMeasurementID);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(mapMeasurement(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving body measurement page: " + e.getMessage());
+        }
+        return Page.of(records, pageSize);
+    }
+
+    /**
+     * R - Read (one member): The member's most recent measurements, newest first.
+     * A single seek on IX_BodyMeasurement_Member_RecordedAt.
+     */
+    public List<BodyMeasurement> getLatestMeasurements(String memberID, int limit) {
+        String sql = "SELECT TOP (?) BM.*, M.FirstName, M.LastName FROM BodyMeasurement BM " +
+                "JOIN Member M ON BM.MemberID = M.MemberID " +
+                "WHERE BM.MemberID = ? " +
+                "ORDER BY BM.RecordedAt DESC, BM.MeasurementID DESC";
+
+        List<BodyMeasurement> records = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            pstmt.setString(2, memberID);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(mapMeasurement(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving latest measurements for member " + memberID + ": " + e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * R - Read (one member, time range): The member's measurements taken in [from, to), oldest first.
+     */
+    public List<BodyMeasurement> getMeasurementsForMember(String memberID, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT BM.*, M.FirstName, M.LastName FROM BodyMeasurement BM " +
+                "JOIN Member M ON BM.MemberID = M.MemberID " +
+                "WHERE BM.MemberID = ? AND BM.RecordedAt >= ? AND BM.RecordedAt < ? " +
+                "ORDER BY BM.RecordedAt, BM.MeasurementID";
+
+        List<BodyMeasurement> records = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, memberID);
+            pstmt.setTimestamp(2, Timestamp.valueOf(from));
+            pstmt.setTimestamp(3, Timestamp.valueOf(to));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(mapMeasurement(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving measurements for member " + memberID + ": " + e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * R - Read (trend): The member's measurements in [from, to) reduced to at most maxPoints points.
+     * The range is cut into maxPoints equal time buckets and the database averages each bucket,
+     * so only the points come back however many measurements the member has.
+     */
+    public List<TrendPoint> getTrend(String memberID, LocalDateTime from, LocalDateTime to, int maxPoints) {
+        long rangeSeconds = Math.max(1, Duration.between(from, to).toSeconds());
+        int buckets = Math.max(1, maxPoints);
+        int bucketSeconds = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (rangeSeconds + buckets - 1) / buckets));
+
+        String sql = "DECLARE @from DATETIME2(0) = ?, @bucket INT = ?; " +
+                "SELECT DATEADD(SECOND, CAST(AVG(CAST(DATEDIFF(SECOND, @from, RecordedAt) AS BIGINT)) AS INT), @from) AS At, " +
+                "AVG(CAST(Weight AS FLOAT)) AS Weight, AVG(CAST(BMI AS FLOAT)) AS BMI, " +
+                "AVG(CAST(BodyFatPercentage AS FLOAT)) AS BodyFatPercentage, COUNT(*) AS Samples " +
+                "FROM BodyMeasurement " +
+                "WHERE MemberID = ? AND RecordedAt >= @from AND RecordedAt < ? " +
+                "GROUP BY DATEDIFF(SECOND, @from, RecordedAt) / @bucket " +
+                "ORDER BY At";
+
+        List<TrendPoint> points = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(from));
+            pstmt.setInt(2, bucketSeconds);
+            pstmt.setString(3, memberID);
+            pstmt.setTimestamp(4, Timestamp.valueOf(to));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    points.add(mapTrendPoint(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving measurement trend for member " + memberID + ": " + e.getMessage());
+        }
+        return points;
+    }
+
+    /**
+     * R - Read (trend, whole history): Like {@link #getTrend} over everything the member has recorded,
+     * with the bucket size worked out by the database from their first and last measurement.
+     * Served from {@link TrendCache} until one of the member's measurements changes.
+     */
+    public List<TrendPoint> getMemberTrend(String memberID, int maxPoints) {
+        List<TrendPoint> points = TrendCache.getInstance().get(memberID, maxPoints, () -> loadMemberTrend(memberID, maxPoints));
+        return points == null ? List.of() : points;
+    }
+
+    // Returns null on error so the cache doesn't keep an empty trend
+    private List<TrendPoint> loadMemberTrend(String memberID, int maxPoints) {
+        String sql = "SET NOCOUNT ON; " +
+                "DECLARE @member VARCHAR(20) = ?, @points INT = ?, @from DATETIME2(0), @to DATETIME2(0); " +
+                "SELECT @from = MIN(RecordedAt), @to = MAX(RecordedAt) FROM BodyMeasurement WHERE MemberID = @member; " +
+                "DECLARE @bucket INT = DATEDIFF(SECOND, @from, @to) / @points + 1; " +
+                "SELECT DATEADD(SECOND, CAST(AVG(CAST(DATEDIFF(SECOND, @from, RecordedAt) AS BIGINT)) AS INT), @from) AS At, " +
+                "AVG(CAST(Weight AS FLOAT)) AS Weight, AVG(CAST(BMI AS FLOAT)) AS BMI, " +
+                "AVG(CAST(BodyFatPercentage AS FLOAT)) AS BodyFatPercentage, COUNT(*) AS Samples " +
+                "FROM BodyMeasurement " +
+                "WHERE MemberID = @member " +
+                "GROUP BY DATEDIFF(SECOND, @from, RecordedAt) / @bucket " +
+                "ORDER BY At";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, memberID);
+            pstmt.setInt(2, Math.max(1, maxPoints));
+
+            List<TrendPoint> points = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    points.add(mapTrendPoint(rs));
+                }
+            }
+            return points;
+        } catch (SQLException e) {
+            System.err.println("Error retrieving measurement history for member " + memberID + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static TrendPoint mapTrendPoint(ResultSet rs) throws SQLException {
+        return new TrendPoint(
+                rs.getTimestamp("At").toLocalDateTime(),
+                rs.getDouble("Weight"),
+                rs.getDouble("BMI"),
+                rs.getDouble("BodyFatPercentage"),
+                rs.getInt("Samples"));
+    }
+
+    // Maps the current row of a BodyMeasurement/Member join
+    static BodyMeasurement mapMeasurement(ResultSet rs) throws SQLException {
+        String memberName = rs.getString("FirstName") + " " + rs.getString("LastName");
+
+        return new BodyMeasurement(
+                rs.getInt("MeasurementID"),
+                rs.getString("MemberID"),
+                memberName,
+                rs.getTimestamp("RecordedAt").toLocalDateTime(),
+                rs.getDouble("Weight"),
+                rs.getDouble("Height"),
+                rs.getDouble("BMI"),
+                rs.getDouble("BodyFatPercentage")
+        );
+    }
+
+    /**
+     * R - Read (by BMI): Retrieves measurements with a BMI in [minBmi, maxBmi], lowest BMI first.
+     * Served from IX_BodyMeasurement_BMI (see sql/002-body-measurement-bmi.sql).
+     */
+    public List<BodyMeasurement> getMeasurementsByBmiRange(double minBmi, double maxBmi) {
+        List<BodyMeasurement> records = new ArrayList<>();
+        String sql = "SELECT BM.*, M.FirstName, M.LastName FROM BodyMeasurement BM " +
+                "JOIN Member M ON BM.MemberID = M.MemberID " +
+                "WHERE BM.BMI BETWEEN ? AND ? " +
+                "ORDER BY BM.BMI, BM.MeasurementID";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDouble(1, minBmi);
+            pstmt.setDouble(2, maxBmi);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    records.add(mapMeasurement(rs));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving body measurements: " + e.getMessage());
+            System.err.println("Error retrieving body measurements by BMI: " + e.getMessage());
         }
         return records;
     }
 
     /**
      * U - Update: Updates an existing body measurement record.
+     * BMI is recomputed from the new weight and height; the record itself is left untouched,
+     * since it may be on screen (the caller updates it with {@link #storedBmi}).
      */
     public boolean updateMeasurement(BodyMeasurement record) {
-        // Updated SQL to match the five columns in your schema
-        String sql = "UPDATE BodyMeasurement SET MemberID = ?, Weight = ?, Height = ?, BMI = ?, BodyFatPercentage = ? WHERE MeasurementID = ?";
+        // Updated SQL to match the five columns in your schema; OUTPUT returns the member it belonged to before
+        String sql = "UPDATE BodyMeasurement SET MemberID = ?, Weight = ?, Height = ?, BMI = ?, BodyFatPercentage = ? " +
+                "OUTPUT deleted.MemberID WHERE MeasurementID = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -90,11 +386,19 @@ public class BodyMeasurementDAO {
             pstmt.setString(1, record.getMemberID());
             pstmt.setDouble(2, record.getWeight());
             pstmt.setDouble(3, record.getHeight());
-            pstmt.setDouble(4, record.getBmi());
+            pstmt.setDouble(4, storedBmi(record.getWeight(), record.getHeight()));
             pstmt.setDouble(5, record.getBodyFatPercentage());
             pstmt.setInt(6, record.getMeasurementID());
 
-            return pstmt.executeUpdate() > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                // The measurement may have moved to another member; both charts change
+                TrendCache.getInstance().invalidate(rs.getString("MemberID"));
+                TrendCache.getInstance().invalidate(record.getMemberID());
+                return true;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error updating body measurement: " + e.getMessage());
@@ -111,7 +415,11 @@ public class BodyMeasurementDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, measurementID);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                TrendCache.getInstance().invalidateAll(); // The member isn't known here; deletes are rare
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error deleting body measurement: " + e.getMessage());
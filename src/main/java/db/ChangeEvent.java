@@ -0,0 +1,21 @@
+package db;
+
+/**
+ * One changed row, as reported by a {@link ChangeSource}. Only the key is carried; whoever is
+ * interested reads the row again (a deleted row simply won't be found).
+ */
+public record ChangeEvent(String table, Operation operation, String key) {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE;
+
+        // Maps SQL Server's SYS_CHANGE_OPERATION codes (I, U, D)
+        static Operation fromCode(String code) {
+            return switch (code.trim()) {
+                case "I" -> INSERT;
+                case "D" -> DELETE;
+                default -> UPDATE;
+            };
+        }
+    }
+}
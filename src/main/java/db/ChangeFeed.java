@@ -0,0 +1,167 @@
+package db;
+
+import javafx.application.Platform;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps this desk in step with what the other desks write to the same database. While a user is
+ * logged in, a background thread polls a {@link ChangeSource} (every apollo.changes.pollMillis,
+ * default 3000 ms). Each batch of changes is first applied to the shared caches (members, reports,
+ * trends, check-in) and then handed to the listeners on the FX thread, so open screens can update just the
+ * rows that changed.
+ * <p>
+ * This desk's own writes are reported back as well, so events are hints to re-read, never
+ * instructions. A resync (everything re-read) happens at most every apollo.changes.resyncMillis,
+ * default 60000 ms; without change tracking in the database that is how other desks' changes arrive.
+ * Start with -Dapollo.changes=off to disable polling.
+ */
+public class ChangeFeed {
+
+    private static final boolean ENABLED = !"off".equalsIgnoreCase(System.getProperty("apollo.changes"));
+    private static final long POLL_MILLIS = Long.getLong("apollo.changes.pollMillis", 3000);
+    private static final long RESYNC_MILLIS = Long.getLong("apollo.changes.resyncMillis", 60_000);
+
+    private static final ChangeFeed INSTANCE =
+            new ChangeFeed(ChangeFeed::applyToCaches, Platform::runLater, System::currentTimeMillis, RESYNC_MILLIS);
+
+    private final Consumer<ChangeSource.Changes> caches;
+    private final Executor listenerThread;
+    private final LongSupplier clock;
+    private final long resyncMillis;
+    private final List<Consumer<ChangeSource.Changes>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService poller; // Guarded by this
+    private volatile String lastError;
+    private long lastResync; // Poller thread only
+    private boolean resyncPending; // Poller thread only
+
+    // Package-private so the tests can poll without the shared caches, the FX thread or the wall clock
+    ChangeFeed(Consumer<ChangeSource.Changes> caches, Executor listenerThread, LongSupplier clock, long resyncMillis) {
+        this.caches = caches;
+        this.listenerThread = listenerThread;
+        this.clock = clock;
+        this.resyncMillis = resyncMillis;
+    }
+
+    public static ChangeFeed getInstance() {
+        return INSTANCE;
+    }
+
+    // Starts polling SQL Server change tracking (after login).
+    public void start() {
+        start(new SqlServerChangeSource());
+    }
+
+    public synchronized void start(ChangeSource source) {
+        if (!ENABLED || poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicLong version = new AtomicLong(-1); // Only used by the poller thread
+        poller.scheduleWithFixedDelay(() -> poll(source, version), 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Stops polling and drops all listeners (on logout, when the screens that registered them go away).
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        listeners.clear();
+    }
+
+    // The listener is called on the FX thread, after the caches have taken the changes in.
+    public void addListener(Consumer<ChangeSource.Changes> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ChangeSource.Changes> listener) {
+        listeners.remove(listener);
+    }
+
+    // One poll; version is -1 before the first. Package-private for the tests, which call it directly.
+    void poll(ChangeSource source, AtomicLong version) {
+        try {
+            if (version.get() < 0) {
+                // Start from now: the screens read the current data when they open
+                version.set(source.currentVersion());
+                lastResync = clock.getAsLong();
+                return;
+            }
+            ChangeSource.Changes changes = spaceOutResyncs(source.poll(version.get()));
+            version.set(changes.version());
+            lastError = null;
+            if (!changes.isEmpty()) {
+                apply(changes);
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Once per distinct failure rather than every few seconds
+            String message = String.valueOf(e.getMessage());
+            if (!message.equals(lastError)) {
+                System.err.println("Change feed poll failed: " + message);
+                lastError = message;
+            }
+        }
+    }
+
+    // A resync reloads every cache, so one asked for too soon is held back (not lost) until the interval is up
+    private ChangeSource.Changes spaceOutResyncs(ChangeSource.Changes changes) {
+        if (!changes.resync() && !resyncPending) {
+            return changes;
+        }
+        long now = clock.getAsLong();
+        if (now - lastResync < resyncMillis) {
+            resyncPending = true;
+            return new ChangeSource.Changes(changes.version(), changes.events(), false);
+        }
+        lastResync = now;
+        resyncPending = false;
+        return new ChangeSource.Changes(changes.version(), changes.events(), true);
+    }
+
+    private void apply(ChangeSource.Changes changes) {
+        caches.accept(changes);
+        listenerThread.execute(() -> {
+            for (Consumer<ChangeSource.Changes> listener : listeners) {
+                listener.accept(changes);
+            }
+        });
+    }
+
+    private static void applyToCaches(ChangeSource.Changes changes) {
+        // Reports cover members, memberships and payments; trends are the measurements
+        if (changes.touches("Member") || changes.touches("Membership") || changes.touches("Payment")) {
+            ReportCache.getInstance().invalidateAll();
+        }
+        if (changes.touches("BodyMeasurement")) {
+            TrendCache.getInstance().invalidateAll();
+        }
+        if (changes.touches("Membership") || changes.touches("MemberCard")) {
+            CheckInService.getInstance().reload();
+        }
+
+        // Queued on the FX thread ahead of the listeners (see apply), so they find the cache up to date
+        if (changes.resync()) {
+            MemberCache.getInstance().reload();
+        } else {
+            Set<String> memberIds = changes.keys("Member");
+            if (!memberIds.isEmpty()) {
+                MemberCache.getInstance().membersChanged(memberIds);
+            }
+        }
+    }
+}
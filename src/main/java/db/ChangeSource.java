@@ -0,0 +1,48 @@
+package db;
+
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Where {@link ChangeFeed} learns about rows changed by any desk. Versions only ever increase:
+ * poll(v) returns the changes made after version v, together with the version to poll from next.
+ */
+public interface ChangeSource {
+
+    /**
+     * The result of one poll. When resync is set the source no longer has the history back to the
+     * requested version, so the events are incomplete and everything should be read again.
+     */
+    record Changes(long version, List<ChangeEvent> events, boolean resync) {
+
+        public static Changes none(long version) {
+            return new Changes(version, List.of(), false);
+        }
+
+        public boolean isEmpty() {
+            return events.isEmpty() && !resync;
+        }
+
+        public boolean touches(String table) {
+            return resync || events.stream().anyMatch(event -> event.table().equals(table));
+        }
+
+        // Keys of the changed rows of one table, in the order reported
+        public Set<String> keys(String table) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (ChangeEvent event : events) {
+                if (event.table().equals(table)) {
+                    keys.add(event.key());
+                }
+            }
+            return keys;
+        }
+    }
+
+    // The version as of now; polling from it reports only changes made afterwards.
+    long currentVersion() throws SQLException;
+
+    Changes poll(long sinceVersion) throws SQLException;
+}
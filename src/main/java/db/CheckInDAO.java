@@ -0,0 +1,108 @@
+package db;
+
+import model.CheckIn;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class CheckInDAO {
+
+    //Create (bulk): Inserts check-ins in one transaction using JDBC batches. Check-ins already stored
+    //(same CheckInID, e.g. written again from the spool file after a commit whose reply was lost) are skipped.
+    public BatchResult addCheckIns(List<CheckIn> checkIns) {
+        String sql = "INSERT INTO CheckIn (CheckInID, MemberID, CheckedInAt, MatchedBy, Admission) " +
+                "SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM CheckIn WHERE CheckInID = ?)";
+
+        if (checkIns.isEmpty()) {
+            return BatchResult.inserted(0);
+        }
+
+        int chunkStart = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < checkIns.size(); i++) {
+                    CheckIn checkIn = checkIns.get(i);
+                    String id = checkIn.checkInID().toString();
+                    pstmt.setString(1, id);
+                    pstmt.setString(2, checkIn.memberID());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(checkIn.checkedInAt()));
+                    pstmt.setString(4, checkIn.matchedBy());
+                    pstmt.setString(5, checkIn.admission());
+                    pstmt.setString(6, id);
+                    pstmt.addBatch();
+
+                    if ((i + 1) % BatchResult.BATCH_SIZE == 0 || i == checkIns.size() - 1) {
+                        pstmt.executeBatch();
+                        chunkStart = i + 1;
+                    }
+                }
+                conn.commit();
+            } catch (BatchUpdateException e) {
+                conn.rollback();
+                System.err.println("Check-in batch rolled back: " + e.getMessage());
+                return BatchResult.fromBatchFailure(chunkStart, checkIns.size(), e);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return BatchResult.inserted(checkIns.size());
+
+        } catch (SQLException e) {
+            System.err.println("Error adding check-ins: " + e.getMessage());
+            return BatchResult.failed(e.getMessage());
+        }
+    }
+
+    //Read: Check-ins per hour (0-23) in [from, to), e.g. a day up to now. Hours without any are left out.
+    public SortedMap<Integer, Integer> getHourlyCounts(LocalDateTime from, LocalDateTime to) {
+        SortedMap<Integer, Integer> counts = new TreeMap<>();
+        String sql = "SELECT DATEPART(HOUR, CheckedInAt) AS CheckInHour, COUNT(*) AS Total FROM CheckIn " +
+                "WHERE CheckedInAt >= ? AND CheckedInAt < ? GROUP BY DATEPART(HOUR, CheckedInAt)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(from));
+            pstmt.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt("CheckInHour"), rs.getInt("Total"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving hourly check-ins: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return counts;
+    }
+
+    //Read: Check-ins per day from one date to another (both inclusive). Days without any are left out.
+    public SortedMap<LocalDate, Integer> getDailyCounts(LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Integer> counts = new TreeMap<>();
+        String sql = "SELECT CAST(CheckedInAt AS DATE) AS CheckInDay, COUNT(*) AS Total FROM CheckIn " +
+                "WHERE CheckedInAt >= ? AND CheckedInAt < ? GROUP BY CAST(CheckedInAt AS DATE)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getDate("CheckInDay").toLocalDate(), rs.getInt("Total"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving daily check-ins: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,349 @@
+package db;
+
+import model.CheckIn;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind log of check-ins, so the door screen never waits on the database. record() only
+ * queues the check-in and bumps the in-memory counters. A background thread writes the queue with
+ * {@link CheckInDAO#addCheckIns}, taking everything that is waiting (up to one JDBC batch) each time,
+ * so a rush turns into a few large inserts rather than many small ones.
+ * <p>
+ * A batch that can't be written (database down, deadlock, timeout) is appended to a spool file
+ * (apollo.checkins.spool, by default checkin-spool.tsv in ~/.apollo). Later check-ins go to the same
+ * file, keeping them in order. Once the database answers again (retried every 15 s) the file is moved
+ * aside, written to the database and deleted; only rows the server rejects for their values are
+ * dropped. Check-ins carry their own IDs, so writing one twice stores it once. A batch that fails in
+ * any other way (even an unexpected exception) is spooled too, and the writer thread is started again
+ * by the next check-in if it ever stops.
+ * <p>
+ * The hourly counters start from what the database held for today when {@link #seedCounters()} ran
+ * (at login) and count this desk's check-ins from then on; other desks' later check-ins are only in
+ * the reports.
+ */
+public class CheckInLog {
+
+    private static final int QUEUE_CAPACITY = 50_000;
+    private static final long RETRY_MILLIS = 15_000;
+    private static final Path SPOOL_FILE = Path.of(System.getProperty("apollo.checkins.spool",
+            Path.of(System.getProperty("user.home"), ".apollo", "checkin-spool.tsv").toString()));
+
+    private static final CheckInLog INSTANCE = new CheckInLog(new CheckInDAO(), SPOOL_FILE, RETRY_MILLIS);
+
+    // written includes replayed, the spooled check-ins that have since reached the database
+    public record Stats(int queued, long written, long spooled, long replayed, long failed, boolean spoolPending) {
+    }
+
+    private final CheckInDAO checkInDAO;
+    private final Path spoolFile;
+    private final Path replayFile; // The spool file while it is being written to the database, so new check-ins can be spooled meanwhile
+    private final long retryMillis;
+    private final BlockingQueue<CheckIn> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<LocalDateTime, LongAdder> hourlyCounts = new ConcurrentHashMap<>(); // Keyed by the start of the hour
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong(); // Lost: neither written nor spooled
+    private final Object spoolLock = new Object(); // Guards spoolFile; held for file work only, never a query
+    private final Object replayLock = new Object(); // Guards replayFile and nextRetry
+
+    private Thread writer; // Guarded by this
+    private volatile boolean closing;
+    private volatile boolean seeded;
+    private long nextRetry;
+
+    // Package-private so the tests can use a stub DAO and a temporary spool file
+    CheckInLog(CheckInDAO checkInDAO, Path spoolFile, long retryMillis) {
+        this.checkInDAO = checkInDAO;
+        this.spoolFile = spoolFile;
+        this.replayFile = spoolFile.resolveSibling(spoolFile.getFileName() + ".replay");
+        this.retryMillis = retryMillis;
+    }
+
+    public static CheckInLog getInstance() {
+        return INSTANCE;
+    }
+
+    // Queues a check-in for writing and counts it. Never blocks on the database; any thread.
+    public void record(CheckIn checkIn) {
+        hourlyCounts.computeIfAbsent(checkIn.checkedInAt().truncatedTo(ChronoUnit.HOURS), hour -> new LongAdder()).increment();
+        startWriter();
+        if (!queue.offer(checkIn)) {
+            // The writer is far behind; keep the check-in on disk rather than hold up the door
+            appendToSpool(List.of(checkIn));
+        }
+    }
+
+    // Loads today's counts so far, once, in the background (called when the check-in screen loads).
+    public void seedCounters() {
+        if (seeded) {
+            return;
+        }
+        seeded = true;
+        LocalDateTime seededAt = LocalDateTime.now();
+        DataAccessExecutor.execute(() -> {
+            // Up to seededAt only: everything from then on is counted by record()
+            LocalDate today = seededAt.toLocalDate();
+            SortedMap<Integer, Integer> counts = checkInDAO.getHourlyCounts(today.atStartOfDay(), seededAt);
+            counts.forEach((hour, count) ->
+                    hourlyCounts.computeIfAbsent(today.atTime(hour, 0), h -> new LongAdder()).add(count));
+        });
+    }
+
+    // Check-ins per hour (0-23) of one day, from the counters.
+    public SortedMap<Integer, Long> getHourlyCounts(LocalDate day) {
+        SortedMap<Integer, Long> counts = new TreeMap<>();
+        hourlyCounts.forEach((hour, count) -> {
+            if (hour.toLocalDate().equals(day)) {
+                counts.put(hour.getHour(), count.sum());
+            }
+        });
+        return counts;
+    }
+
+    public long getDailyCount(LocalDate day) {
+        return getHourlyCounts(day).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getHourCount(LocalDateTime time) {
+        LongAdder count = hourlyCounts.get(time.truncatedTo(ChronoUnit.HOURS));
+        return count == null ? 0 : count.sum();
+    }
+
+    public Stats getStats() {
+        return new Stats(queue.size(), written.get(), spooled.get(), replayed.get(), failed.get(),
+                Files.exists(spoolFile) || Files.exists(replayFile));
+    }
+
+    /**
+     * Writes out whatever is still queued, to the database if it answers and to the spool file
+     * otherwise. Called once on exit, before the connection pool is closed.
+     */
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            closing = true;
+            running = writer;
+        }
+        if (running != null) {
+            running.interrupt();
+            try {
+                running.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<CheckIn> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    // --- Writer thread ---
+
+    private synchronized void startWriter() {
+        if (writer != null || closing) {
+            return;
+        }
+        writer = new Thread(this::runWriter, "check-in-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void runWriter() {
+        List<CheckIn> batch = new ArrayList<>();
+        try {
+            while (!closing) {
+                try {
+                    CheckIn first = queue.poll(retryMillis, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        queue.drainTo(batch, BatchResult.BATCH_SIZE - 1);
+                        write(batch);
+                    } else {
+                        retrySpool();
+                    }
+                } catch (InterruptedException e) {
+                    break; // close() writes out what is left
+                } catch (RuntimeException e) {
+                    // Keep the batch (spooling it twice is harmless, IDs are unique) and keep the thread going
+                    System.err.println("Check-in writer error: " + e);
+                    if (!batch.isEmpty()) {
+                        appendToSpool(batch);
+                    }
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                writer = null; // Should the thread ever die anyway, the next record() starts a new one
+            }
+        }
+    }
+
+    // Writes one batch, or spools it if the database can't take it (or older check-ins are still spooled).
+    // Package-private for the tests, which drive it without the writer thread.
+    void write(List<CheckIn> batch) {
+        if (!retrySpool()) {
+            appendToSpool(batch);
+            return;
+        }
+        if (!insert(batch)) {
+            appendToSpool(batch);
+        }
+    }
+
+    // Inserts one batch; false if the database could not take it (down, deadlock, timeout)
+    private boolean insert(List<CheckIn> batch) {
+        List<CheckIn> rows = batch;
+        BatchResult result = addCheckIns(rows);
+        while (!result.isSuccess() && result.error() == null) {
+            if (result.rowErrors().firstKey() < 0 || result.rowErrors().lastKey() >= rows.size()) {
+                System.err.println("Check-in batch rejected without a valid row to blame, keeping it: " + result.rowErrors());
+                return false;
+            }
+            // Rows rejected for their values would fail every retry; drop them (logged) and write the rest
+            List<CheckIn> accepted = new ArrayList<>(rows);
+            for (Map.Entry<Integer, String> rejected : result.rowErrors().entrySet()) {
+                System.err.println("Check-in rejected, dropped: " + rows.get(rejected.getKey()) + " (" + rejected.getValue() + ")");
+                accepted.set(rejected.getKey(), null);
+            }
+            accepted.removeIf(Objects::isNull);
+            failed.addAndGet(rows.size() - accepted.size());
+            rows = accepted;
+            result = addCheckIns(rows);
+        }
+        if (result.isSuccess()) {
+            written.addAndGet(rows.size());
+        }
+        return result.isSuccess();
+    }
+
+    // An unexpected exception from the DAO counts as the database not taking the batch
+    private BatchResult addCheckIns(List<CheckIn> rows) {
+        try {
+            return checkInDAO.addCheckIns(rows);
+        } catch (RuntimeException e) {
+            System.err.println("Error writing check-ins: " + e);
+            return BatchResult.failed(String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Writes spooled check-ins to the database, oldest first. Returns true if nothing is left spooled,
+     * false if something still is (database down, or not yet time to try again). The spool file is
+     * moved aside under spoolLock and written without it, so record() never waits on the database.
+     * Package-private for the tests.
+     */
+    boolean retrySpool() {
+        synchronized (replayLock) {
+            while (Files.exists(replayFile) || Files.exists(spoolFile)) {
+                long now = System.currentTimeMillis();
+                if (now < nextRetry && !closing) {
+                    return false;
+                }
+                nextRetry = now + retryMillis;
+
+                // A replay file left over from a failed attempt is older than the spool file, so it goes first
+                if (!Files.exists(replayFile)) {
+                    synchronized (spoolLock) {
+                        try {
+                            Files.move(spoolFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                        } catch (IOException e) {
+                            System.err.println("Could not move the check-in spool file aside: " + e.getMessage());
+                            return false;
+                        }
+                    }
+                }
+                if (!replay()) {
+                    return false;
+                }
+                nextRetry = 0; // The database answered; check-ins spooled meanwhile can go straight away
+            }
+            return true;
+        }
+    }
+
+    // Writes the replay file to the database and deletes it; false if it is still there
+    private boolean replay() {
+        List<CheckIn> spooledCheckIns;
+        try {
+            spooledCheckIns = readSpool(replayFile);
+        } catch (IOException e) {
+            System.err.println("Could not read the check-in spool file: " + e.getMessage());
+            return false;
+        }
+        for (int from = 0; from < spooledCheckIns.size(); from += BatchResult.BATCH_SIZE) {
+            List<CheckIn> chunk = spooledCheckIns.subList(from, Math.min(from + BatchResult.BATCH_SIZE, spooledCheckIns.size()));
+            if (!insert(chunk)) {
+                return false; // Chunks already written are skipped by ID next time
+            }
+            replayed.addAndGet(chunk.size());
+        }
+        try {
+            Files.delete(replayFile);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not delete the check-in spool file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // One check-in per line: ID, MemberID, time, how it was found, admission (tab-separated)
+    private void appendToSpool(List<CheckIn> checkIns) {
+        List<String> lines = new ArrayList<>(checkIns.size());
+        for (CheckIn checkIn : checkIns) {
+            lines.add(String.join("\t", checkIn.checkInID().toString(), checkIn.memberID(),
+                    checkIn.checkedInAt().toString(), checkIn.matchedBy(), checkIn.admission()));
+        }
+        synchronized (spoolLock) {
+            try {
+                Files.createDirectories(spoolFile.toAbsolutePath().getParent());
+                Files.write(spoolFile, lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+                spooled.addAndGet(checkIns.size());
+            } catch (IOException e) {
+                System.err.println("Could not spool " + checkIns.size() + " check-ins, they are lost: " + e.getMessage());
+                failed.addAndGet(checkIns.size());
+            }
+        }
+    }
+
+    private static List<CheckIn> readSpool(Path file) throws IOException {
+        List<CheckIn> checkIns = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t");
+            try {
+                checkIns.add(new CheckIn(UUID.fromString(fields[0]), fields[1], LocalDateTime.parse(fields[2]), fields[3], fields[4]));
+            } catch (RuntimeException e) {
+                // A line cut short by a crash mid-write
+                System.err.println("Skipped an unreadable check-in spool line: " + line);
+            }
+        }
+        return checkIns;
+    }
+}
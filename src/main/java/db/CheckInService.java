@@ -0,0 +1,227 @@
+package db;
+
+import javafx.application.Platform;
+import model.Member;
+import model.MembershipRecord;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Answers "who is this and may they come in?" at the door without a query. A scanned card token,
+ * a MemberID or a phone number is resolved with hash lookups: members and their phone numbers come
+ * from {@link MemberCache}, while this class keeps the active card tokens and every membership that
+ * hasn't ended yet. Both are read once in the background, then patched by {@link MembershipDAO} and
+ * {@link MemberCardDAO} writes and re-read when {@link ChangeFeed} reports other desks' changes.
+ * Lookups are made on the JavaFX Application Thread, which is also the only thread that changes the maps.
+ */
+public class CheckInService {
+
+    private static final CheckInService INSTANCE = new CheckInService();
+
+    public enum Status {
+        ACTIVE,          // A paid membership covers today
+        PAYMENT_PENDING, // A membership covers today but isn't paid yet
+        NO_MEMBERSHIP,   // Nothing covers today (expired, cancelled or never joined)
+        UNKNOWN          // Memberships aren't loaded yet, or could not be read
+    }
+
+    public enum MatchedBy {
+        CARD, MEMBER_ID, PHONE
+    }
+
+    // activeUntil is the end date of the paid membership that admits the member, otherwise null
+    public record Match(Member member, MatchedBy matchedBy, Status status, LocalDate activeUntil) {
+    }
+
+    private final MembershipDAO membershipDAO = new MembershipDAO();
+    private final MemberCardDAO memberCardDAO = new MemberCardDAO();
+
+    // FX thread only
+    private final Map<String, String> cards = new HashMap<>(); // CardToken -> MemberID
+    private final Map<Integer, MembershipRecord> memberships = new HashMap<>(); // Not ended at load time
+    private final Map<String, List<MembershipRecord>> membershipsByMember = new HashMap<>();
+    private boolean loaded;
+    private boolean loading;
+    private boolean staleWhileLoading;
+
+    private CheckInService() {
+    }
+
+    public static CheckInService getInstance() {
+        return INSTANCE;
+    }
+
+    // Loads cards and current memberships (and the member cache) unless already done.
+    public void ensureLoaded() {
+        MemberCache.getInstance().ensureLoaded();
+        runOnFxThread(() -> {
+            if (!loaded && !loading) {
+                load();
+            }
+        });
+    }
+
+    // Reads cards and memberships again; does nothing on a desk that hasn't used check-in.
+    public void reload() {
+        runOnFxThread(() -> {
+            if (loading) {
+                staleWhileLoading = true;
+            } else if (loaded) {
+                load();
+            }
+        });
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Finds the member for a card token, MemberID or phone number, in that order. Several members can
+     * share a phone number, so the result may hold more than one match; it is empty if nothing matched.
+     */
+    public List<Match> lookup(String input) {
+        String query = input == null ? "" : input.trim();
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        MemberCache members = MemberCache.getInstance();
+
+        String cardMemberId = cards.get(query);
+        if (cardMemberId != null) {
+            Optional<Member> member = members.findById(cardMemberId);
+            if (member.isPresent()) {
+                return List.of(match(member.get(), MatchedBy.CARD));
+            }
+        }
+
+        Optional<Member> byId = members.findById(query).or(() -> members.findById(query.toUpperCase(Locale.ROOT)));
+        if (byId.isPresent()) {
+            return List.of(match(byId.get(), MatchedBy.MEMBER_ID));
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Member member : members.findByPhone(query)) {
+            matches.add(match(member, MatchedBy.PHONE));
+        }
+        return matches;
+    }
+
+    private Match match(Member member, MatchedBy matchedBy) {
+        if (!loaded) {
+            return new Match(member, matchedBy, Status.UNKNOWN, null);
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate activeUntil = null;
+        boolean pending = false;
+        for (MembershipRecord membership : membershipsByMember.getOrDefault(member.getMemberId(), List.of())) {
+            if (membership.startDate().isAfter(today) || membership.endDate().isBefore(today)) {
+                continue;
+            }
+            if ("Paid".equalsIgnoreCase(membership.paymentStatus())) {
+                if (activeUntil == null || membership.endDate().isAfter(activeUntil)) {
+                    activeUntil = membership.endDate();
+                }
+            } else if ("Pending".equalsIgnoreCase(membership.paymentStatus())) {
+                pending = true;
+            }
+        }
+        Status status = activeUntil != null ? Status.ACTIVE : pending ? Status.PAYMENT_PENDING : Status.NO_MEMBERSHIP;
+        return new Match(member, matchedBy, status, activeUntil);
+    }
+
+    // --- Called by the DAOs after a successful write (any thread) ---
+
+    void membershipSaved(MembershipRecord membership) {
+        runOnFxThread(() -> {
+            if (applyIfLoaded() && !membership.endDate().isBefore(LocalDate.now())) {
+                addMembership(membership);
+            }
+        });
+    }
+
+    void membershipDeleted(int membershipID) {
+        runOnFxThread(() -> {
+            if (!applyIfLoaded()) {
+                return;
+            }
+            MembershipRecord removed = memberships.remove(membershipID);
+            if (removed != null) {
+                List<MembershipRecord> forMember = membershipsByMember.get(removed.memberID());
+                forMember.remove(removed);
+                if (forMember.isEmpty()) {
+                    membershipsByMember.remove(removed.memberID());
+                }
+            }
+        });
+    }
+
+    void cardLinked(String cardToken, String memberID) {
+        runOnFxThread(() -> {
+            if (applyIfLoaded()) {
+                cards.put(cardToken, memberID);
+            }
+        });
+    }
+
+    void cardDeactivated(String cardToken) {
+        runOnFxThread(() -> {
+            if (applyIfLoaded()) {
+                cards.remove(cardToken);
+            }
+        });
+    }
+
+    // --- Internals ---
+
+    private void load() {
+        loading = true;
+        staleWhileLoading = false;
+        DataAccessExecutor.execute(() -> {
+            Optional<List<MembershipRecord>> current = membershipDAO.getMembershipRecordsEndingFrom(LocalDate.now());
+            Optional<Map<String, String>> activeCards = memberCardDAO.getActiveCards();
+            runOnFxThread(() -> {
+                loading = false;
+                if (current.isPresent() && activeCards.isPresent()) {
+                    memberships.clear();
+                    membershipsByMember.clear();
+                    current.get().forEach(this::addMembership);
+                    cards.clear();
+                    cards.putAll(activeCards.get());
+                    loaded = true;
+                }
+                if (staleWhileLoading) {
+                    load();
+                }
+            });
+        });
+    }
+
+    private void addMembership(MembershipRecord membership) {
+        memberships.put(membership.membershipID(), membership);
+        membershipsByMember.computeIfAbsent(membership.memberID(), id -> new ArrayList<>(2)).add(membership);
+    }
+
+    // Same rule as MemberCache: writes during a load are picked up by loading again
+    private boolean applyIfLoaded() {
+        if (loading) {
+            staleWhileLoading = true;
+            return false;
+        }
+        return loaded;
+    }
+
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool used by {@link DatabaseConnection}.
+ * Connections are validated on borrow, evicted after sitting idle, and flagged
+ * (with the borrowing stack trace) when they are held longer than the leak threshold.
+ * Borrowers that are expected to hold a connection for long (exports) use {@link #borrowLongRunning()},
+ * which is exempt from the leak check.
+ */
+public class ConnectionPool {
+
+    // Skip the isValid() round trip for connections that were used very recently
+    private static final long VALIDATION_INTERVAL_MS = 1_000L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_PERIOD_MS = 10_000L;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutNanos;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    // All pool state below is guarded by lock
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> inUse = new HashSet<>();
+    private int totalCount; // idle + in use + being created
+    private boolean closed;
+
+    private final ScheduledExecutorService housekeeper;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(Math.max(minIdle, 0), maxSize);
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_PERIOD_MS, HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout when the pool is exhausted.
+     * The returned connection goes back to the pool when it is closed.
+     */
+    public Connection borrow() throws SQLException {
+        return borrow(true);
+    }
+
+    /**
+     * Like {@link #borrow()}, but never reported as a leak however long it is held.
+     * For work that streams for minutes on purpose, such as a CSV export.
+     */
+    public Connection borrowLongRunning() throws SQLException {
+        return borrow(false);
+    }
+
+    private Connection borrow(boolean leakTracked) throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + borrowTimeoutNanos;
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean createNew = false;
+
+            lock.lock();
+            try {
+                while (pooled == null && !createNew) {
+                    if (closed) {
+                        throw new SQLException("Connection pool has been shut down.");
+                    }
+                    pooled = idle.pollFirst(); // Most recently used first, so the rest can go idle
+                    if (pooled == null) {
+                        if (totalCount < maxSize) {
+                            totalCount++; // Reserve the slot, connect outside the lock
+                            createNew = true;
+                        } else {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                timeoutCount.increment();
+                                throw new SQLException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos)
+                                        + " ms waiting for a database connection (pool size " + maxSize + ").");
+                            }
+                            available.awaitNanos(remaining);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.", e);
+            } finally {
+                lock.unlock();
+            }
+
+            if (createNew) {
+                pooled = createConnection();
+            } else if (!validate(pooled)) {
+                validationFailures.increment();
+                destroy(pooled);
+                continue; // Try the next idle connection (or open a fresh one)
+            }
+
+            recordWait(System.nanoTime() - start);
+            return checkOut(pooled, leakTracked);
+        }
+    }
+
+    // Hands a connection back after its logical close().
+    void release(PooledConnection pooled) {
+        if (pooled.isBroken() || !pooled.reset()) {
+            lock.lock();
+            try {
+                inUse.remove(pooled);
+            } finally {
+                lock.unlock();
+            }
+            destroy(pooled);
+            return;
+        }
+
+        boolean closeNow = false;
+        lock.lock();
+        try {
+            inUse.remove(pooled);
+            pooled.markReturned();
+            if (closed) {
+                closeNow = true;
+            } else {
+                idle.addFirst(pooled);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (closeNow) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Opens connections until minIdle are available. Used by the startup warm-up
+     * so the first screen does not pay for the login handshake.
+     */
+    public void prefill() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || idle.size() >= minIdle || totalCount >= maxSize) {
+                    return;
+                }
+                totalCount++;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                PooledConnection pooled = createConnection();
+                boolean closeNow = false;
+                lock.lock();
+                try {
+                    // shutdown() may have run while the connection was being opened
+                    if (closed) {
+                        closeNow = true;
+                    } else {
+                        idle.addLast(pooled);
+                        available.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (closeNow) {
+                    destroy(pooled);
+                    return;
+                }
+            } catch (SQLException e) {
+                System.err.println("Error pre-opening database connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Closes idle connections now and in-use connections as they are returned.
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            destroy(pooled);
+        }
+    }
+
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.sum();
+            return new PoolStats(maxSize, totalCount, idle.size(), inUse.size(),
+                    lock.getQueueLength() + lock.getWaitQueueLength(available),
+                    borrows, createdCount.sum(), destroyedCount.sum(), timeoutCount.sum(),
+                    validationFailures.sum(), leakCount.sum(),
+                    borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / borrows),
+                    TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()),
+                    statementCacheHits.sum(), statementCacheMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Internals ---
+
+    // Each physical connection gets its own statement cache; hit/miss counters are pool-wide.
+    StatementCache newStatementCache(PooledConnection owner) {
+        return new StatementCache(owner, statementCacheSize, statementCacheHits, statementCacheMisses);
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        try {
+            Connection raw = DriverManager.getConnection(url, user, password);
+            createdCount.increment();
+            return new PooledConnection(this, raw);
+        } catch (SQLException | RuntimeException e) {
+            // Give the reserved slot back so other callers can try again
+            lock.lock();
+            try {
+                totalCount--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.getLastUsedMillis() < VALIDATION_INTERVAL_MS) {
+            return true;
+        }
+        try {
+            return pooled.getRawConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection checkOut(PooledConnection pooled, boolean leakTracked) {
+        Throwable borrowSite = leakTracked && leakThresholdMillis > 0
+                ? new Throwable("Connection borrowed by thread " + Thread.currentThread().getName())
+                : null;
+        lock.lock();
+        try {
+            inUse.add(pooled);
+        } finally {
+            lock.unlock();
+        }
+        borrowCount.increment();
+        return pooled.checkOut(borrowSite, leakTracked);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        pooled.closeQuietly();
+        destroyedCount.increment();
+        lock.lock();
+        try {
+            totalCount--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    // Runs on the housekeeper thread: evicts idle connections and reports leaks.
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator(); // Least recently used first
+            while (it.hasNext() && idle.size() - evicted.size() > minIdle) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.getLastUsedMillis() > idleTimeoutMillis) {
+                    it.remove();
+                    evicted.add(pooled);
+                }
+            }
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : inUse) {
+                    if (pooled.isLeakTracked() && !pooled.isLeakReported()
+                            && now - pooled.getBorrowedAtMillis() > leakThresholdMillis) {
+                        pooled.setLeakReported(true);
+                        leaked.add(pooled);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            destroy(pooled);
+        }
+        for (PooledConnection pooled : leaked) {
+            leakCount.increment();
+            System.err.println("Possible connection leak: connection held for "
+                    + (now - pooled.getBorrowedAtMillis()) + " ms without being closed.");
+            Throwable site = pooled.getBorrowSite();
+            if (site != null) {
+                site.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of pool metrics. Wait times are in microseconds.
+     */
+    public record PoolStats(int maxSize, int totalConnections, int idleConnections, int activeConnections,
+                            int waitingThreads, long borrowCount, long createdCount, long destroyedCount,
+                            long timeoutCount, long validationFailures, long leakCount,
+                            long averageWaitMicros, long maxWaitMicros,
+                            long statementCacheHits, long statementCacheMisses) {
+
+        public double statementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+    }
+}
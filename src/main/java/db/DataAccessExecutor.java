@@ -0,0 +1,30 @@
+package db;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared executor for database work. Every task gets its own virtual thread, so a slow
+ * query never holds up other screens; the connection pool still bounds how many run at once.
+ */
+public class DataAccessExecutor {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("db-task-", 0).factory());
+
+    private DataAccessExecutor() {
+    }
+
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    public static ExecutorService getExecutor() {
+        return EXECUTOR;
+    }
+
+    // Stops accepting work and interrupts whatever is still running. Called once on exit.
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+}
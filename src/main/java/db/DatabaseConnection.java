@@ -0,0 +1,55 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class DatabaseConnection {
+
+    // Connection settings (override with -Dapollo.db.url=... etc. when pointing at another server)
+    private static final String URL = System.getProperty("apollo.db.url",
+            "jdbc:sqlserver://localhost:1433;databaseName=ApolloTrainer;encrypt=true;trustServerCertificate=true");
+    private static final String USER = System.getProperty("apollo.db.user", "sa");
+    private static final String PASSWORD = System.getProperty("apollo.db.password", "");
+
+    // Pool settings (sized for a handful of front-desk clients per workstation)
+    private static final int POOL_MAX_SIZE = Integer.getInteger("apollo.db.pool.maxSize", 8);
+    private static final int POOL_MIN_IDLE = Integer.getInteger("apollo.db.pool.minIdle", 2);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("apollo.db.pool.borrowTimeoutMs", 10_000L);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("apollo.db.pool.idleTimeoutMs", 300_000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("apollo.db.pool.leakThresholdMs", 30_000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("apollo.db.statementCacheSize", 64);
+
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD,
+            POOL_MAX_SIZE, POOL_MIN_IDLE, BORROW_TIMEOUT_MS, IDLE_TIMEOUT_MS, LEAK_THRESHOLD_MS,
+            STATEMENT_CACHE_SIZE);
+
+    private DatabaseConnection() {
+    }
+
+    /**
+     * Borrows a connection from the shared pool.
+     * Closing the returned connection (e.g. via try-with-resources) hands it back to the pool
+     * instead of logging out of SQL Server.
+     */
+    public static Connection getConnection() throws SQLException {
+        return POOL.borrow();
+    }
+
+    /**
+     * Borrows a connection that may be held for minutes (e.g. a streaming export)
+     * without being reported as a leak. Close it the same way.
+     */
+    public static Connection getLongRunningConnection() throws SQLException {
+        return POOL.borrowLongRunning();
+    }
+
+    // Exposes the pool for metrics and warm-up.
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+
+    // Closes every pooled connection. Called once when the application exits.
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+}
@@ -0,0 +1,113 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out prefixed IDs (e.g. M0001, P0001) from blocks reserved in the IdSequence table.
+ * Reserving a block is a single atomic UPDATE ... OUTPUT, so two desks inserting at the
+ * same time never receive the same ID, and most inserts need no extra query at all.
+ * IDs from a block that is never used (e.g. the app is closed) are simply skipped.
+ * <p>
+ * Callers pass the connection they are about to insert with, so an insert never holds two pooled
+ * connections at once (with every connection borrowed, a second borrow would wait for the timeout).
+ * Call it while the connection is still in auto-commit mode, so the reservation is committed at once.
+ * <p>
+ * The IdSequence table comes from sql/006-id-sequence.sql. Numbers are zero-padded to four digits and
+ * grow longer past 9999, so ID order is length first (see {@link MemberDAO#getMembersPage}).
+ */
+public class IdAllocator {
+
+    public static final IdAllocator MEMBER = new IdAllocator("Member", "MemberID", "M", 4);
+    public static final IdAllocator PAYMENT = new IdAllocator("Payment", "PaymentID", "P", 4);
+
+    private static final int BLOCK_SIZE = Integer.getInteger("apollo.db.idBlockSize", 20);
+
+    private static final String RESERVE_SQL =
+            "UPDATE IdSequence SET NextValue = NextValue + ? OUTPUT DELETED.NextValue WHERE SequenceName = ?";
+
+    private final String tableName;
+    private final String prefix;
+    private final String format;
+    private final String seedSql;
+
+    // Current block: IDs in [next, limit) are ours to hand out
+    private long next;
+    private long limit;
+    private boolean sequenceReady;
+
+    private IdAllocator(String tableName, String idColumn, String prefix, int digits) {
+        this.tableName = tableName;
+        this.prefix = prefix;
+        this.format = prefix + "%0" + digits + "d";
+        // First use only: start the sequence after the highest ID already in the table. One MERGE under
+        // HOLDLOCK, so desks seeding at the same moment queue up and only the first inserts the row.
+        this.seedSql = "MERGE IdSequence WITH (HOLDLOCK) AS S " +
+                "USING (SELECT ? AS SequenceName, " +
+                "COALESCE(MAX(CAST(SUBSTRING(" + idColumn + ", " + (prefix.length() + 1) + ", 20) AS BIGINT)), 0) + 1 AS NextValue " +
+                "FROM " + tableName + ") AS Seed " +
+                "ON S.SequenceName = Seed.SequenceName " +
+                "WHEN NOT MATCHED THEN INSERT (SequenceName, NextValue) VALUES (Seed.SequenceName, Seed.NextValue);";
+    }
+
+    /**
+     * Returns the next unused ID, reserving a new block from the database only when
+     * the current one is used up.
+     */
+    public synchronized String nextId(Connection conn) throws SQLException {
+        if (next >= limit) {
+            reserveBlock(conn, BLOCK_SIZE);
+        }
+        return String.format(format, next++);
+    }
+
+    /**
+     * Returns count consecutive unused IDs (used for bulk inserts).
+     */
+    public synchronized List<String> nextIds(Connection conn, int count) throws SQLException {
+        List<String> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            if (next >= limit) {
+                reserveBlock(conn, Math.max(BLOCK_SIZE, count - ids.size()));
+            }
+            ids.add(String.format(format, next++));
+        }
+        return ids;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    // Atomically moves the shared counter forward by size and keeps the range it skipped over.
+    private void reserveBlock(Connection conn, int size) throws SQLException {
+        if (!sequenceReady) {
+            ensureSequence(conn);
+            sequenceReady = true;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(RESERVE_SQL)) {
+            pstmt.setInt(1, size);
+            pstmt.setString(2, tableName);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("No IdSequence row for " + tableName + ".");
+                }
+                next = rs.getLong(1);
+                limit = next + size;
+            }
+        }
+    }
+
+    private void ensureSequence(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(seedSql)) {
+            pstmt.setString(1, tableName);
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package db;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Stand-in for {@link SqlServerChangeSource} that reports whatever is published to it, for tests
+ * and for databases without change tracking. Keeps the last 10,000 events; a poller that falls
+ * further behind than that is told to resync.
+ */
+public class InMemoryChangeSource implements ChangeSource {
+
+    private static final int CAPACITY = 10_000;
+
+    private final ArrayDeque<ChangeEvent> events = new ArrayDeque<>();
+    private long version; // Version of the newest event
+
+    public synchronized void publish(String table, ChangeEvent.Operation operation, String key) {
+        events.addLast(new ChangeEvent(table, operation, key));
+        if (events.size() > CAPACITY) {
+            events.removeFirst();
+        }
+        version++;
+    }
+
+    @Override
+    public synchronized long currentVersion() {
+        return version;
+    }
+
+    @Override
+    public synchronized Changes poll(long sinceVersion) {
+        long missed = version - sinceVersion;
+        if (missed > events.size()) {
+            return new Changes(version, List.of(), true);
+        }
+        if (missed <= 0) {
+            return Changes.none(version);
+        }
+
+        List<ChangeEvent> newer = new ArrayList<>((int) missed);
+        Iterator<ChangeEvent> newestFirst = events.descendingIterator();
+        for (long i = 0; i < missed; i++) {
+            newer.add(newestFirst.next());
+        }
+        return new Changes(version, newer.reversed(), false);
+    }
+}
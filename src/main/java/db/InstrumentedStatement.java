@@ -0,0 +1,154 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps a statement handed out by {@link PooledConnection} so that every execute call is timed
+ * into {@link QueryMetrics}, and every ResultSet it produces counts the rows and (roughly) the
+ * bytes read from it. Byte counts use characters for text, the array length for binary data
+ * and 8 for any other value.
+ */
+final class InstrumentedStatement implements InvocationHandler {
+
+    private final Statement statement;
+    private final String preparedSql; // null for plain Statements, whose SQL comes with each execute call
+    private String lastSql;
+    private CountingResultSet openResultSet;
+
+    private InstrumentedStatement(Statement statement, String preparedSql) {
+        this.statement = statement;
+        this.preparedSql = preparedSql;
+        this.lastSql = preparedSql;
+    }
+
+    // Wraps statement behind the given JDBC interface (Statement, PreparedStatement or CallableStatement).
+    static Object wrap(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new InstrumentedStatement(statement, preparedSql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Instrumented[" + statement + "]";
+            case "close":
+                finishResultSet(); // Closing the statement also closes its ResultSet
+                break;
+            default:
+                break;
+        }
+
+        boolean isExecute = name.startsWith("execute");
+        if (isExecute) {
+            finishResultSet();
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                lastSql = sql;
+            } else if (preparedSql != null) {
+                lastSql = preparedSql;
+            }
+        }
+
+        long start = isExecute ? System.nanoTime() : 0L;
+        Object result;
+        try {
+            result = method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            if (isExecute) {
+                QueryMetrics.getInstance().recordExecution(lastSql, System.nanoTime() - start, true);
+            }
+            throw e.getCause();
+        }
+        if (isExecute) {
+            QueryMetrics.getInstance().recordExecution(lastSql, System.nanoTime() - start, false);
+        }
+
+        if (result instanceof ResultSet rs && (name.equals("executeQuery") || name.equals("getResultSet"))) {
+            finishResultSet(); // getMoreResults() moved on from the previous one
+            openResultSet = new CountingResultSet(rs, lastSql);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, openResultSet);
+        }
+        return result;
+    }
+
+    private void finishResultSet() {
+        if (openResultSet != null) {
+            openResultSet.finish();
+            openResultSet = null;
+        }
+    }
+
+    // Counts rows and value sizes as the DAO reads them; reports once when closed.
+    private static final class CountingResultSet implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final String sql;
+        private long rows;
+        private long bytes;
+        private boolean finished;
+
+        CountingResultSet(ResultSet resultSet, String sql) {
+            this.resultSet = resultSet;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    finish();
+                    break;
+                default:
+                    break;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(resultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+            } else if (name.startsWith("get") && args != null && args.length > 0 && result != null) {
+                bytes += sizeOf(result);
+            }
+            return result;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                QueryMetrics.getInstance().recordFetch(sql, rows, bytes);
+            }
+        }
+
+        private static long sizeOf(Object value) {
+            if (value instanceof String text) {
+                return text.length();
+            }
+            if (value instanceof byte[] data) {
+                return data.length;
+            }
+            return 8;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package db;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.Member;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide copy of the Member table that every member ComboBox binds to.
+ * It is loaded once in the background and then patched by {@link MemberDAO} writes,
+ * so switching screens no longer rescans the whole table. Every change bumps the version stamp.
+ * The observable list is only ever modified on the JavaFX Application Thread.
+ */
+public class MemberCache {
+
+    private static final MemberCache INSTANCE = new MemberCache();
+
+    private final MemberDAO memberDAO = new MemberDAO();
+    private final ObservableList<Member> members = FXCollections.observableArrayList();
+    private final ObservableList<Member> readOnlyMembers = FXCollections.unmodifiableObservableList(members);
+    private final Map<String, Member> byId = new ConcurrentHashMap<>();
+    private final MemberSearchIndex searchIndex = new MemberSearchIndex(); // FX thread only
+    private final AtomicLong version = new AtomicLong();
+
+    // FX thread only
+    private boolean loaded;
+    private boolean loading;
+    private boolean staleWhileLoading; // A write arrived mid-load, so load again afterwards
+
+    private MemberCache() {
+    }
+
+    public static MemberCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The cached members, for binding to ComboBoxes. Starts the initial load if needed;
+     * the list fills in once it completes. Call on the FX thread.
+     */
+    public ObservableList<Member> getMembers() {
+        ensureLoaded();
+        return readOnlyMembers;
+    }
+
+    // Looks a member up by MemberID without touching the database.
+    public Optional<Member> findById(String memberId) {
+        return Optional.ofNullable(memberId == null ? null : byId.get(memberId));
+    }
+
+    /**
+     * Prefix search over every cached member (ID, names, phone, email), not just the rows a table
+     * has paged in. Returns an empty list until the first load completes. Call on the FX thread.
+     */
+    public List<Member> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return searchIndex.search(query, limit);
+    }
+
+    // Members with this phone number (exact, punctuation ignored); empty until the first load completes. FX thread.
+    public List<Member> findByPhone(String phone) {
+        return searchIndex.findByPhone(phone);
+    }
+
+    // Increases on every load and every change; lets views tell whether they are out of date.
+    public long getVersion() {
+        return version.get();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Loads the member table in the background unless it is already loaded (or loading).
+    public void ensureLoaded() {
+        runOnFxThread(() -> {
+            if (!loaded && !loading) {
+                load();
+            }
+        });
+    }
+
+    // Throws the cached copy away and reads the table again.
+    public void reload() {
+        runOnFxThread(() -> {
+            if (loading) {
+                staleWhileLoading = true;
+            } else {
+                load();
+            }
+        });
+    }
+
+    // --- Called by MemberDAO after a successful write (any thread) ---
+    // The cache keeps copies: the caller's object may be a table row that is edited again later
+
+    void memberAdded(Member written) {
+        Member member = written.copy();
+        runOnFxThread(() -> {
+            if (!applyIfLoaded()) {
+                return;
+            }
+            byId.put(member.getMemberId(), member);
+            searchIndex.add(member);
+            members.add(member);
+            version.incrementAndGet();
+        });
+    }
+
+    // Bulk variant of memberAdded, applied in one go so list listeners see a single change
+    void membersAdded(List<Member> added) {
+        List<Member> copy = added.stream().map(Member::copy).toList();
+        runOnFxThread(() -> {
+            if (!applyIfLoaded()) {
+                return;
+            }
+            for (Member member : copy) {
+                byId.put(member.getMemberId(), member);
+                searchIndex.add(member);
+            }
+            members.addAll(copy);
+            version.incrementAndGet();
+        });
+    }
+
+    void memberUpdated(Member written) {
+        Member member = written.copy();
+        runOnFxThread(() -> {
+            if (!applyIfLoaded()) {
+                return;
+            }
+            Member previous = byId.put(member.getMemberId(), member);
+            searchIndex.add(member); // Replaces the old tokens
+            int index = previous == null ? -1 : members.indexOf(previous);
+            if (index >= 0) {
+                members.set(index, member); // Replace so list listeners see the change
+            } else {
+                members.add(member);
+            }
+            version.incrementAndGet();
+        });
+    }
+
+    void memberRemoved(String memberId) {
+        runOnFxThread(() -> {
+            if (!applyIfLoaded()) {
+                return;
+            }
+            Member previous = byId.remove(memberId);
+            searchIndex.remove(memberId);
+            if (previous != null) {
+                members.remove(previous);
+            }
+            version.incrementAndGet();
+        });
+    }
+
+    // --- Called by ChangeFeed (on its own thread) when other desks changed members ---
+
+    void membersChanged(Set<String> memberIds) {
+        Optional<Map<String, Member>> read = memberDAO.getMembersByIds(memberIds);
+        if (read.isEmpty()) {
+            return;
+        }
+        Map<String, Member> current = read.get();
+        runOnFxThread(() -> {
+            if (!applyIfLoaded()) {
+                return;
+            }
+            for (String memberId : memberIds) {
+                Member fresh = current.get(memberId);
+                Member cached = byId.get(memberId);
+                if (fresh == null) {
+                    if (cached != null) {
+                        memberRemoved(memberId);
+                    }
+                } else if (cached == null || !sameValues(cached, fresh)) {
+                    memberUpdated(fresh); // Adds it if it is new
+                }
+                // Unchanged: most likely this desk's own write coming back
+            }
+        });
+    }
+
+    // --- Internals ---
+
+    private static boolean sameValues(Member a, Member b) {
+        return Objects.equals(a.getFirstName(), b.getFirstName())
+                && Objects.equals(a.getLastName(), b.getLastName())
+                && Objects.equals(a.getContactNumber(), b.getContactNumber())
+                && Objects.equals(a.getEmail(), b.getEmail())
+                && Objects.equals(a.getDateOfBirth(), b.getDateOfBirth())
+                && Objects.equals(a.getJoiningDate(), b.getJoiningDate())
+                && Objects.equals(a.getAddress(), b.getAddress());
+    }
+
+    private void load() {
+        loading = true;
+        staleWhileLoading = false;
+        DataAccessExecutor.execute(() -> {
+            List<Member> all = memberDAO.getAllMembers();
+            runOnFxThread(() -> {
+                byId.clear();
+                searchIndex.clear();
+                for (Member member : all) {
+                    byId.put(member.getMemberId(), member);
+                    searchIndex.add(member);
+                }
+                members.setAll(all);
+                version.incrementAndGet();
+                loaded = true;
+                loading = false;
+                if (staleWhileLoading) {
+                    load();
+                }
+            });
+        });
+    }
+
+    // Writes before the first load finishes are picked up by reloading; before any load they are moot.
+    private boolean applyIfLoaded() {
+        if (loading) {
+            staleWhileLoading = true;
+            return false;
+        }
+        return loaded;
+    }
+
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+}
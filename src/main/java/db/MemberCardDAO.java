@@ -0,0 +1,83 @@
+package db;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class MemberCardDAO {
+
+    //Create/Update: Links a card token to a member. A token seen before (even switched off, or on another
+    //member's account) is moved to this member and switched back on.
+    public boolean linkCard(String cardToken, String memberID) {
+        String updateSql = "UPDATE MemberCard SET MemberID = ?, IsActive = 1, IssuedAt = SYSDATETIME() WHERE CardToken = ?";
+        String insertSql = "INSERT INTO MemberCard (CardToken, MemberID) VALUES (?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int affectedRows;
+            try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                pstmt.setString(1, memberID);
+                pstmt.setString(2, cardToken);
+                affectedRows = pstmt.executeUpdate();
+            }
+            if (affectedRows == 0) {
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                    pstmt.setString(1, cardToken);
+                    pstmt.setString(2, memberID);
+                    affectedRows = pstmt.executeUpdate();
+                }
+            }
+            if (affectedRows > 0) {
+                CheckInService.getInstance().cardLinked(cardToken, memberID);
+                return true;
+            }
+            return false;
+
+        } catch (SQLException e) {
+            System.err.println("Error linking member card: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    //Update: Switches a card off (lost or returned); the row is kept so the token is never reused by accident.
+    public boolean deactivateCard(String cardToken) {
+        String sql = "UPDATE MemberCard SET IsActive = 0 WHERE CardToken = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, cardToken);
+            if (pstmt.executeUpdate() > 0) {
+                CheckInService.getInstance().cardDeactivated(cardToken);
+                return true;
+            }
+            return false;
+
+        } catch (SQLException e) {
+            System.err.println("Error deactivating member card: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    //Read: All active cards, token -> MemberID. Empty if the read failed.
+    public Optional<Map<String, String>> getActiveCards() {
+        Map<String, String> cards = new HashMap<>();
+        String sql = "SELECT CardToken, MemberID FROM MemberCard WHERE IsActive = 1";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                cards.put(rs.getString("CardToken"), rs.getString("MemberID"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving member cards: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+        return Optional.of(cards);
+    }
+}
@@ -4,28 +4,18 @@ import model.Member;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class MemberDAO {
 
-    /**
-     * Helper method to generate the next MemberID (e.g., M0001, M0002)
-     */
-    private String generateNextMemberID(Connection conn) throws SQLException {
-        String sql = "SELECT TOP 1 MemberID FROM Member ORDER BY MemberID DESC";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                String lastId = rs.getString("MemberID");
-                // Expects format M#### (e.g., M0001)
-                int number = Integer.parseInt(lastId.substring(1));
-                return String.format("M%04d", number + 1);
-            } else {
-                return "M0001"; // First member
-            }
-        }
-    }
+    private static final int MAX_IDS_PER_QUERY = 1000;
 
     /**
      * C - Create: Adds a new member to the database.
@@ -33,15 +23,15 @@ public class MemberDAO {
      * @return true if successful, false otherwise.
      */
     public boolean addMember(Member member) {
-        // SQL will handle generating the next MemberID automatically.
+        // MemberID (e.g., M0001) comes from the shared IdAllocator, so concurrent desks never collide.
         String sql = "INSERT INTO Member (MemberID, FirstName, LastName, ContactNumber, Email, DateOfBirth, JoiningDate, Address) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            // Generate ID before insertion
-            String newId = generateNextMemberID(conn);
+            // Take the next ID from the reserved block (no extra query per insert)
+            String newId = IdAllocator.MEMBER.nextId(conn);
             member.setMemberId(newId); // Update the model object with the new ID
 
             pstmt.setString(1, member.getMemberId());
@@ -53,7 +43,11 @@ public class MemberDAO {
             pstmt.setDate(7, Date.valueOf(member.getJoiningDate()));
             pstmt.setString(8, member.getAddress());
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                MemberCache.getInstance().memberAdded(member);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error adding member: " + e.getMessage());
@@ -62,6 +56,79 @@ public class MemberDAO {
         }
     }
 
+    /**
+     * C - Create (bulk): Inserts many members in one transaction using JDBC batches,
+     * with all their IDs reserved up front. Used by the CSV import.
+     * @param members The new members; on success each one has its MemberID set.
+     * @return How many were inserted, or which rows were rejected (nothing is inserted then).
+     */
+    public BatchResult addMembers(List<Member> members) {
+        String sql = "INSERT INTO Member (MemberID, FirstName, LastName, ContactNumber, Email, DateOfBirth, JoiningDate, Address) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        // Check required fields before touching the database
+        SortedMap<Integer, String> invalid = new TreeMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            if (member.getDateOfBirth() == null || member.getJoiningDate() == null) {
+                invalid.put(i, "Date of birth and joining date are required.");
+            }
+        }
+        if (!invalid.isEmpty()) {
+            return BatchResult.rejected(invalid);
+        }
+        if (members.isEmpty()) {
+            return BatchResult.inserted(0);
+        }
+
+        int chunkStart = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            List<String> ids = IdAllocator.MEMBER.nextIds(conn, members.size());
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < members.size(); i++) {
+                    Member member = members.get(i);
+                    pstmt.setString(1, ids.get(i));
+                    pstmt.setString(2, member.getFirstName());
+                    pstmt.setString(3, member.getLastName());
+                    pstmt.setString(4, member.getContactNumber());
+                    pstmt.setString(5, member.getEmail());
+                    pstmt.setDate(6, Date.valueOf(member.getDateOfBirth()));
+                    pstmt.setDate(7, Date.valueOf(member.getJoiningDate()));
+                    pstmt.setString(8, member.getAddress());
+                    pstmt.addBatch();
+
+                    if ((i + 1) % BatchResult.BATCH_SIZE == 0 || i == members.size() - 1) {
+                        pstmt.executeBatch();
+                        chunkStart = i + 1;
+                    }
+                }
+                conn.commit();
+            } catch (BatchUpdateException e) {
+                conn.rollback();
+                System.err.println("Bulk member insert rolled back: " + e.getMessage());
+                return BatchResult.fromBatchFailure(chunkStart, members.size(), e);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            for (int i = 0; i < members.size(); i++) {
+                members.get(i).setMemberId(ids.get(i));
+            }
+            MemberCache.getInstance().membersAdded(members);
+            return BatchResult.inserted(members.size());
+
+        } catch (SQLException e) {
+            System.err.println("Error adding members in bulk: " + e.getMessage());
+            e.printStackTrace();
+            return BatchResult.failed(e.getMessage());
+        }
+    }
+
     /**
      * R - Read: Retrieves all members from the database.
      * @return A list of Member objects.
@@ -71,21 +138,11 @@ public class MemberDAO {
         String sql = "SELECT * FROM Member";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
-                Member member = new Member(
-                        rs.getString("MemberID"),
-                        rs.getString("FirstName"),
-                        rs.getString("LastName"),
-                        rs.getString("ContactNumber"),
-                        rs.getString("Email"),
-                        rs.getDate("DateOfBirth").toLocalDate(), // Convert SQL Date to LocalDate
-                        rs.getDate("JoiningDate").toLocalDate(),
-                        rs.getString("Address")
-                );
-                members.add(member);
+                members.add(mapMember(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving members: " + e.getMessage());
@@ -94,6 +151,91 @@ public class MemberDAO {
         return members;
     }
 
+    /**
+     * R - Read (paged): Retrieves the next page of members in ID order: shorter IDs first, so M10000
+     * follows M9999 (served from IX_Member_IDOrder, see sql/006-id-sequence.sql).
+     * @param afterMemberId The last MemberID of the previous page, or null for the first page.
+     * @param pageSize The maximum number of members to return.
+     * @return The page of members (empty if there are no more).
+     */
+    public Page<Member> getMembersPage(String afterMemberId, int pageSize) {
+        List<Member> members = new ArrayList<>();
+        String sql = afterMemberId == null
+                ? "SELECT TOP (?) * FROM Member ORDER BY MemberIDLength, MemberID"
+                : "SELECT TOP (?) * FROM Member WHERE MemberIDLength >= ? AND (MemberIDLength > ? OR MemberID > ?) " +
+                  "ORDER BY MemberIDLength, MemberID";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, pageSize + 1); // One extra row tells us whether another page exists
+            if (afterMemberId != null) {
+                pstmt.setInt(2, afterMemberId.length());
+                pstmt.setInt(3, afterMemberId.length());
+                pstmt.setString(4, afterMemberId);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    members.add(mapMember(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving member page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return Page.of(members, pageSize);
+    }
+
+    /**
+     * R - Read: Retrieves the given members, keyed by MemberID (IDs that no longer exist are absent).
+     * @param memberIds The IDs to look up; read in chunks to stay under SQL Server's parameter limit.
+     * @return The members found, or empty if the read failed (so callers don't mistake it for deletions).
+     */
+    public Optional<Map<String, Member>> getMembersByIds(Collection<String> memberIds) {
+        Map<String, Member> members = new HashMap<>();
+        List<String> ids = new ArrayList<>(memberIds);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<String> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                String sql = "SELECT * FROM Member WHERE MemberID IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Member member = mapMember(rs);
+                            members.put(member.getMemberId(), member);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving members by ID: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+        return Optional.of(members);
+    }
+
+    // Maps the current row of a Member result set
+    // Package-private and static so the row-mapping benchmarks can call it directly
+    static Member mapMember(ResultSet rs) throws SQLException {
+        return new Member(
+                rs.getString("MemberID"),
+                rs.getString("FirstName"),
+                rs.getString("LastName"),
+                rs.getString("ContactNumber"),
+                rs.getString("Email"),
+                rs.getDate("DateOfBirth").toLocalDate(), // Convert SQL Date to LocalDate
+                rs.getDate("JoiningDate").toLocalDate(),
+                rs.getString("Address")
+        );
+    }
+
     /**
      * U - Update: Updates an existing member's details.
      * @param member The Member object with updated data.
@@ -114,7 +256,12 @@ public class MemberDAO {
             pstmt.setString(6, member.getAddress());
             pstmt.setString(7, member.getMemberId()); // Where condition
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                MemberCache.getInstance().memberUpdated(member);
+                ReportCache.getInstance().invalidateAll(); // Reports show member names
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error updating member: " + e.getMessage());
@@ -135,7 +282,12 @@ public class MemberDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, memberId);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                MemberCache.getInstance().memberRemoved(memberId);
+                ReportCache.getInstance().invalidateAll(); // Reports show member names
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error deleting member: " + e.getMessage());
@@ -0,0 +1,180 @@
+package db;
+
+import model.Member;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Prefix index over member IDs, names, phone numbers and email addresses, kept by {@link MemberCache}.
+ * Every field is lower-cased and split into tokens once, when the member is indexed, so a query is a
+ * sorted-map range lookup instead of a scan that lower-cases every row on every keystroke.
+ * Not thread-safe: MemberCache only touches it on the JavaFX Application Thread.
+ */
+class MemberSearchIndex {
+
+    // Token -> members that have a word starting with it; kept sorted so a prefix is one subMap() range
+    private final NavigableMap<String, Set<Member>> tokens = new TreeMap<>();
+    // MemberID -> what that member was indexed under, for removal and for checking the other query terms
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Phone number digits -> members, for exact lookups at check-in (families often share a number)
+    private final Map<String, Set<Member>> phones = new HashMap<>();
+
+    private record Entry(Member member, String[] tokens, String phone) {
+    }
+
+    void clear() {
+        tokens.clear();
+        entries.clear();
+        phones.clear();
+    }
+
+    void add(Member member) {
+        remove(member.getMemberId()); // Re-indexing replaces the old tokens
+        String[] memberTokens = tokenize(member);
+        String phone = phoneDigits(member.getContactNumber());
+        entries.put(member.getMemberId(), new Entry(member, memberTokens, phone));
+        for (String token : memberTokens) {
+            tokens.computeIfAbsent(token, t -> new LinkedHashSet<>()).add(member);
+        }
+        if (!phone.isEmpty()) {
+            phones.computeIfAbsent(phone, p -> new LinkedHashSet<>()).add(member);
+        }
+    }
+
+    void remove(String memberId) {
+        Entry entry = entries.remove(memberId);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens()) {
+            Set<Member> members = tokens.get(token);
+            if (members != null) {
+                members.remove(entry.member());
+                if (members.isEmpty()) {
+                    tokens.remove(token);
+                }
+            }
+        }
+        Set<Member> samePhone = phones.get(entry.phone());
+        if (samePhone != null) {
+            samePhone.remove(entry.member());
+            if (samePhone.isEmpty()) {
+                phones.remove(entry.phone());
+            }
+        }
+    }
+
+    // Members whose phone number has exactly these digits (punctuation in either is ignored)
+    List<Member> findByPhone(String phone) {
+        Set<Member> members = phones.get(phoneDigits(phone));
+        return members == null ? List.of() : List.copyOf(members);
+    }
+
+    /**
+     * Members for which every word in the query is the start of one of their tokens
+     * (e.g. "jo sm" finds John Smith). Returns at most limit members.
+     */
+    List<Member> search(String query, int limit) {
+        String[] terms = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (terms.length == 0 || terms[0].isEmpty()) {
+            return List.of();
+        }
+
+        // Drive the lookup with the longest term; it usually matches the fewest tokens
+        int driverIndex = 0;
+        for (int i = 1; i < terms.length; i++) {
+            if (terms[i].length() > terms[driverIndex].length()) {
+                driverIndex = i;
+            }
+        }
+        String driver = terms[driverIndex];
+
+        Set<Member> matches = new LinkedHashSet<>();
+        Set<Member> checked = terms.length == 1 ? matches : new HashSet<>();
+        for (Set<Member> members : tokens.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (Member member : members) {
+                // A member usually sits under several tokens in the range (name, email...); check it once
+                if (terms.length > 1 && (!checked.add(member) || !matchesOthers(entries.get(member.getMemberId()), terms, driverIndex))) {
+                    continue;
+                }
+                matches.add(member);
+                if (matches.size() >= limit) {
+                    return new ArrayList<>(matches);
+                }
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    // True if every term except the driver (already matched) starts one of the member's tokens
+    private static boolean matchesOthers(Entry entry, String[] terms, int driverIndex) {
+        for (int t = 0; t < terms.length; t++) {
+            if (t == driverIndex) {
+                continue;
+            }
+            String term = terms[t];
+            boolean found = false;
+            for (String token : entry.tokens()) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Whole values plus their individual words, so "smith", "john.smith@" and "m0012" all work as prefixes
+    private static String[] tokenize(Member member) {
+        Set<String> result = new LinkedHashSet<>();
+        addWords(result, member.getMemberId());
+        addWords(result, member.getFirstName());
+        addWords(result, member.getLastName());
+        addWords(result, member.getEmail());
+
+        String id = member.getMemberId();
+        if (id != null) {
+            // "M0012" can also be found as "0012" or "12"
+            String digits = id.replaceAll("\\D", "");
+            addToken(result, digits);
+            addToken(result, digits.replaceFirst("^0+", ""));
+        }
+
+        addToken(result, phoneDigits(member.getContactNumber()));
+        return result.toArray(new String[0]);
+    }
+
+    // Ignore spaces, dashes and brackets
+    static String phoneDigits(String phone) {
+        return phone == null ? "" : phone.replaceAll("\\D", "");
+    }
+
+    private static void addWords(Set<String> result, String value) {
+        if (value == null) {
+            return;
+        }
+        String lower = value.trim().toLowerCase(Locale.ROOT);
+        addToken(result, lower);
+        for (String word : lower.split("[^\\p{L}\\p{N}]+")) {
+            addToken(result, word);
+        }
+    }
+
+    private static void addToken(Set<String> result, String token) {
+        if (!token.isEmpty()) {
+            result.add(token);
+        }
+    }
+}
@@ -5,36 +5,41 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class MemberWorkoutDAO {
 
     // C - Create (Assign)
-    public boolean assignPlan(MemberWorkout assignment) {
-        String sql = "INSERT INTO MemberWorkout (MemberID, PlanID, AssignedDate) VALUES (?, ?, ?)";
+    // Inserts and reads back the new ID plus display names in one batch, returning the completed row.
+    public Optional<MemberWorkout> assignPlan(MemberWorkout assignment) {
+        String sql = "SET NOCOUNT ON; " +
+                "INSERT INTO MemberWorkout (MemberID, PlanID, AssignedDate) VALUES (?, ?, ?); " +
+                "SELECT MW.AssignmentID, M.FirstName, M.LastName, WP.PlanName FROM MemberWorkout MW " +
+                "JOIN Member M ON MW.MemberID = M.MemberID " +
+                "JOIN WorkoutPlan WP ON MW.PlanID = WP.PlanID " +
+                "WHERE MW.AssignmentID = SCOPE_IDENTITY()";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, assignment.getMemberID());
             pstmt.setInt(2, assignment.getPlanID());
             pstmt.setDate(3, Date.valueOf(assignment.getAssignedDate()));
 
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        assignment.setAssignmentID(rs.getInt(1));
-                    }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    assignment.setAssignmentID(rs.getInt("AssignmentID"));
+                    assignment.setMemberName(rs.getString("FirstName") + " " + rs.getString("LastName"));
+                    assignment.setPlanName(rs.getString("PlanName"));
+                    return Optional.of(assignment);
                 }
-                return true;
             }
-            return false;
+            return Optional.empty();
 
         } catch (SQLException e) {
             System.err.println("Error assigning workout plan: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -48,8 +53,8 @@ public class MemberWorkoutDAO {
                 "ORDER BY MW.AssignedDate DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 String memberName = rs.getString("FirstName") + " " + rs.getString("LastName");
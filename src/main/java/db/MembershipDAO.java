@@ -1,15 +1,47 @@
 package db;
 
 import model.Membership;
+import model.MembershipRecord;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.time.LocalDate;
 
 public class MembershipDAO {
 
+    // A sortable column and how to read a row's value for it (to seek past that row)
+    private record SortColumn(String name, Function<Membership, Object> value) {
+    }
+
+    private record OrderColumn(SortColumn column, boolean ascending) {
+    }
+
+    private static final SortColumn MEMBERSHIP_ID = new SortColumn("MembershipID", Membership::getMembershipID);
+
+    // Columns the membership table can be sorted on, by model property name. Each has an index on
+    // (column, MembershipID), see sql/007-membership-sort-indexes.sql, so a page in any order is a seek.
+    private static final Map<String, SortColumn> SORT_COLUMNS = Map.of(
+            "membershipID", MEMBERSHIP_ID,
+            "memberID", new SortColumn("MemberID", Membership::getMemberID),
+            "membershipType", new SortColumn("MembershipType", Membership::getMembershipType),
+            "startDate", new SortColumn("StartDate", m -> Date.valueOf(m.getStartDate())),
+            "endDate", new SortColumn("EndDate", m -> Date.valueOf(m.getEndDate())),
+            "paymentAmount", new SortColumn("PaymentAmount", Membership::getPaymentAmount),
+            "paymentDate", new SortColumn("PaymentDate", m -> Date.valueOf(m.getPaymentDate())),
+            "paymentStatus", new SortColumn("PaymentStatus", Membership::getPaymentStatus));
+
+    private static final String WINDOW_COLUMNS = "MembershipID, MemberID, StartDate, EndDate, MembershipType, " +
+            "PaymentAmount, PaymentDate, PaymentStatus";
+
     //Create: Adds a new membership/payment record.
-    public boolean addMembership(Membership membership) {
+    //Returns the stored record (with its generated MembershipID) so the caller can add it to its table directly.
+    public Optional<Membership> addMembership(Membership membership) {
         String sql = "INSERT INTO Membership (MemberID, StartDate, EndDate, MembershipType, PaymentAmount, PaymentDate, PaymentStatus) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
@@ -30,51 +62,202 @@ public class MembershipDAO {
                 // Retrieve the auto-generated ID (MembershipID)
                 try (ResultSet rs = pstmt.getGeneratedKeys()) {
                     if (rs.next()) {
+                        membership.setMembershipID(rs.getInt(1));
                     }
                 }
-                return true;
+                ReportCache.getInstance().invalidateAll();
+                CheckInService.getInstance().membershipSaved(membership.toRecord());
+                return Optional.of(membership);
             }
-            return false;
+            return Optional.empty();
 
         } catch (SQLException e) {
             System.err.println("Error adding membership record: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return Optional.empty();
         }
     }
 
-    //Read: Retrieves all membership records, joining to get the Member's full name.
-    public List<Membership> getAllMemberships() {
-        List<Membership> memberships = new ArrayList<>();
-        String sql = "SELECT M.*, Mem.FirstName, Mem.LastName FROM Membership M " +
-                "JOIN Member Mem ON M.MemberID = Mem.MemberID " +
-                "ORDER BY M.MembershipID DESC";
+    //Read: Memberships that end on or after the given date, for the check-in status lookup.
+    //Empty if the read failed, so nobody is turned away for lack of data.
+    public Optional<List<MembershipRecord>> getMembershipRecordsEndingFrom(LocalDate date) {
+        List<MembershipRecord> memberships = new ArrayList<>();
+        String sql = "SELECT MembershipID, MemberID, StartDate, EndDate, MembershipType, " +
+                "PaymentAmount, PaymentDate, PaymentStatus FROM Membership WHERE EndDate >= ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
+            pstmt.setDate(1, Date.valueOf(date));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    memberships.add(mapMembershipRecord(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving current memberships: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+        return Optional.of(memberships);
+    }
+
+    //Read: Number of membership records (the row count of the membership table); empty if the read failed.
+    public Optional<Integer> countMemberships() {
+        String sql = "SELECT COUNT(*) FROM Membership";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            return Optional.of(rs.next() ? rs.getInt(1) : 0);
+        } catch (SQLException e) {
+            System.err.println("Error counting membership records: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    //Read (window): Retrieves rows [offset, offset + limit) in the given order, newest MembershipID first
+    //when no order is given; empty if the read failed. MembershipID breaks ties so consecutive windows never
+    //overlap or skip rows. OFFSET still reads every skipped row, so this is for jumps; scrolling page by page
+    //seeks from a loaded row with getMembershipsAfter/getMembershipsBefore instead.
+    public Optional<List<Membership>> getMembershipsWindow(int offset, int limit, List<SortKey> sortOrder) {
+        String sql = "SELECT " + WINDOW_COLUMNS + " FROM Membership " +
+                "ORDER BY " + orderBy(orderColumns(sortOrder), false) + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, offset);
+            pstmt.setInt(2, limit);
+            return Optional.of(readMemberships(pstmt));
+        } catch (SQLException e) {
+            System.err.println("Error retrieving membership window: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
 
-                Membership membership = new Membership(
-                        rs.getInt("MembershipID"),
-                        rs.getString("MemberID"),
-                        rs.getDate("StartDate").toLocalDate(),
-                        rs.getDate("EndDate").toLocalDate(),
-                        rs.getString("MembershipType"),
-                        rs.getDouble("PaymentAmount"),
-                        rs.getDate("PaymentDate").toLocalDate(),
-                        rs.getString("PaymentStatus")
-                );
-                memberships.add(membership);
+    //Read (seek): The limit rows that follow the given row in the given order; empty if the read failed.
+    public Optional<List<Membership>> getMembershipsAfter(Membership after, int limit, List<SortKey> sortOrder) {
+        return seek(after, true, limit, sortOrder);
+    }
+
+    //Read (seek): The limit rows that come just before the given row in the given order (still in that order).
+    public Optional<List<Membership>> getMembershipsBefore(Membership before, int limit, List<SortKey> sortOrder) {
+        return seek(before, false, limit, sortOrder);
+    }
+
+    // Keyset read from an anchor row: walks the index in the sort order (or backwards) instead of counting off rows
+    private Optional<List<Membership>> seek(Membership anchor, boolean forward, int limit, List<SortKey> sortOrder) {
+        List<OrderColumn> order = orderColumns(sortOrder);
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT TOP (?) " + WINDOW_COLUMNS + " FROM Membership " +
+                "WHERE " + seekCondition(order, anchor, forward, params) + " " +
+                "ORDER BY " + orderBy(order, !forward);
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 2, params.get(i));
+            }
+            List<Membership> memberships = readMemberships(pstmt);
+            if (!forward) {
+                Collections.reverse(memberships); // Read backwards from the anchor; hand back in table order
             }
+            return Optional.of(memberships);
         } catch (SQLException e) {
-            System.err.println("Error retrieving membership records: " + e.getMessage());
+            System.err.println("Error seeking membership window: " + e.getMessage());
             e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    private static List<Membership> readMemberships(PreparedStatement pstmt) throws SQLException {
+        List<Membership> memberships = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                memberships.add(mapMembership(rs));
+            }
         }
         return memberships;
     }
 
+    // The whitelisted columns of the sort order, then MembershipID (newest first) unless already sorted on
+    private static List<OrderColumn> orderColumns(List<SortKey> sortOrder) {
+        Set<SortColumn> used = new HashSet<>();
+        List<OrderColumn> order = new ArrayList<>();
+        for (SortKey key : sortOrder) {
+            SortColumn column = SORT_COLUMNS.get(key.property());
+            if (column != null && used.add(column)) {
+                order.add(new OrderColumn(column, key.ascending()));
+            }
+        }
+        if (!used.contains(MEMBERSHIP_ID)) {
+            order.add(new OrderColumn(MEMBERSHIP_ID, false));
+        }
+        return order;
+    }
+
+    private static String orderBy(List<OrderColumn> order, boolean reversed) {
+        List<String> terms = new ArrayList<>();
+        for (OrderColumn column : order) {
+            terms.add(column.column().name() + (column.ascending() != reversed ? " ASC" : " DESC"));
+        }
+        return String.join(", ", terms);
+    }
+
+    // Rows strictly past the anchor in the order: (a > ?) OR (a = ? AND b > ?) ..., flipped per column direction.
+    // The leading bound on the first column on its own lets SQL Server seek the index to the anchor.
+    private static String seekCondition(List<OrderColumn> order, Membership anchor, boolean forward, List<Object> params) {
+        OrderColumn first = order.getFirst();
+        boolean firstUp = first.ascending() == forward;
+        StringBuilder condition = new StringBuilder(first.column().name()).append(firstUp ? " >= ?" : " <= ?").append(" AND (");
+        params.add(first.column().value().apply(anchor));
+
+        for (int i = 0; i < order.size(); i++) {
+            condition.append(i == 0 ? "(" : " OR (");
+            for (int j = 0; j < i; j++) {
+                condition.append(order.get(j).column().name()).append(" = ? AND ");
+                params.add(order.get(j).column().value().apply(anchor));
+            }
+            OrderColumn column = order.get(i);
+            condition.append(column.column().name()).append(column.ascending() == forward ? " > ?" : " < ?").append(")");
+            params.add(column.column().value().apply(anchor));
+        }
+        return condition.append(")").toString();
+    }
+
+    // Maps the current row of a Membership result set
+    static Membership mapMembership(ResultSet rs) throws SQLException {
+        return new Membership(
+                rs.getInt("MembershipID"),
+                rs.getString("MemberID"),
+                rs.getDate("StartDate").toLocalDate(),
+                rs.getDate("EndDate").toLocalDate(),
+                rs.getString("MembershipType"),
+                rs.getDouble("PaymentAmount"),
+                rs.getDate("PaymentDate").toLocalDate(),
+                rs.getString("PaymentStatus")
+        );
+    }
+
+    static MembershipRecord mapMembershipRecord(ResultSet rs) throws SQLException {
+        return new MembershipRecord(
+                rs.getInt("MembershipID"),
+                rs.getString("MemberID"),
+                rs.getDate("StartDate").toLocalDate(),
+                rs.getDate("EndDate").toLocalDate(),
+                rs.getString("MembershipType"),
+                rs.getDouble("PaymentAmount"),
+                rs.getDate("PaymentDate").toLocalDate(),
+                rs.getString("PaymentStatus")
+        );
+    }
+
     //Delete: Deletes a membership record by MembershipID.
     public boolean deleteMembership(int membershipID) {
         String sql = "DELETE FROM Membership WHERE MembershipID = ?";
@@ -83,7 +266,12 @@ public class MembershipDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, membershipID);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                ReportCache.getInstance().invalidateAll();
+                CheckInService.getInstance().membershipDeleted(membershipID);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error deleting membership record: " + e.getMessage());
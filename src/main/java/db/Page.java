@@ -0,0 +1,30 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated read. The next page is requested with the key of the
+ * last item in this page, so every page is a single index seek however deep it is.
+ */
+public record Page<T>(List<T> items, boolean hasMore) {
+
+    /**
+     * Builds a page from rows fetched with a limit of pageSize + 1;
+     * the extra row (if present) only signals that another page exists.
+     */
+    static <T> Page<T> of(List<T> rows, int pageSize) {
+        if (rows.size() > pageSize) {
+            return new Page<>(new ArrayList<>(rows.subList(0, pageSize)), true);
+        }
+        return new Page<>(rows, false);
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public T last() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
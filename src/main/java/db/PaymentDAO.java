@@ -5,24 +5,11 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 public class PaymentDAO {
 
-    private String generateNextPaymentID(Connection conn) throws SQLException {
-        String sql = "SELECT TOP 1 PaymentID FROM Payment ORDER BY PaymentID DESC";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                String lastId = rs.getString("PaymentID");
-                int number = Integer.parseInt(lastId.substring(2)); // Assumes format PYYYY (e.g., P0001)
-                return String.format("P%04d", number + 1);
-            } else {
-                return "P0001";
-            }
-        }
-    }
-
     // Create - Add Payment
     public boolean addPayment(Payment payment) {
         String sql = "INSERT INTO Payment (PaymentID, MemberID, MembershipTypeID, PaymentDate, AmountPaid, PaymentMethod) VALUES (?, ?, ?, ?, ?, ?)";
@@ -30,7 +17,8 @@ public class PaymentDAO {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            String newId = generateNextPaymentID(conn);
+            // PaymentID (e.g., P0001) comes from the shared IdAllocator
+            String newId = IdAllocator.PAYMENT.nextId(conn);
             payment.setPaymentID(newId);
 
             pstmt.setString(1, newId);
@@ -40,7 +28,11 @@ public class PaymentDAO {
             pstmt.setDouble(5, payment.getAmountPaid());
             pstmt.setString(6, payment.getPaymentMethod());
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                ReportCache.getInstance().invalidateAll();
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error adding payment: " + e.getMessage());
@@ -49,35 +41,115 @@ public class PaymentDAO {
         }
     }
 
-    // Read All (Joins with Member table to get full name)
-    public List<Payment> getAllPayments() {
+    // Create (bulk) - Adds many payments in one transaction using JDBC batches.
+    // All or nothing: on failure the result lists the rejected rows and nothing is inserted.
+    public BatchResult addPayments(List<Payment> payments) {
+        String sql = "INSERT INTO Payment (PaymentID, MemberID, MembershipTypeID, PaymentDate, AmountPaid, PaymentMethod) VALUES (?, ?, ?, ?, ?, ?)";
+
+        SortedMap<Integer, String> invalid = new TreeMap<>();
+        for (int i = 0; i < payments.size(); i++) {
+            if (payments.get(i).getPaymentDate() == null) {
+                invalid.put(i, "Payment date is required.");
+            }
+        }
+        if (!invalid.isEmpty()) {
+            return BatchResult.rejected(invalid);
+        }
+        if (payments.isEmpty()) {
+            return BatchResult.inserted(0);
+        }
+
+        int chunkStart = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            List<String> ids = IdAllocator.PAYMENT.nextIds(conn, payments.size());
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < payments.size(); i++) {
+                    Payment payment = payments.get(i);
+                    pstmt.setString(1, ids.get(i));
+                    pstmt.setString(2, payment.getMemberID());
+                    pstmt.setString(3, payment.getMembershipTypeID());
+                    pstmt.setDate(4, Date.valueOf(payment.getPaymentDate()));
+                    pstmt.setDouble(5, payment.getAmountPaid());
+                    pstmt.setString(6, payment.getPaymentMethod());
+                    pstmt.addBatch();
+
+                    if ((i + 1) % BatchResult.BATCH_SIZE == 0 || i == payments.size() - 1) {
+                        pstmt.executeBatch();
+                        chunkStart = i + 1;
+                    }
+                }
+                conn.commit();
+            } catch (BatchUpdateException e) {
+                conn.rollback();
+                System.err.println("Bulk payment insert rolled back: " + e.getMessage());
+                return BatchResult.fromBatchFailure(chunkStart, payments.size(), e);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            for (int i = 0; i < payments.size(); i++) {
+                payments.get(i).setPaymentID(ids.get(i));
+            }
+            ReportCache.getInstance().invalidateAll();
+            return BatchResult.inserted(payments.size());
+
+        } catch (SQLException e) {
+            System.err.println("Error adding payments in bulk: " + e.getMessage());
+            e.printStackTrace();
+            return BatchResult.failed(e.getMessage());
+        }
+    }
+
+    // Read (paged) - Newest payments first, keyed on (PaymentDate, PaymentID).
+    // Pass nulls for the first page, then the date and ID of the last payment of the previous page.
+    public Page<Payment> getPaymentsPage(LocalDate beforeDate, String beforePaymentID, int pageSize) {
         List<Payment> payments = new ArrayList<>();
-        String sql = "SELECT P.*, M.FirstName, M.LastName FROM Payment P " +
-                "JOIN Member M ON P.MemberID = M.MemberID";
+        boolean firstPage = beforeDate == null || beforePaymentID == null;
+        String sql = "SELECT TOP (?) P.*, M.FirstName, M.LastName FROM Payment P " +
+                "JOIN Member M ON P.MemberID = M.MemberID " +
+                (firstPage ? "" : "WHERE P.PaymentDate < ? OR (P.PaymentDate = ? AND P.PaymentID < ?) ") +
+                "ORDER BY P.PaymentDate DESC, P.PaymentID DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                String fullName = rs.getString("FirstName") + " " + rs.getString("LastName");
-
-                Payment payment = new Payment(
-                        rs.getString("PaymentID"),
-                        rs.getString("MemberID"),
-                        fullName,
-                        rs.getString("MembershipTypeID"),
-                        rs.getDate("PaymentDate").toLocalDate(),
-                        rs.getDouble("AmountPaid"),
-                        rs.getString("PaymentMethod")
-                );
-                payments.add(payment);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, pageSize + 1); // One extra row tells us whether another page exists
+            if (!firstPage) {
+                pstmt.setDate(2, Date.valueOf(beforeDate));
+                pstmt.setDate(3, Date.valueOf(beforeDate));
+                pstmt.setString(4, beforePaymentID);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    payments.add(mapPayment(rs));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error retrieving payments: " + e.getMessage());
+            System.err.println("Error retrieving payment page: " + e.getMessage());
             e.printStackTrace();
         }
-        return payments;
+        return Page.of(payments, pageSize);
+    }
+
+    // Maps the current row of a Payment/Member join
+    static Payment mapPayment(ResultSet rs) throws SQLException {
+        String fullName = rs.getString("FirstName") + " " + rs.getString("LastName");
+
+        return new Payment(
+                rs.getString("PaymentID"),
+                rs.getString("MemberID"),
+                fullName,
+                rs.getString("MembershipTypeID"),
+                rs.getDate("PaymentDate").toLocalDate(),
+                rs.getDouble("AmountPaid"),
+                rs.getString("PaymentMethod")
+        );
     }
 
     // Delete - Delete Payment
@@ -87,7 +159,11 @@ public class PaymentDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, paymentID);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                ReportCache.getInstance().invalidateAll();
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Error deleting payment: " + e.getMessage());
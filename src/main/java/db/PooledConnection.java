@@ -0,0 +1,163 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A physical SQL Server connection owned by {@link ConnectionPool}.
+ * DAOs only ever see a proxy handle; calling close() on it returns the connection to the pool.
+ * Prepared statements created through the handle are served from a per-connection {@link StatementCache},
+ * and every statement is timed through {@link InstrumentedStatement} unless apollo.db.instrument=false.
+ */
+class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection raw;
+    private final StatementCache statementCache;
+
+    private volatile long lastUsedMillis = System.currentTimeMillis();
+    private volatile long borrowedAtMillis;
+    private volatile Throwable borrowSite;
+    private volatile boolean leakTracked;
+    private volatile boolean leakReported;
+    private volatile boolean broken;
+
+    PooledConnection(ConnectionPool pool, Connection raw) {
+        this.pool = pool;
+        this.raw = raw;
+        this.statementCache = pool.newStatementCache(this);
+    }
+
+    // Creates a fresh handle for one borrow; a handle cannot be used after it has been closed.
+    Connection checkOut(Throwable borrowSite, boolean leakTracked) {
+        this.borrowedAtMillis = System.currentTimeMillis();
+        this.borrowSite = borrowSite;
+        this.leakTracked = leakTracked;
+        this.leakReported = false;
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle());
+    }
+
+    void markReturned() {
+        lastUsedMillis = System.currentTimeMillis();
+        borrowSite = null;
+    }
+
+    // Restores defaults a DAO may have changed (e.g. during a transaction). Returns false if the connection is unusable.
+    boolean reset() {
+        try {
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            raw.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closeQuietly() {
+        statementCache.clear();
+        try {
+            raw.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    Connection getRawConnection() { return raw; }
+    long getLastUsedMillis() { return lastUsedMillis; }
+    long getBorrowedAtMillis() { return borrowedAtMillis; }
+    Throwable getBorrowSite() { return borrowSite; }
+    boolean isLeakTracked() { return leakTracked; }
+    boolean isLeakReported() { return leakReported; }
+    void setLeakReported(boolean leakReported) { this.leakReported = leakReported; }
+    boolean isBroken() { return broken; }
+
+    // Marks the connection as unusable if the error means the session itself has failed.
+    void checkFailure(SQLException e) {
+        if (isConnectionFailure(e)) {
+            broken = true; // Don't hand this connection out again
+        }
+    }
+
+    // Routes calls on the borrowed handle to the physical connection.
+    private class Handle implements InvocationHandler {
+
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + raw + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+
+            try {
+                Object result;
+                if (isCacheablePrepare(method)) {
+                    int keyMode = args.length == 2 ? (Integer) args[1] : StatementCache.NO_KEY_MODE;
+                    result = statementCache.prepare(raw, (Connection) proxy, (String) args[0], keyMode);
+                } else {
+                    result = method.invoke(raw, args);
+                }
+
+                if (QueryMetrics.ENABLED && result instanceof Statement statement) {
+                    // prepareStatement/prepareCall carry the SQL; createStatement gets it per execute call
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    return InstrumentedStatement.wrap(statement, method.getReturnType(), sql);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException) {
+                    checkFailure(sqlException);
+                }
+                throw cause;
+            } catch (SQLException e) {
+                checkFailure(e);
+                throw e;
+            }
+        }
+
+        // prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys)
+        private boolean isCacheablePrepare(Method method) {
+            if (!statementCache.isEnabled() || !method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+
+    // SQLState class 08 = connection exception
+    private static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
@@ -0,0 +1,120 @@
+package db;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-statement timings for every SQL statement run through the pool: a latency histogram,
+ * row and (approximate) byte counts, and a log of statements slower than apollo.db.slowQueryMs.
+ * Fed by {@link InstrumentedStatement}; read by the Diagnostics screen.
+ */
+public class QueryMetrics {
+
+    private static final QueryMetrics INSTANCE = new QueryMetrics();
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("apollo.db.instrument"));
+    private static final long SLOW_QUERY_MILLIS = Long.getLong("apollo.db.slowQueryMs", 500L);
+    private static final int SLOW_LOG_SIZE = 100;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>(); // Newest first, guarded by itself
+
+    // Running totals for one SQL text
+    private static class StatementStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+    }
+
+    // Point-in-time copy of one statement's figures; times in milliseconds
+    public record StatementSnapshot(String sql, long executions, long errors, long rows, long bytes,
+                                    double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                                    double maxMillis) {
+    }
+
+    public record SlowQuery(LocalDateTime at, String sql, long millis) {
+    }
+
+    private QueryMetrics() {
+    }
+
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public long getSlowQueryMillis() {
+        return SLOW_QUERY_MILLIS;
+    }
+
+    // Records one execution of sql that took elapsedNanos (from execute call to return).
+    void recordExecution(String sql, long elapsedNanos, boolean failed) {
+        StatementStats stats = statsFor(sql);
+        stats.latency.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (failed) {
+            stats.errors.increment();
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (millis >= SLOW_QUERY_MILLIS) {
+            System.err.println("Slow query (" + millis + " ms): " + sql);
+            synchronized (slowQueries) {
+                slowQueries.addFirst(new SlowQuery(LocalDateTime.now(), sql, millis));
+                if (slowQueries.size() > SLOW_LOG_SIZE) {
+                    slowQueries.removeLast();
+                }
+            }
+        }
+    }
+
+    // Records what a closed ResultSet delivered.
+    void recordFetch(String sql, long rows, long bytes) {
+        StatementStats stats = statsFor(sql);
+        stats.rows.add(rows);
+        stats.bytes.add(bytes);
+    }
+
+    /**
+     * Figures for every statement seen so far, slowest total time first.
+     */
+    public List<StatementSnapshot> getSnapshot() {
+        List<StatementSnapshot> snapshot = new ArrayList<>(statements.size());
+        statements.forEach((sql, stats) -> {
+            LatencyHistogram latency = stats.latency;
+            snapshot.add(new StatementSnapshot(sql, latency.getCount(), stats.errors.sum(),
+                    stats.rows.sum(), stats.bytes.sum(),
+                    latency.getMeanMicros() / 1000.0,
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(95) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getMaxMicros() / 1000.0));
+        });
+        snapshot.sort(Comparator.comparingDouble((StatementSnapshot s) -> s.meanMillis() * s.executions()).reversed());
+        return snapshot;
+    }
+
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    public void reset() {
+        statements.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    private StatementStats statsFor(String sql) {
+        return statements.computeIfAbsent(sql == null ? "(unknown)" : sql, key -> new StatementStats());
+    }
+}
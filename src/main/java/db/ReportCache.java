@@ -0,0 +1,96 @@
+package db;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the last computed copy of each report (keyed by report name and parameters) so that
+ * opening the Reports screen again does not re-run every query. A snapshot is dropped when
+ * {@link MembershipDAO}, {@link PaymentDAO} or {@link MemberDAO} write, or once it is older than the TTL.
+ * Safe to use from any thread.
+ */
+public class ReportCache {
+
+    private static final ReportCache INSTANCE = new ReportCache();
+
+    private static final long TTL_MILLIS = Long.getLong("apollo.reports.cacheTtlMs", 300_000L);
+
+    private final Map<Key, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a load that started before a write must not be cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Key(String report, List<Object> parameters) {
+    }
+
+    private record Snapshot(Object value, long loadedAtNanos, long generation) {
+    }
+
+    public record CacheStats(long hits, long misses, long expirations, long invalidations, int cachedReports) {
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private ReportCache() {
+    }
+
+    public static ReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached snapshot of a report, or runs loader and caches its result.
+     * A null result (the DAO's way of reporting an error) is returned but not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String report, Supplier<T> loader, Object... parameters) {
+        Key key = new Key(report, List.of(parameters));
+        Snapshot snapshot = snapshots.get(key);
+
+        if (snapshot != null) {
+            long ageMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - snapshot.loadedAtNanos());
+            if (ageMillis < TTL_MILLIS) {
+                hits.increment();
+                return (T) snapshot.value();
+            }
+            snapshots.remove(key, snapshot);
+            expirations.increment();
+        }
+
+        misses.increment();
+        long startGeneration = generation.get();
+        T value = loader.get();
+        if (value != null && generation.get() == startGeneration) {
+            snapshots.put(key, new Snapshot(value, System.nanoTime(), startGeneration));
+        }
+        return value;
+    }
+
+    // Drops every snapshot; called after any write that reports depend on.
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshots.clear();
+        invalidations.increment();
+    }
+
+    // Changes whenever cached reports are invalidated; screens compare it to decide whether to reload.
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), expirations.sum(), invalidations.sum(), snapshots.size());
+    }
+}
@@ -1,30 +1,113 @@
 package db;
 
+import export.RowWriter;
 import model.MemberReportEntry;
 import model.FinancialReportEntry;
+import model.ReportGroupEntry;
+import model.ReportSummary;
+import java.io.IOException;
 import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ReportDAO {
 
+    // How far back the revenue-over-time groups go; keeps the summary a fixed size
+    public static final int SUMMARY_DAYS = 30;
+    public static final int SUMMARY_WEEKS = 12;
+    public static final int SUMMARY_MONTHS = 12;
+
+    // Rows per network round trip when streaming an export
+    public static final int EXPORT_FETCH_SIZE = Integer.getInteger("apollo.export.fetchSize", 2000);
+
+    // Joins Member and Membership tables
+    private static final String MEMBER_REPORT_SQL = "SELECT M.MemberID, M.FirstName, M.LastName, " +
+            "MS.MembershipType, MS.StartDate, MS.EndDate, MS.PaymentStatus " +
+            "FROM Member M " +
+            "JOIN Membership MS ON M.MemberID = MS.MemberID " +
+            "ORDER BY M.LastName, MS.StartDate DESC";
+
+    private static final String FINANCIAL_REPORT_SQL = "SELECT M.MemberID, M.FirstName, M.LastName, " +
+            "MS.MembershipType, MS.PaymentDate, MS.PaymentAmount, MS.PaymentStatus " +
+            "FROM Membership MS " +
+            "JOIN Member M ON MS.MemberID = M.MemberID " +
+            "WHERE MS.PaymentAmount IS NOT NULL AND MS.PaymentAmount > 0 " +
+            "ORDER BY MS.PaymentDate DESC";
+
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    // One batch, six result sets: totals, revenue per day/week/month, per plan type, per payment status.
+    // Weeks start on Monday (1900-01-01 was a Monday), independent of the server's DATEFIRST setting.
+    private static final String SUMMARY_SQL =
+            "SET NOCOUNT ON; " +
+            "SELECT COALESCE(SUM(CASE WHEN PaymentStatus = 'Paid' THEN PaymentAmount END), 0) AS TotalRevenue, " +
+            "SUM(CASE WHEN EndDate >= CAST(GETDATE() AS DATE) THEN 1 ELSE 0 END) AS ActiveCount, " +
+            "SUM(CASE WHEN EndDate < CAST(GETDATE() AS DATE) THEN 1 ELSE 0 END) AS ExpiredCount " +
+            "FROM Membership; " +
+
+            "SELECT CAST(PaymentDate AS DATE) AS PeriodStart, COUNT(*) AS Cnt, SUM(PaymentAmount) AS Amount " +
+            "FROM Membership WHERE PaymentStatus = 'Paid' AND PaymentDate >= ? " +
+            "GROUP BY CAST(PaymentDate AS DATE) ORDER BY PeriodStart DESC; " +
+
+            "SELECT W.PeriodStart, COUNT(*) AS Cnt, SUM(W.PaymentAmount) AS Amount FROM (" +
+            "SELECT DATEADD(DAY, -(DATEDIFF(DAY, '19000101', PaymentDate) % 7), CAST(PaymentDate AS DATE)) AS PeriodStart, PaymentAmount " +
+            "FROM Membership WHERE PaymentStatus = 'Paid' AND PaymentDate >= ?) W " +
+            "GROUP BY W.PeriodStart ORDER BY W.PeriodStart DESC; " +
+
+            "SELECT DATEFROMPARTS(YEAR(PaymentDate), MONTH(PaymentDate), 1) AS PeriodStart, COUNT(*) AS Cnt, SUM(PaymentAmount) AS Amount " +
+            "FROM Membership WHERE PaymentStatus = 'Paid' AND PaymentDate >= ? " +
+            "GROUP BY DATEFROMPARTS(YEAR(PaymentDate), MONTH(PaymentDate), 1) ORDER BY PeriodStart DESC; " +
+
+            "SELECT MembershipType AS GroupName, COUNT(*) AS Cnt, " +
+            "COALESCE(SUM(CASE WHEN PaymentStatus = 'Paid' THEN PaymentAmount END), 0) AS Amount " +
+            "FROM Membership GROUP BY MembershipType ORDER BY Amount DESC; " +
+
+            "SELECT PaymentStatus AS GroupName, COUNT(*) AS Cnt, COALESCE(SUM(PaymentAmount), 0) AS Amount " +
+            "FROM Membership GROUP BY PaymentStatus ORDER BY Cnt DESC";
+
+    private final ReportCache cache = ReportCache.getInstance();
+
     /**
      * Retrieves data for the Member Report (Member status and membership details).
      * Corresponds to the combined Member and Membership tables.
+     * Served from {@link ReportCache} until a membership, payment or member write.
      */
     public List<MemberReportEntry> getMemberReport() {
-        List<MemberReportEntry> reportList = new ArrayList<>();
+        List<MemberReportEntry> report = cache.get("member", this::loadMemberReport);
+        return report == null ? new ArrayList<>() : report;
+    }
 
-        // Joins Member and Membership tables
-        String sql = "SELECT M.MemberID, M.FirstName, M.LastName, " +
-                "MS.MembershipType, MS.StartDate, MS.EndDate, MS.PaymentStatus " +
-                "FROM Member M " +
-                "JOIN Membership MS ON M.MemberID = MS.MemberID " +
-                "ORDER BY M.LastName, MS.StartDate DESC";
+    /**
+     * Retrieves data for the Financial Report (detailed payment transactions).
+     * Corresponds to the combined Member and Membership tables (using payment fields).
+     * Served from {@link ReportCache} until a membership, payment or member write.
+     */
+    public List<FinancialReportEntry> getFinancialReport() {
+        List<FinancialReportEntry> report = cache.get("financial", this::loadFinancialReport);
+        return report == null ? new ArrayList<>() : report;
+    }
+
+    /**
+     * Retrieves the Reports summary: total revenue, active vs expired memberships and revenue
+     * grouped by day, week, month, plan type and payment status. All of it is aggregated by
+     * SQL Server and returned in a single round trip. Returns null if the query fails.
+     * Cached per day, since the date windows move with it.
+     */
+    public ReportSummary getReportSummary() {
+        LocalDate today = LocalDate.now();
+        return cache.get("summary", () -> loadReportSummary(today), today);
+    }
+
+    // Returns null on error so that a failed load is not cached.
+    private List<MemberReportEntry> loadMemberReport() {
+        List<MemberReportEntry> reportList = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(MEMBER_REPORT_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 String fullName = rs.getString("FirstName") + " " + rs.getString("LastName");
@@ -41,27 +124,18 @@ public class ReportDAO {
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving Member Report: " + e.getMessage());
+            return null;
         }
         return reportList;
     }
 
-    /**
-     * Retrieves data for the Financial Report (detailed payment transactions).
-     * Corresponds to the combined Member and Membership tables (using payment fields).
-     */
-    public List<FinancialReportEntry> getFinancialReport() {
+    // Returns null on error so that a failed load is not cached.
+    private List<FinancialReportEntry> loadFinancialReport() {
         List<FinancialReportEntry> reportList = new ArrayList<>();
 
-        String sql = "SELECT M.MemberID, M.FirstName, M.LastName, " +
-                "MS.MembershipType, MS.PaymentDate, MS.PaymentAmount, MS.PaymentStatus " +
-                "FROM Membership MS " +
-                "JOIN Member M ON MS.MemberID = M.MemberID " +
-                "WHERE MS.PaymentAmount IS NOT NULL AND MS.PaymentAmount > 0 " +
-                "ORDER BY MS.PaymentDate DESC";
-
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(FINANCIAL_REPORT_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 String fullName = rs.getString("FirstName") + " " + rs.getString("LastName");
@@ -78,25 +152,135 @@ public class ReportDAO {
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving Financial Report: " + e.getMessage());
+            return null;
         }
         return reportList;
     }
 
-    //Calculates the total revenue from the Membership table.
-    public double getTotalRevenue() {
-        String sql = "SELECT SUM(PaymentAmount) AS TotalRevenue FROM Membership WHERE PaymentStatus = 'Paid'";
-        double total = 0.0;
+    /**
+     * Writes the full Member Report to writer row by row, without building a list.
+     * Returns the number of rows written.
+     */
+    public long exportMemberReport(RowWriter writer) throws SQLException, IOException {
+        writer.writeHeader("Member ID", "Member Name", "Plan Type", "Start Date", "End Date", "Payment Status");
+        return streamRows(MEMBER_REPORT_SQL, rs -> writer.writeRow(
+                rs.getString("MemberID"),
+                rs.getString("FirstName") + " " + rs.getString("LastName"),
+                rs.getString("MembershipType"),
+                rs.getDate("StartDate").toLocalDate(),
+                rs.getDate("EndDate").toLocalDate(),
+                rs.getString("PaymentStatus")));
+    }
+
+    /**
+     * Writes the full Financial Report to writer row by row, without building a list.
+     * Returns the number of rows written.
+     */
+    public long exportFinancialReport(RowWriter writer) throws SQLException, IOException {
+        writer.writeHeader("Member ID", "Member Name", "Plan Type", "Payment Date", "Amount Paid", "Status");
+        return streamRows(FINANCIAL_REPORT_SQL, rs -> writer.writeRow(
+                rs.getString("MemberID"),
+                rs.getString("FirstName") + " " + rs.getString("LastName"),
+                rs.getString("MembershipType"),
+                rs.getDate("PaymentDate").toLocalDate(),
+                rs.getDouble("PaymentAmount"),
+                rs.getString("PaymentStatus")));
+    }
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
 
+    // Forward-only, read-only cursor; with the driver's adaptive response buffering (the default)
+    // rows are read off the network as the loop advances instead of being buffered up front.
+    // A large export holds its connection past the leak threshold, so it borrows one exempt from the check.
+    private long streamRows(String sql, RowHandler handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getLongRunningConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+            long rows = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private ReportSummary loadReportSummary(LocalDate today) {
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SUMMARY_SQL)) {
+
+            pstmt.setDate(1, Date.valueOf(today.minusDays(SUMMARY_DAYS - 1)));
+            pstmt.setDate(2, Date.valueOf(today.minusWeeks(SUMMARY_WEEKS - 1).with(DayOfWeek.MONDAY)));
+            pstmt.setDate(3, Date.valueOf(today.minusMonths(SUMMARY_MONTHS - 1).withDayOfMonth(1)));
+
+            if (!pstmt.execute()) {
+                throw new SQLException("Report summary returned no result set.");
+            }
 
-            if (rs.next()) {
-                total = rs.getDouble("TotalRevenue");
+            double totalRevenue = 0.0;
+            int activeCount = 0;
+            int expiredCount = 0;
+            try (ResultSet rs = pstmt.getResultSet()) {
+                if (rs.next()) {
+                    totalRevenue = rs.getDouble("TotalRevenue");
+                    activeCount = rs.getInt("ActiveCount");
+                    expiredCount = rs.getInt("ExpiredCount");
+                }
             }
+
+            List<ReportGroupEntry> byDay = readPeriodGroups(pstmt, "Day");
+            List<ReportGroupEntry> byWeek = readPeriodGroups(pstmt, "Week");
+            List<ReportGroupEntry> byMonth = readPeriodGroups(pstmt, "Month");
+            List<ReportGroupEntry> byType = readNamedGroups(pstmt);
+            List<ReportGroupEntry> byStatus = readNamedGroups(pstmt);
+
+            return new ReportSummary(totalRevenue, activeCount, expiredCount,
+                    byDay, byWeek, byMonth, byType, byStatus);
+
         } catch (SQLException e) {
-            System.err.println("Error calculating total revenue: " + e.getMessage());
+            System.err.println("Error retrieving report summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Moves to the next result set of the summary batch (period start, count, amount).
+    private List<ReportGroupEntry> readPeriodGroups(PreparedStatement pstmt, String period) throws SQLException {
+        List<ReportGroupEntry> groups = new ArrayList<>();
+        try (ResultSet rs = nextResultSet(pstmt)) {
+            while (rs.next()) {
+                LocalDate start = rs.getDate("PeriodStart").toLocalDate();
+                String label = switch (period) {
+                    case "Week" -> "Week of " + start;
+                    case "Month" -> start.format(MONTH_LABEL);
+                    default -> start.toString();
+                };
+                groups.add(new ReportGroupEntry(label, rs.getInt("Cnt"), rs.getDouble("Amount")));
+            }
+        }
+        return groups;
+    }
+
+    // Moves to the next result set of the summary batch (group name, count, amount).
+    private List<ReportGroupEntry> readNamedGroups(PreparedStatement pstmt) throws SQLException {
+        List<ReportGroupEntry> groups = new ArrayList<>();
+        try (ResultSet rs = nextResultSet(pstmt)) {
+            while (rs.next()) {
+                String name = rs.getString("GroupName");
+                groups.add(new ReportGroupEntry(name == null ? "(none)" : name, rs.getInt("Cnt"), rs.getDouble("Amount")));
+            }
+        }
+        return groups;
+    }
+
+    private static ResultSet nextResultSet(PreparedStatement pstmt) throws SQLException {
+        if (!pstmt.getMoreResults()) {
+            throw new SQLException("Report summary returned fewer result sets than expected.");
         }
-        return total;
+        return pstmt.getResultSet();
     }
 }
\ No newline at end of file
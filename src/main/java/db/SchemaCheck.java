@@ -0,0 +1,57 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Checks that the database has the schema changes the application relies on beyond the original
+ * tables (indexes, derived columns, new tables). Those ship as numbered scripts in sql/ that a DBA
+ * runs, so the desk login needs no DDL rights; each script records its number in dbo.SchemaVersion.
+ * <p>
+ * The DAOs rely on every script (BodyMeasurement.RecordedAt, the MemberCard and CheckIn tables), so the
+ * dashboard keeps its modules closed until {@link #check()} has found the database up to date.
+ */
+public class SchemaCheck {
+
+    // The last script in sql/ this version of the application needs
+    public static final int REQUIRED_VERSION = 7;
+
+    // A database none of the scripts have run on yet counts as version 0
+    private static final String VERSION_SQL =
+            "IF OBJECT_ID(N'dbo.SchemaVersion', N'U') IS NULL SELECT 0 " +
+            "ELSE SELECT COALESCE(MAX(Version), 0) FROM dbo.SchemaVersion";
+
+    private static volatile boolean current;
+
+    private SchemaCheck() {
+    }
+
+    public static boolean isCurrent() {
+        return current;
+    }
+
+    /**
+     * Reads the database's schema version (empty if the database could not be reached).
+     * Once it has been found to be at least REQUIRED_VERSION, later calls don't query again.
+     */
+    public static Optional<Integer> check() {
+        if (current) {
+            return Optional.of(REQUIRED_VERSION);
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(VERSION_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            rs.next();
+            int version = rs.getInt(1);
+            current = version >= REQUIRED_VERSION;
+            return Optional.of(version);
+        } catch (SQLException e) {
+            System.err.println("Could not check the database schema: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package db;
+
+/**
+ * One column of a sort order pushed down to SQL. The column is named by its model property
+ * (e.g. "startDate"); each DAO maps the names it accepts to columns and ignores the rest,
+ * so nothing from the UI ever reaches the SQL text as is.
+ */
+public record SortKey(String property, boolean ascending) {
+}
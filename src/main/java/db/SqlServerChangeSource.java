@@ -0,0 +1,147 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads SQL Server change tracking (enabled by sql/enable-change-tracking.sql) for the tables other
+ * desks edit. A poll first compares version numbers, so when nothing changed, which is nearly always,
+ * it costs one single-row query; only then are the CHANGETABLE functions read.
+ * <p>
+ * On a database without change tracking every poll asks for a resync (which {@link ChangeFeed}
+ * spaces out), so the desks still catch up with each other, only more slowly. The same goes for a
+ * table that isn't tracked (e.g. MemberCard created after the script ran): the tracked tables are
+ * still read, and the resyncs cover the rest.
+ */
+public class SqlServerChangeSource implements ChangeSource {
+
+    // Tracked tables and their key columns
+    private static final Map<String, String> TABLES = new LinkedHashMap<>();
+
+    static {
+        TABLES.put("Member", "MemberID");
+        TABLES.put("Membership", "MembershipID");
+        TABLES.put("BodyMeasurement", "MeasurementID");
+        TABLES.put("Payment", "PaymentID");
+        TABLES.put("MemberCard", "CardToken");
+    }
+
+    // Reported as the version while the database has change tracking off
+    private static final long NO_TRACKING = 0;
+
+    // Current version, then per table the oldest version it still has history for (NULL if not tracked)
+    private static final String VERSION_SQL =
+            "SELECT CHANGE_TRACKING_CURRENT_VERSION(), " +
+            TABLES.keySet().stream()
+                    .map(table -> "CHANGE_TRACKING_MIN_VALID_VERSION(OBJECT_ID(N'dbo." + table + "'))")
+                    .collect(Collectors.joining(", "));
+
+    private volatile boolean warned;
+    private volatile List<String> warnedUntracked = List.of();
+
+    @Override
+    public long currentVersion() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT CHANGE_TRACKING_CURRENT_VERSION()");
+             ResultSet rs = pstmt.executeQuery()) {
+
+            rs.next();
+            long version = rs.getLong(1);
+            return rs.wasNull() ? NO_TRACKING : version;
+        }
+    }
+
+    @Override
+    public Changes poll(long sinceVersion) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long current;
+            long minValid;
+            List<String> trackedTables = new ArrayList<>();
+            List<String> untrackedTables = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(VERSION_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                current = rs.getLong(1);
+                if (rs.wasNull()) {
+                    return untracked();
+                }
+                minValid = 0;
+                int column = 2;
+                for (String table : TABLES.keySet()) {
+                    long tableMinValid = rs.getLong(column++);
+                    if (rs.wasNull()) {
+                        untrackedTables.add(table);
+                    } else {
+                        trackedTables.add(table);
+                        minValid = Math.max(minValid, tableMinValid);
+                    }
+                }
+            }
+            if (trackedTables.isEmpty()) {
+                return untracked();
+            }
+            // CHANGETABLE fails outright on an untracked table, so those are left to the resyncs
+            boolean partial = !untrackedTables.isEmpty();
+            if (partial) {
+                warnUntracked(untrackedTables);
+            }
+
+            if (sinceVersion < minValid) {
+                return new Changes(current, List.of(), true); // The history was cleaned up meanwhile
+            }
+            if (current == sinceVersion) {
+                return new Changes(current, List.of(), partial);
+            }
+
+            List<ChangeEvent> events = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(changesSql(trackedTables))) {
+                for (int i = 1; i <= trackedTables.size(); i++) {
+                    pstmt.setLong(i, sinceVersion);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        events.add(new ChangeEvent(rs.getString("TableName"),
+                                ChangeEvent.Operation.fromCode(rs.getString("Operation")), rs.getString("RowKey")));
+                    }
+                }
+            }
+            // Changes committed while this ran may be reported again next time; consumers re-read, so that's harmless
+            return new Changes(current, events, partial);
+        }
+    }
+
+    // Net changes after a version (one row per changed key), all the given tables in one round trip
+    private static String changesSql(List<String> tables) {
+        return tables.stream()
+                .map(table -> "SELECT '" + table + "' AS TableName, CT.SYS_CHANGE_OPERATION AS Operation, " +
+                        "CAST(CT." + TABLES.get(table) + " AS NVARCHAR(50)) AS RowKey " +
+                        "FROM CHANGETABLE(CHANGES dbo." + table + ", ?) AS CT")
+                .collect(Collectors.joining(" UNION ALL "));
+    }
+
+    // Once per distinct set of untracked tables
+    private void warnUntracked(List<String> tables) {
+        if (!tables.equals(warnedUntracked)) {
+            System.err.println("Change tracking is off for " + String.join(", ", tables) + "; changes there are "
+                    + "picked up by periodic reloads. Run sql/enable-change-tracking.sql again to track them.");
+            warnedUntracked = List.copyOf(tables);
+        }
+    }
+
+    // No history to read, so the only way to see other desks' changes is to read everything again
+    private Changes untracked() {
+        if (!warned) {
+            System.err.println("Change tracking is off on this database; other desks' changes are picked up by "
+                    + "periodic reloads. Run sql/enable-change-tracking.sql to see them within seconds.");
+            warned = true;
+        }
+        return new Changes(NO_TRACKING, List.of(), true);
+    }
+}
@@ -0,0 +1,203 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-connection cache of prepared statements, keyed by SQL text and generated-key mode.
+ * DAOs keep calling conn.prepareStatement(sql) and closing the result; the close()
+ * parks the statement here so SQL Server can reuse its prepared handle next time.
+ * Only ever used by the thread that currently holds the connection.
+ * <p>
+ * A statement goes back with the fetch size, fetch direction, max rows and query timeout it was
+ * prepared with, so one DAO's tuning never leaks into the next caller. Statements whose other
+ * settings were changed are closed instead of cached.
+ */
+class StatementCache {
+
+    // Marker for prepareStatement(String) without a generated-key argument
+    static final int NO_KEY_MODE = -1;
+
+    // Statement settings giveBack() puts back to what they were when the statement was prepared
+    private static final Set<String> RESET_SETTINGS = Set.of("setFetchSize", "setFetchDirection", "setMaxRows", "setQueryTimeout");
+    // Statement settings that can't be put back reliably; a statement with one of these changed is not reused
+    private static final Set<String> UNCACHEABLE_SETTINGS = Set.of("setLargeMaxRows", "setMaxFieldSize",
+            "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private final PooledConnection owner;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    // Statements that are prepared but not currently handed out, least recently used first
+    private final LinkedHashMap<Key, PreparedStatement> idle;
+
+    StatementCache(PooledConnection owner, int maxSize, LongAdder hits, LongAdder misses) {
+        this.owner = owner;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Returns a cached statement for the SQL if one is idle, otherwise prepares a new one.
+     * The returned handle goes back into the cache when it is closed.
+     */
+    PreparedStatement prepare(Connection raw, Connection handle, String sql, int keyMode) throws SQLException {
+        Key key = new Key(sql, keyMode);
+        PreparedStatement statement = idle.remove(key); // Owned by the caller until close()
+
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = keyMode == NO_KEY_MODE ? raw.prepareStatement(sql) : raw.prepareStatement(sql, keyMode);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Handle(key, statement, handle));
+    }
+
+    // Parks a statement after its logical close(); defaults is null if no resettable setting was changed.
+    private void giveBack(Key key, PreparedStatement statement, Settings defaults, boolean reusable) {
+        if (!reusable) {
+            closeQuietly(statement);
+            return;
+        }
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+            if (defaults != null) {
+                defaults.applyTo(statement);
+            }
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement displaced = idle.put(key, statement);
+        if (displaced != null && displaced != statement) {
+            closeQuietly(displaced); // The same SQL was prepared twice while in use
+        }
+    }
+
+    // Closes every idle statement (the physical connection is going away).
+    void clear() {
+        List<PreparedStatement> statements = new ArrayList<>(idle.values());
+        idle.clear();
+        for (PreparedStatement statement : statements) {
+            closeQuietly(statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    private record Key(String sql, int keyMode) {
+    }
+
+    private record Settings(int fetchSize, int fetchDirection, int maxRows, int queryTimeout) {
+
+        static Settings of(PreparedStatement statement) throws SQLException {
+            return new Settings(statement.getFetchSize(), statement.getFetchDirection(),
+                    statement.getMaxRows(), statement.getQueryTimeout());
+        }
+
+        void applyTo(PreparedStatement statement) throws SQLException {
+            statement.setFetchSize(fetchSize);
+            statement.setFetchDirection(fetchDirection);
+            statement.setMaxRows(maxRows);
+            statement.setQueryTimeout(queryTimeout);
+        }
+    }
+
+    // Routes calls on the handed-out statement to the cached physical statement.
+    private class Handle implements InvocationHandler {
+
+        private final Key key;
+        private final PreparedStatement statement;
+        private final Connection connection;
+        private boolean closed;
+        private Settings defaults; // Captured before the first resettable setting is changed
+        private boolean reusable = true;
+
+        Handle(Key key, PreparedStatement statement, Connection connection) {
+            this.key = key;
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack(key, statement, defaults, reusable);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return connection; // Never expose the physical connection
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + key.sql() + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            if (defaults == null && RESET_SETTINGS.contains(method.getName())) {
+                defaults = Settings.of(statement);
+            } else if (UNCACHEABLE_SETTINGS.contains(method.getName())) {
+                reusable = false;
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException) {
+                    owner.checkFailure(sqlException);
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -62,8 +62,8 @@ public class SystemUserDAO {
         String sql = "SELECT UserID, Username, FirstName, LastName, Role, IsActive FROM SystemUser";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 SystemUser user = new SystemUser(
@@ -0,0 +1,77 @@
+package db;
+
+import model.TrendPoint;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the measurement trends of the most recently charted members, so flicking between
+ * members on the Measurements screen only queries each one once. {@link BodyMeasurementDAO}
+ * drops a member's trend when one of their measurements changes. Safe to use from any thread.
+ */
+public class TrendCache {
+
+    private static final TrendCache INSTANCE = new TrendCache();
+
+    private static final int MAX_MEMBERS = Integer.getInteger("apollo.trends.cacheSize", 50);
+
+    private record Key(String memberID, int maxPoints) {
+    }
+
+    // Access-ordered, so the eldest entry is the least recently charted member
+    private final Map<Key, List<TrendPoint>> trends = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, List<TrendPoint>> eldest) {
+            return size() > MAX_MEMBERS;
+        }
+    };
+
+    // Bumped by every invalidation; a load that started before a write must not be cached
+    private long generation;
+
+    private TrendCache() {
+    }
+
+    public static TrendCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached trend, or runs loader (outside the lock) and caches its result.
+     * A null result (the DAO's way of reporting an error) is returned but not cached.
+     */
+    public List<TrendPoint> get(String memberID, int maxPoints, Supplier<List<TrendPoint>> loader) {
+        Key key = new Key(memberID, maxPoints);
+        long startGeneration;
+        synchronized (this) {
+            List<TrendPoint> cached = trends.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            startGeneration = generation;
+        }
+
+        List<TrendPoint> loaded = loader.get();
+        if (loaded != null) {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    trends.put(key, List.copyOf(loaded));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(String memberID) {
+        generation++;
+        trends.keySet().removeIf(key -> key.memberID().equals(memberID));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        trends.clear();
+    }
+}
@@ -41,8 +41,8 @@ public class WorkoutPlanDAO {
         String sql = "SELECT * FROM WorkoutPlan";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 WorkoutPlan plan = new WorkoutPlan(
@@ -0,0 +1,93 @@
+package export;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV (the format {@link CsvRowWriter} produces): quoted fields may contain
+ * commas, doubled quotes and line breaks. A leading UTF-8 byte order mark is skipped.
+ */
+public class CsvRowReader implements Closeable {
+
+    private final BufferedReader in;
+    private int lineNumber;
+    private int recordLine;
+
+    public CsvRowReader(Path file) throws IOException {
+        this.in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        in.mark(1);
+        if (in.read() != '\uFEFF') {
+            in.reset();
+        }
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the file.
+     */
+    public List<String> readRow() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        recordLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"'); // Escaped quote
+                    } else {
+                        quoted = false;
+                        in.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Line number (1-based) where the last record returned by readRow() started
+    public int getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,30 @@
+package export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("CSV file", "*.csv"),
+    XLSX("Excel workbook", "*.xlsx");
+
+    private final String description;
+    private final String pattern;
+
+    ExportFormat(String description, String pattern) {
+        this.description = description;
+        this.pattern = pattern;
+    }
+
+    public String getDescription() { return description; }
+    public String getPattern() { return pattern; }
+
+    // Picks the format from the file name, defaulting to CSV.
+    public static ExportFormat forFile(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xlsx") ? XLSX : CSV;
+    }
+
+    public RowWriter open(Path file, String sheetName) throws IOException {
+        return this == XLSX ? new XlsxRowWriter(file, sheetName) : new CsvRowWriter(file);
+    }
+}
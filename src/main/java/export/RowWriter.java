@@ -0,0 +1,15 @@
+package export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes a report one row at a time, so an export never holds more than the current row in memory.
+ * Values may be String, Number, LocalDate or null.
+ */
+public interface RowWriter extends Closeable {
+
+    void writeHeader(String... columns) throws IOException;
+
+    void writeRow(Object... values) throws IOException;
+}
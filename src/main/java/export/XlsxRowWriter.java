@@ -0,0 +1,227 @@
+package export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming .xlsx writer: worksheets written straight into the zip as rows arrive.
+ * Strings are stored inline (no shared-strings table), so nothing is buffered between rows.
+ * Dates are written as Excel date serials and numbers with a two-decimal format.
+ * <p>
+ * A sheet holds at most 1,048,576 rows in Excel. Once one is full the export carries on in a new
+ * sheet ("Name (2)", "Name (3)", ...) that starts with the header row again. The parts listing the
+ * sheets are written by close(), when their number is known.
+ */
+public class XlsxRowWriter implements RowWriter {
+
+    // Excel's row limit per sheet, header included
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    // Excel's limit on sheet name length
+    private static final int MAX_SHEET_NAME = 31;
+
+    // Style indexes into the cellXfs list in STYLES
+    private static final int STYLE_DATE = 1;
+    private static final int STYLE_AMOUNT = 2;
+    private static final int STYLE_HEADER = 3;
+
+    // Excel's day zero (accounting for its 1900 leap-year quirk)
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+
+    private static final String ROOT_RELS = XML_HEADER +
+            "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+            "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+            "</Relationships>";
+
+
+    private static final String STYLES = XML_HEADER +
+            "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" +
+            "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>" +
+            "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>" +
+            "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>" +
+            "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>" +
+            "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>" +
+            "<cellXfs count=\"4\">" +
+            "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>" +
+            "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>" +
+            "<xf numFmtId=\"4\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>" +
+            "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>" +
+            "</cellXfs></styleSheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final String sheetName;
+    private final int maxRowsPerSheet;
+    private String[] header; // Repeated at the top of each further sheet
+    private int sheetCount;
+    private int rowNumber; // Within the current sheet
+
+    public XlsxRowWriter(Path file, String sheetName) throws IOException {
+        this(file, sheetName, MAX_ROWS_PER_SHEET);
+    }
+
+    // Package-private so the tests can roll over to a new sheet without a million rows
+    XlsxRowWriter(Path file, String sheetName, int maxRowsPerSheet) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.out = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        this.sheetName = sheetName;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/styles.xml", STYLES);
+        startSheet();
+    }
+
+    @Override
+    public void writeHeader(String... columns) throws IOException {
+        header = columns.clone();
+        startRow();
+        writeHeaderCells();
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        if (rowNumber == maxRowsPerSheet) {
+            endSheet();
+            startSheet();
+        }
+        startRow();
+        for (Object value : values) {
+            if (value == null) {
+                out.write("<c/>");
+            } else if (value instanceof LocalDate date) {
+                out.write("<c s=\"" + STYLE_DATE + "\"><v>" + ChronoUnit.DAYS.between(EXCEL_EPOCH, date) + "</v></c>");
+            } else if (value instanceof Number number) {
+                out.write("<c s=\"" + STYLE_AMOUNT + "\"><v>" + number + "</v></c>");
+            } else {
+                writeString(value.toString(), 0);
+            }
+        }
+        out.write("</row>");
+    }
+
+    // The worksheet stays open until it is full or the writer is closed; rows are streamed into it
+    private void startSheet() throws IOException {
+        sheetCount++;
+        rowNumber = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        out.write(XML_HEADER);
+        out.write("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        if (header != null) {
+            startRow();
+            writeHeaderCells();
+        }
+    }
+
+    private void endSheet() throws IOException {
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void startRow() throws IOException {
+        rowNumber++;
+        out.write("<row r=\"" + rowNumber + "\">");
+    }
+
+    private void writeHeaderCells() throws IOException {
+        for (String column : header) {
+            writeString(column, STYLE_HEADER);
+        }
+        out.write("</row>");
+    }
+
+    // The first sheet keeps the given name; later ones add a number, shortening the name to fit if needed
+    private String sheetName(int sheet) {
+        if (sheet == 1) {
+            return sheetName;
+        }
+        String suffix = " (" + sheet + ")";
+        String base = sheetName.length() + suffix.length() > MAX_SHEET_NAME
+                ? sheetName.substring(0, MAX_SHEET_NAME - suffix.length()) : sheetName;
+        return base + suffix;
+    }
+
+    private void writeString(String text, int style) throws IOException {
+        out.write(style == 0 ? "<c t=\"inlineStr\">" : "<c t=\"inlineStr\" s=\"" + style + "\">");
+        out.write("<is><t xml:space=\"preserve\">");
+        out.write(escape(text));
+        out.write("</t></is></c>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    // Escapes XML markup and drops control characters that XML 1.0 does not allow.
+    private static String escape(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> (c < 0x20 && c != '\t' && c != '\n' && c != '\r') ? "" : null;
+            };
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (sb != null) {
+                if (replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        endSheet();
+
+        StringBuilder contentTypes = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        StringBuilder workbookRels = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">")
+                .append("<Relationship Id=\"rId0\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>");
+        StringBuilder workbook = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" ")
+                .append("xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+        for (int sheet = 1; sheet <= sheetCount; sheet++) {
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(sheet)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            workbookRels.append("<Relationship Id=\"rId").append(sheet)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(sheet).append(".xml\"/>");
+            workbook.append("<sheet name=\"").append(escape(sheetName(sheet))).append("\" sheetId=\"").append(sheet)
+                    .append("\" r:id=\"rId").append(sheet).append("\"/>");
+        }
+        writeEntry("[Content_Types].xml", contentTypes.append("</Types>").toString());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRels.append("</Relationships>").toString());
+        writeEntry("xl/workbook.xml", workbook.append("</sheets></workbook>").toString());
+        zip.close();
+    }
+}
@@ -1,15 +1,14 @@
 package model;
 
 import javafx.beans.property.*;
-import java.time.LocalDate; // Keep LocalDate for the record date if you add it later, but remove fields for now
+import java.time.LocalDateTime;
 
 public class BodyMeasurement {
 
     private final IntegerProperty measurementID;
     private final StringProperty memberID;
     private final StringProperty memberName; // Helper for UI display
-    // Keep RecordDate property placeholder (assuming you will add it to the DB later)
-    private final ObjectProperty<LocalDate> recordDate = new SimpleObjectProperty<>(LocalDate.now());
+    private final ObjectProperty<LocalDateTime> recordedAt; // When the measurement was taken
 
     // Measurement Values (Matching your schema)
     private final DoubleProperty weight;           // Renamed from WeightKg
@@ -18,10 +17,12 @@ public class BodyMeasurement {
     private final DoubleProperty bodyFatPercentage; // Renamed from BodyFatPercent
 
     // Full Constructor for existing records
-    public BodyMeasurement(int measurementID, String memberID, String memberName, double weight, double height, double bmi, double bodyFatPercentage) {
+    public BodyMeasurement(int measurementID, String memberID, String memberName, LocalDateTime recordedAt,
+                           double weight, double height, double bmi, double bodyFatPercentage) {
         this.measurementID = new SimpleIntegerProperty(measurementID);
         this.memberID = new SimpleStringProperty(memberID);
         this.memberName = new SimpleStringProperty(memberName);
+        this.recordedAt = new SimpleObjectProperty<>(recordedAt);
 
         this.weight = new SimpleDoubleProperty(weight);
         this.height = new SimpleDoubleProperty(height);
@@ -29,17 +30,16 @@ public class BodyMeasurement {
         this.bodyFatPercentage = new SimpleDoubleProperty(bodyFatPercentage);
     }
 
-    // Constructor for new records (ID is auto-generated)
+    // Constructor for new records (ID is auto-generated, taken now)
     public BodyMeasurement(String memberID, double weight, double height, double bmi, double bodyFatPercentage) {
-        this(0, memberID, null, weight, height, bmi, bodyFatPercentage);
+        this(0, memberID, null, LocalDateTime.now(), weight, height, bmi, bodyFatPercentage);
     }
 
     // --- Properties for TableView binding ---
     public IntegerProperty measurementIDProperty() { return measurementID; }
     public StringProperty memberIDProperty() { return memberID; }
     public StringProperty memberNameProperty() { return memberName; }
-    // We will keep recordDate property for future proofing/optional use
-    public ObjectProperty<LocalDate> recordDateProperty() { return recordDate; }
+    public ObjectProperty<LocalDateTime> recordedAtProperty() { return recordedAt; }
 
     public DoubleProperty weightProperty() { return weight; }
     public DoubleProperty heightProperty() { return height; }
@@ -50,6 +50,10 @@ public class BodyMeasurement {
     public int getMeasurementID() { return measurementID.get(); }
     public void setMeasurementID(int measurementID) { this.measurementID.set(measurementID); }
     public String getMemberID() { return memberID.get(); }
+    public String getMemberName() { return memberName.get(); }
+    public void setMemberName(String memberName) { this.memberName.set(memberName); }
+    public LocalDateTime getRecordedAt() { return recordedAt.get(); }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt.set(recordedAt); }
 
     public double getWeight() { return weight.get(); }
     public double getHeight() { return height.get(); }
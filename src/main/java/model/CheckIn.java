@@ -0,0 +1,20 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * One member arriving at the door. Check-ins are only ever appended, so this is immutable.
+ * The ID is made on the desk rather than by the database, so a check-in written again after an
+ * outage (see db.CheckInLog) is still stored only once.
+ *
+ * @param matchedBy how the member was found (CARD, MEMBER_ID or PHONE)
+ * @param admission what the desk was told (ACTIVE, PAYMENT_PENDING, NO_MEMBERSHIP or UNKNOWN)
+ */
+public record CheckIn(UUID checkInID, String memberID, LocalDateTime checkedInAt, String matchedBy, String admission) {
+
+    public static CheckIn now(String memberID, String matchedBy, String admission) {
+        return new CheckIn(UUID.randomUUID(), memberID, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), matchedBy, admission);
+    }
+}
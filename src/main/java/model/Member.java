@@ -72,4 +72,10 @@ public class Member {
     public String getFullName() {
         return getFirstName() + " " + getLastName();
     }
+
+    // Separate object with the same values, for holders (like the member cache) that must not see later edits
+    public Member copy() {
+        return new Member(getMemberId(), getFirstName(), getLastName(), getContactNumber(),
+                getEmail(), getDateOfBirth(), getJoiningDate(), getAddress());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package model;
+
+import javafx.beans.property.*;
+import java.time.LocalDate;
+
+public class MemberReportEntry {
+
+    private final StringProperty memberID;
+    private final StringProperty fullName;
+    private final StringProperty membershipType;
+    private final ObjectProperty<LocalDate> startDate;
+    private final ObjectProperty<LocalDate> endDate;
+    private final StringProperty paymentStatus;
+
+    public MemberReportEntry(String memberID, String fullName, String membershipType, LocalDate startDate, LocalDate endDate, String paymentStatus) {
+        this.memberID = new SimpleStringProperty(memberID);
+        this.fullName = new SimpleStringProperty(fullName);
+        this.membershipType = new SimpleStringProperty(membershipType);
+        this.startDate = new SimpleObjectProperty<>(startDate);
+        this.endDate = new SimpleObjectProperty<>(endDate);
+        this.paymentStatus = new SimpleStringProperty(paymentStatus);
+    }
+
+    // Properties for TableView binding
+    public StringProperty memberIDProperty() { return memberID; }
+    public StringProperty fullNameProperty() { return fullName; }
+    public StringProperty membershipTypeProperty() { return membershipType; }
+    public ObjectProperty<LocalDate> startDateProperty() { return startDate; }
+    public ObjectProperty<LocalDate> endDateProperty() { return endDate; }
+    public StringProperty paymentStatusProperty() { return paymentStatus; }
+
+    public LocalDate getEndDate() { return endDate.get(); }
+}
@@ -43,5 +43,7 @@ public class MemberWorkout {
     public int getPlanID() { return planID.get(); }
     public LocalDate getAssignedDate() { return assignedDate.get(); }
     public String getMemberName() { return memberName.get(); }
+    public void setMemberName(String memberName) { this.memberName.set(memberName); }
     public String getPlanName() { return planName.get(); }
+    public void setPlanName(String planName) { this.planName.set(planName); }
 }
\ No newline at end of file
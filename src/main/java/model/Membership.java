@@ -5,37 +5,49 @@ import javafx.beans.property.*;
 
 public class Membership {
 
+    // Each value lives in a plain field until its property is first asked for (in practice only
+    // by the TableView cells of rows on screen); from then on the property holds it.
+    // A row that is never displayed costs one object instead of nine.
+
     // MembershipID (INT PRIMARY KEY IDENTITY)
-    private final IntegerProperty membershipID;
+    private int membershipID;
+    private IntegerProperty membershipIDProperty;
 
     // MemberID (VARCHAR)
-    private final StringProperty memberID;
+    private String memberID;
+    private StringProperty memberIDProperty;
 
     // StartDate, EndDate, PaymentDate (DATE)
-    private final ObjectProperty<LocalDate> startDate;
-    private final ObjectProperty<LocalDate> endDate;
-    private final ObjectProperty<LocalDate> paymentDate;
+    private LocalDate startDate;
+    private ObjectProperty<LocalDate> startDateProperty;
+    private LocalDate endDate;
+    private ObjectProperty<LocalDate> endDateProperty;
+    private LocalDate paymentDate;
+    private ObjectProperty<LocalDate> paymentDateProperty;
 
     // MembershipType (VARCHAR, the plan name)
-    private final StringProperty membershipType;
+    private String membershipType;
+    private StringProperty membershipTypeProperty;
 
     // PaymentAmount (DECIMAL)
-    private final DoubleProperty paymentAmount;
+    private double paymentAmount;
+    private DoubleProperty paymentAmountProperty;
 
     // PaymentStatus (VARCHAR)
-    private final StringProperty paymentStatus;
+    private String paymentStatus;
+    private StringProperty paymentStatusProperty;
 
     // Constructor for retrieving existing records
     public Membership(int membershipID, String memberID, LocalDate startDate, LocalDate endDate,
                       String membershipType, double paymentAmount, LocalDate paymentDate, String paymentStatus) {
-        this.membershipID = new SimpleIntegerProperty(membershipID);
-        this.memberID = new SimpleStringProperty(memberID);
-        this.startDate = new SimpleObjectProperty<>(startDate);
-        this.endDate = new SimpleObjectProperty<>(endDate);
-        this.membershipType = new SimpleStringProperty(membershipType);
-        this.paymentAmount = new SimpleDoubleProperty(paymentAmount);
-        this.paymentDate = new SimpleObjectProperty<>(paymentDate);
-        this.paymentStatus = new SimpleStringProperty(paymentStatus);
+        this.membershipID = membershipID;
+        this.memberID = memberID;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.membershipType = membershipType;
+        this.paymentAmount = paymentAmount;
+        this.paymentDate = paymentDate;
+        this.paymentStatus = paymentStatus;
     }
 
     // Constructor for new records (ID is auto-generated)
@@ -44,37 +56,107 @@ public class Membership {
         this(0, memberID, startDate, endDate, membershipType, paymentAmount, paymentDate, paymentStatus);
     }
 
-    // Getters for Properties (for TableView binding)
-    public IntegerProperty membershipIDProperty() { return membershipID; }
-    public StringProperty memberIDProperty() { return memberID; }
-    public ObjectProperty<LocalDate> startDateProperty() { return startDate; }
-    public ObjectProperty<LocalDate> endDateProperty() { return endDate; }
-    public StringProperty membershipTypeProperty() { return membershipType; }
-    public DoubleProperty paymentAmountProperty() { return paymentAmount; }
-    public ObjectProperty<LocalDate> paymentDateProperty() { return paymentDate; }
-    public StringProperty paymentStatusProperty() { return paymentStatus; }
+    // Immutable copy, as held by the check-in lookup
+    public MembershipRecord toRecord() {
+        return new MembershipRecord(getMembershipID(), getMemberID(), getStartDate(), getEndDate(),
+                getMembershipType(), getPaymentAmount(), getPaymentDate(), getPaymentStatus());
+    }
+
+    // Getters for Properties (for TableView binding), created on first use
+    public IntegerProperty membershipIDProperty() {
+        if (membershipIDProperty == null) {
+            membershipIDProperty = new SimpleIntegerProperty(this, "membershipID", membershipID);
+        }
+        return membershipIDProperty;
+    }
+
+    public StringProperty memberIDProperty() {
+        if (memberIDProperty == null) {
+            memberIDProperty = new SimpleStringProperty(this, "memberID", memberID);
+        }
+        return memberIDProperty;
+    }
+
+    public ObjectProperty<LocalDate> startDateProperty() {
+        if (startDateProperty == null) {
+            startDateProperty = new SimpleObjectProperty<>(this, "startDate", startDate);
+        }
+        return startDateProperty;
+    }
+
+    public ObjectProperty<LocalDate> endDateProperty() {
+        if (endDateProperty == null) {
+            endDateProperty = new SimpleObjectProperty<>(this, "endDate", endDate);
+        }
+        return endDateProperty;
+    }
+
+    public StringProperty membershipTypeProperty() {
+        if (membershipTypeProperty == null) {
+            membershipTypeProperty = new SimpleStringProperty(this, "membershipType", membershipType);
+        }
+        return membershipTypeProperty;
+    }
+
+    public DoubleProperty paymentAmountProperty() {
+        if (paymentAmountProperty == null) {
+            paymentAmountProperty = new SimpleDoubleProperty(this, "paymentAmount", paymentAmount);
+        }
+        return paymentAmountProperty;
+    }
+
+    public ObjectProperty<LocalDate> paymentDateProperty() {
+        if (paymentDateProperty == null) {
+            paymentDateProperty = new SimpleObjectProperty<>(this, "paymentDate", paymentDate);
+        }
+        return paymentDateProperty;
+    }
+
+    public StringProperty paymentStatusProperty() {
+        if (paymentStatusProperty == null) {
+            paymentStatusProperty = new SimpleStringProperty(this, "paymentStatus", paymentStatus);
+        }
+        return paymentStatusProperty;
+    }
 
     // Getters and Setters (Partial list for manipulation)
-    public int getMembershipID() { return membershipID.get(); }
+    public int getMembershipID() { return membershipIDProperty == null ? membershipID : membershipIDProperty.get(); }
+    public void setMembershipID(int membershipID) {
+        if (membershipIDProperty == null) { this.membershipID = membershipID; } else { membershipIDProperty.set(membershipID); }
+    }
 
-    public String getMemberID() { return memberID.get(); }
-    public void setMemberID(String memberID) { this.memberID.set(memberID); }
+    public String getMemberID() { return memberIDProperty == null ? memberID : memberIDProperty.get(); }
+    public void setMemberID(String memberID) {
+        if (memberIDProperty == null) { this.memberID = memberID; } else { memberIDProperty.set(memberID); }
+    }
 
-    public LocalDate getStartDate() { return startDate.get(); }
-    public void setStartDate(LocalDate startDate) { this.startDate.set(startDate); }
+    public LocalDate getStartDate() { return startDateProperty == null ? startDate : startDateProperty.get(); }
+    public void setStartDate(LocalDate startDate) {
+        if (startDateProperty == null) { this.startDate = startDate; } else { startDateProperty.set(startDate); }
+    }
 
-    public String getMembershipType() { return membershipType.get(); }
-    public void setMembershipType(String membershipType) { this.membershipType.set(membershipType); }
+    public String getMembershipType() { return membershipTypeProperty == null ? membershipType : membershipTypeProperty.get(); }
+    public void setMembershipType(String membershipType) {
+        if (membershipTypeProperty == null) { this.membershipType = membershipType; } else { membershipTypeProperty.set(membershipType); }
+    }
 
-    public double getPaymentAmount() { return paymentAmount.get(); }
-    public void setPaymentAmount(double paymentAmount) { this.paymentAmount.set(paymentAmount); }
+    public double getPaymentAmount() { return paymentAmountProperty == null ? paymentAmount : paymentAmountProperty.get(); }
+    public void setPaymentAmount(double paymentAmount) {
+        if (paymentAmountProperty == null) { this.paymentAmount = paymentAmount; } else { paymentAmountProperty.set(paymentAmount); }
+    }
 
-    public LocalDate getEndDate() { return endDate.get(); }
-    public void setEndDate(LocalDate endDate) { this.endDate.set(endDate); }
+    public LocalDate getEndDate() { return endDateProperty == null ? endDate : endDateProperty.get(); }
+    public void setEndDate(LocalDate endDate) {
+        if (endDateProperty == null) { this.endDate = endDate; } else { endDateProperty.set(endDate); }
+    }
 
-    public LocalDate getPaymentDate() { return paymentDate.get(); }
-    public void setPaymentDate(LocalDate paymentDate) { this.paymentDate.set(paymentDate); }
+    public LocalDate getPaymentDate() { return paymentDateProperty == null ? paymentDate : paymentDateProperty.get(); }
+    public void setPaymentDate(LocalDate paymentDate) {
+        if (paymentDateProperty == null) { this.paymentDate = paymentDate; } else { paymentDateProperty.set(paymentDate); }
+    }
 
-    public String getPaymentStatus() { return paymentStatus.get(); }
-    public void setPaymentStatus(String paymentStatus) { this.paymentStatus.set(paymentStatus); }
-}
\ No newline at end of file
+    public String getPaymentStatus() { return paymentStatusProperty == null ? paymentStatus : paymentStatusProperty.get(); }
+    public void setPaymentStatus(String paymentStatus) {
+        if (paymentStatusProperty == null) { this.paymentStatus = paymentStatus; } else { paymentStatusProperty.set(paymentStatus); }
+    }
+}
@@ -0,0 +1,18 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable membership row for bulk reads where nothing is bound to the UI, such as the current
+ * memberships behind the check-in lookup. Use {@link Membership} for rows that are edited or shown in a table.
+ */
+public record MembershipRecord(
+        int membershipID,
+        String memberID,
+        LocalDate startDate,
+        LocalDate endDate,
+        String membershipType,
+        double paymentAmount,
+        LocalDate paymentDate,
+        String paymentStatus) {
+}
@@ -5,41 +5,93 @@ import javafx.beans.property.*;
 
 public class Payment {
 
-    private final StringProperty paymentID;
-    private final StringProperty memberID;
-    private final StringProperty memberFullName;
-    private final StringProperty membershipTypeID;
-    private final ObjectProperty<LocalDate> paymentDate;
-    private final DoubleProperty amountPaid;
-    private final StringProperty paymentMethod;
+    // Values stay in plain fields until a property is asked for (see Membership)
+    private String paymentID;
+    private StringProperty paymentIDProperty;
+    private String memberID;
+    private StringProperty memberIDProperty;
+    private String memberFullName;
+    private StringProperty memberFullNameProperty;
+    private String membershipTypeID;
+    private StringProperty membershipTypeIDProperty;
+    private LocalDate paymentDate;
+    private ObjectProperty<LocalDate> paymentDateProperty;
+    private double amountPaid;
+    private DoubleProperty amountPaidProperty;
+    private String paymentMethod;
+    private StringProperty paymentMethodProperty;
 
     public Payment(String paymentID, String memberID, String memberFullName, String membershipTypeID,
                    LocalDate paymentDate, double amountPaid, String paymentMethod) {
-        this.paymentID = new SimpleStringProperty(paymentID);
-        this.memberID = new SimpleStringProperty(memberID);
-        this.memberFullName = new SimpleStringProperty(memberFullName);
-        this.membershipTypeID = new SimpleStringProperty(membershipTypeID);
-        this.paymentDate = new SimpleObjectProperty<>(paymentDate);
-        this.amountPaid = new SimpleDoubleProperty(amountPaid);
-        this.paymentMethod = new SimpleStringProperty(paymentMethod);
-    }
-
-    // Getters for Properties
-    public StringProperty paymentIDProperty() { return paymentID; }
-    public StringProperty memberIDProperty() { return memberID; }
-    public StringProperty memberFullNameProperty() { return memberFullName; }
-    public StringProperty membershipTypeIDProperty() { return membershipTypeID; }
-    public ObjectProperty<LocalDate> paymentDateProperty() { return paymentDate; }
-    public DoubleProperty amountPaidProperty() { return amountPaid; }
-    public StringProperty paymentMethodProperty() { return paymentMethod; }
+        this.paymentID = paymentID;
+        this.memberID = memberID;
+        this.memberFullName = memberFullName;
+        this.membershipTypeID = membershipTypeID;
+        this.paymentDate = paymentDate;
+        this.amountPaid = amountPaid;
+        this.paymentMethod = paymentMethod;
+    }
+
+    // Getters for Properties, created on first use
+    public StringProperty paymentIDProperty() {
+        if (paymentIDProperty == null) {
+            paymentIDProperty = new SimpleStringProperty(this, "paymentID", paymentID);
+        }
+        return paymentIDProperty;
+    }
+
+    public StringProperty memberIDProperty() {
+        if (memberIDProperty == null) {
+            memberIDProperty = new SimpleStringProperty(this, "memberID", memberID);
+        }
+        return memberIDProperty;
+    }
+
+    public StringProperty memberFullNameProperty() {
+        if (memberFullNameProperty == null) {
+            memberFullNameProperty = new SimpleStringProperty(this, "memberFullName", memberFullName);
+        }
+        return memberFullNameProperty;
+    }
+
+    public StringProperty membershipTypeIDProperty() {
+        if (membershipTypeIDProperty == null) {
+            membershipTypeIDProperty = new SimpleStringProperty(this, "membershipTypeID", membershipTypeID);
+        }
+        return membershipTypeIDProperty;
+    }
+
+    public ObjectProperty<LocalDate> paymentDateProperty() {
+        if (paymentDateProperty == null) {
+            paymentDateProperty = new SimpleObjectProperty<>(this, "paymentDate", paymentDate);
+        }
+        return paymentDateProperty;
+    }
+
+    public DoubleProperty amountPaidProperty() {
+        if (amountPaidProperty == null) {
+            amountPaidProperty = new SimpleDoubleProperty(this, "amountPaid", amountPaid);
+        }
+        return amountPaidProperty;
+    }
+
+    public StringProperty paymentMethodProperty() {
+        if (paymentMethodProperty == null) {
+            paymentMethodProperty = new SimpleStringProperty(this, "paymentMethod", paymentMethod);
+        }
+        return paymentMethodProperty;
+    }
 
     // Getters and Setters
-    public String getPaymentID() { return paymentID.get(); }
-    public String getMemberID() { return memberID.get(); }
-    public String getMembershipTypeID() { return membershipTypeID.get(); }
-    public LocalDate getPaymentDate() { return paymentDate.get(); }
-    public double getAmountPaid() { return amountPaid.get(); }
-    public String getPaymentMethod() { return paymentMethod.get(); }
-
-    public void setPaymentID(String paymentID) { this.paymentID.set(paymentID); }
-}
\ No newline at end of file
+    public String getPaymentID() { return paymentIDProperty == null ? paymentID : paymentIDProperty.get(); }
+    public String getMemberID() { return memberIDProperty == null ? memberID : memberIDProperty.get(); }
+    public String getMemberFullName() { return memberFullNameProperty == null ? memberFullName : memberFullNameProperty.get(); }
+    public String getMembershipTypeID() { return membershipTypeIDProperty == null ? membershipTypeID : membershipTypeIDProperty.get(); }
+    public LocalDate getPaymentDate() { return paymentDateProperty == null ? paymentDate : paymentDateProperty.get(); }
+    public double getAmountPaid() { return amountPaidProperty == null ? amountPaid : amountPaidProperty.get(); }
+    public String getPaymentMethod() { return paymentMethodProperty == null ? paymentMethod : paymentMethodProperty.get(); }
+
+    public void setPaymentID(String paymentID) {
+        if (paymentIDProperty == null) { this.paymentID = paymentID; } else { paymentIDProperty.set(paymentID); }
+    }
+}
@@ -0,0 +1,26 @@
+package model;
+
+import javafx.beans.property.*;
+
+// One row of a grouped report: a group label (day, plan type, status...) with its row count and amount.
+public class ReportGroupEntry {
+
+    private final StringProperty group;
+    private final IntegerProperty count;
+    private final DoubleProperty totalAmount;
+
+    public ReportGroupEntry(String group, int count, double totalAmount) {
+        this.group = new SimpleStringProperty(group);
+        this.count = new SimpleIntegerProperty(count);
+        this.totalAmount = new SimpleDoubleProperty(totalAmount);
+    }
+
+    // Properties for TableView binding
+    public StringProperty groupProperty() { return group; }
+    public IntegerProperty countProperty() { return count; }
+    public DoubleProperty totalAmountProperty() { return totalAmount; }
+
+    public String getGroup() { return group.get(); }
+    public int getCount() { return count.get(); }
+    public double getTotalAmount() { return totalAmount.get(); }
+}
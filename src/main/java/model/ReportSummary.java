@@ -0,0 +1,18 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Everything the Reports summary shows, computed by the database in one round trip.
+ * Its size depends on the number of groups, not on how much history the tables hold.
+ */
+public record ReportSummary(
+        double totalRevenue,
+        int activeMemberships,
+        int expiredMemberships,
+        List<ReportGroupEntry> revenueByDay,
+        List<ReportGroupEntry> revenueByWeek,
+        List<ReportGroupEntry> revenueByMonth,
+        List<ReportGroupEntry> byMembershipType,
+        List<ReportGroupEntry> byPaymentStatus) {
+}
@@ -4,28 +4,36 @@ import javafx.beans.property.*;
 
 public class SystemUser {
 
+    // Values stay in plain fields until a property is asked for (see Membership)
+
     // Corresponds to UserID (INT PRIMARY KEY IDENTITY)
-    private final IntegerProperty userID;
+    private int userID;
+    private IntegerProperty userIDProperty;
 
     // Corresponds to Username, PasswordHash, FirstName, LastName, Role (VARCHAR)
-    private final StringProperty username;
-    private final StringProperty passwordHash; // Used for initial display/setting, though a secure app stores only the hash
-    private final StringProperty firstName;
-    private final StringProperty lastName;
-    private final StringProperty role;
+    private String username;
+    private StringProperty usernameProperty;
+    private String passwordHash; // Never bound to the UI, so it has no property
+    private String firstName;
+    private StringProperty firstNameProperty;
+    private String lastName;
+    private StringProperty lastNameProperty;
+    private String role;
+    private StringProperty roleProperty;
 
     // Corresponds to IsActive (BIT)
-    private final BooleanProperty isActive;
+    private boolean isActive;
+    private BooleanProperty isActiveProperty;
 
     // Full Constructor for retrieving existing records
     public SystemUser(int userID, String username, String passwordHash, String firstName, String lastName, String role, boolean isActive) {
-        this.userID = new SimpleIntegerProperty(userID);
-        this.username = new SimpleStringProperty(username);
-        this.passwordHash = new SimpleStringProperty(passwordHash);
-        this.firstName = new SimpleStringProperty(firstName);
-        this.lastName = new SimpleStringProperty(lastName);
-        this.role = new SimpleStringProperty(role);
-        this.isActive = new SimpleBooleanProperty(isActive);
+        this.userID = userID;
+        this.username = username;
+        this.passwordHash = passwordHash;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.isActive = isActive;
     }
 
     // Constructor for new records (ID is auto-generated)
@@ -34,33 +42,78 @@ public class SystemUser {
         this(0, username, passwordHash, firstName, lastName, role, true); // New users are active by default
     }
 
-    // --- Getters for Properties (Essential for TableView binding) ---
-    public IntegerProperty userIDProperty() { return userID; }
-    public StringProperty usernameProperty() { return username; }
-    public StringProperty firstNameProperty() { return firstName; }
-    public StringProperty lastNameProperty() { return lastName; }
-    public StringProperty roleProperty() { return role; }
-    public BooleanProperty isActiveProperty() { return isActive; }
+    // --- Getters for Properties (Essential for TableView binding), created on first use ---
+    public IntegerProperty userIDProperty() {
+        if (userIDProperty == null) {
+            userIDProperty = new SimpleIntegerProperty(this, "userID", userID);
+        }
+        return userIDProperty;
+    }
+
+    public StringProperty usernameProperty() {
+        if (usernameProperty == null) {
+            usernameProperty = new SimpleStringProperty(this, "username", username);
+        }
+        return usernameProperty;
+    }
+
+    public StringProperty firstNameProperty() {
+        if (firstNameProperty == null) {
+            firstNameProperty = new SimpleStringProperty(this, "firstName", firstName);
+        }
+        return firstNameProperty;
+    }
+
+    public StringProperty lastNameProperty() {
+        if (lastNameProperty == null) {
+            lastNameProperty = new SimpleStringProperty(this, "lastName", lastName);
+        }
+        return lastNameProperty;
+    }
+
+    public StringProperty roleProperty() {
+        if (roleProperty == null) {
+            roleProperty = new SimpleStringProperty(this, "role", role);
+        }
+        return roleProperty;
+    }
+
+    public BooleanProperty isActiveProperty() {
+        if (isActiveProperty == null) {
+            isActiveProperty = new SimpleBooleanProperty(this, "isActive", isActive);
+        }
+        return isActiveProperty;
+    }
 
     // --- Simple Getters and Setters ---
-    public int getUserID() { return userID.get(); }
-    public String getUsername() { return username.get(); }
-    public void setUsername(String username) { this.username.set(username); }
-    public String getPasswordHash() { return passwordHash.get(); }
-    public void setPasswordHash(String passwordHash) { this.passwordHash.set(passwordHash); }
-    public String getFirstName() { return firstName.get(); }
-    public void setFirstName(String firstName) { this.firstName.set(firstName); }
-    public String getLastName() { return lastName.get(); }
-    public void setLastName(String lastName) { this.lastName.set(lastName); }
-    public String getRole() { return role.get(); }
-    public void setRole(String role) { this.role.set(role); }
-    public boolean getIsActive() { return isActive.get(); }
-    public void setIsActive(boolean isActive) { this.isActive.set(isActive); }
+    public int getUserID() { return userIDProperty == null ? userID : userIDProperty.get(); }
+    public String getUsername() { return usernameProperty == null ? username : usernameProperty.get(); }
+    public void setUsername(String username) {
+        if (usernameProperty == null) { this.username = username; } else { usernameProperty.set(username); }
+    }
+    public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    public String getFirstName() { return firstNameProperty == null ? firstName : firstNameProperty.get(); }
+    public void setFirstName(String firstName) {
+        if (firstNameProperty == null) { this.firstName = firstName; } else { firstNameProperty.set(firstName); }
+    }
+    public String getLastName() { return lastNameProperty == null ? lastName : lastNameProperty.get(); }
+    public void setLastName(String lastName) {
+        if (lastNameProperty == null) { this.lastName = lastName; } else { lastNameProperty.set(lastName); }
+    }
+    public String getRole() { return roleProperty == null ? role : roleProperty.get(); }
+    public void setRole(String role) {
+        if (roleProperty == null) { this.role = role; } else { roleProperty.set(role); }
+    }
+    public boolean getIsActive() { return isActiveProperty == null ? isActive : isActiveProperty.get(); }
+    public void setIsActive(boolean isActive) {
+        if (isActiveProperty == null) { this.isActive = isActive; } else { isActiveProperty.set(isActive); }
+    }
 
     public String getFullName() {
         return getFirstName() + " " + getLastName();
     }
     public void setUserID(int userID) {
-        this.userID.set(userID);
+        if (userIDProperty == null) { this.userID = userID; } else { userIDProperty.set(userID); }
     }
-}
\ No newline at end of file
+}
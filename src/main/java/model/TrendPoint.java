@@ -0,0 +1,15 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of a member's measurement trend: the average of the samples measurements taken
+ * in one time bucket, placed at their average time. With a single sample it is that measurement.
+ */
+public record TrendPoint(
+        LocalDateTime at,
+        double weight,
+        double bmi,
+        double bodyFatPercentage,
+        int samples) {
+}
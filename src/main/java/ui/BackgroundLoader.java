@@ -0,0 +1,107 @@
+package ui;
+
+import db.DataAccessExecutor;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Runs a screen's DAO calls on the shared {@link DataAccessExecutor} and hands the results
+ * back on the JavaFX Application Thread. One instance per controller. Screens are kept by
+ * {@link NavigationService} when the user navigates away, so a result that arrives late still
+ * lands on a live screen and running tasks are left to finish. They are never interrupted:
+ * interrupting a thread blocked in JDBC socket I/O would close its pooled connection.
+ * All methods must be called on the FX thread.
+ */
+public class BackgroundLoader {
+
+    // Keys in TableView.getProperties() used while a spinner replaces the placeholder
+    private static final String SAVED_PLACEHOLDER_KEY = "ui.BackgroundLoader.placeholder";
+    private static final String PENDING_LOADS_KEY = "ui.BackgroundLoader.pending";
+
+    private final Set<Task<?>> running = new HashSet<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess) {
+        return submit(work, onSuccess, null);
+    }
+
+    /**
+     * Runs work in the background, then calls onSuccess (or onFailure) on the FX thread.
+     * Neither callback runs if the task is cancelled.
+     */
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            finished(task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            finished(task);
+            Throwable error = task.getException();
+            System.err.println("Background database task failed: " + error.getMessage());
+            error.printStackTrace();
+            if (onFailure != null) {
+                onFailure.accept(error);
+            }
+        });
+        task.setOnCancelled(e -> finished(task));
+
+        running.add(task);
+        busy.set(true);
+        DataAccessExecutor.execute(task);
+        return task;
+    }
+
+    /**
+     * Same as submit, but shows a spinner in the (empty) table until the task is done.
+     */
+    public <T> Task<T> submitForTable(TableView<?> table, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Map<Object, Object> props = table.getProperties();
+        if (!props.containsKey(SAVED_PLACEHOLDER_KEY)) {
+            props.put(SAVED_PLACEHOLDER_KEY, table.getPlaceholder());
+            ProgressIndicator spinner = new ProgressIndicator();
+            spinner.setMaxSize(48, 48);
+            table.setPlaceholder(spinner);
+        }
+        props.merge(PENDING_LOADS_KEY, 1, (a, b) -> (Integer) a + (Integer) b);
+
+        Task<T> task = submit(work, onSuccess, onFailure);
+        task.stateProperty().addListener((obs, oldState, state) -> {
+            if (state == Worker.State.SUCCEEDED || state == Worker.State.FAILED || state == Worker.State.CANCELLED) {
+                int pending = (Integer) props.merge(PENDING_LOADS_KEY, -1, (a, b) -> (Integer) a + (Integer) b);
+                if (pending <= 0) {
+                    props.remove(PENDING_LOADS_KEY);
+                    table.setPlaceholder((Node) props.remove(SAVED_PLACEHOLDER_KEY));
+                }
+            }
+        });
+        return task;
+    }
+
+    // True while at least one task is running; bind progress indicators or buttons to it.
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    private void finished(Task<?> task) {
+        running.remove(task);
+        busy.set(!running.isEmpty());
+    }
+}
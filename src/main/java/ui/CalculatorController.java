@@ -1,16 +1,11 @@
 package ui;
 
+import calc.HealthFormulas;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
-import java.io.IOException;
 import java.text.DecimalFormat;
 
 public class CalculatorController {
@@ -30,6 +25,7 @@ public class CalculatorController {
     @FXML private TextField bmrAgeField;
     @FXML private ComboBox<String> bmrGenderComboBox;
     @FXML private Label bmrResultLabel;
+    @FXML private Label bodyFatResultLabel;
 
     // TDEE Components
     @FXML private TextField tdeeBmrField;
@@ -70,15 +66,14 @@ public class CalculatorController {
         try {
             double weight = Double.parseDouble(bmiWeightField.getText());
             double heightCm = Double.parseDouble(bmiHeightField.getText());
-            double heightM = heightCm / 100.0;
 
-            if (heightM <= 0 || weight <= 0) {
+            if (heightCm <= 0 || weight <= 0) {
                 showAlert("Input Error", "Weight and height must be positive values.");
                 return;
             }
 
-            double bmi = weight / (heightM * heightM);
-            String category = getBMICategory(bmi);
+            double bmi = HealthFormulas.bmi(weight, heightCm);
+            String category = HealthFormulas.bmiCategory(bmi);
 
             bmiResultLabel.setText("BMI: " + df.format(bmi));
             bmiCategoryLabel.setText("Category: " + category);
@@ -88,13 +83,6 @@ public class CalculatorController {
         }
     }
 
-    private String getBMICategory(double bmi) {
-        if (bmi < 18.5) return "Underweight";
-        if (bmi < 24.9) return "Normal weight (Healthy)";
-        if (bmi < 29.9) return "Overweight";
-        return "Obesity";
-    }
-
     // BMR Calculation
     @FXML
     private void calculateBMR() {
@@ -109,17 +97,14 @@ public class CalculatorController {
                 return;
             }
 
-            double bmr = (10.0 * weight) + (6.25 * height) - (5.0 * age);
-
-            if ("Male".equals(gender)) {
-                bmr += 5;
-            } else {
-                bmr -= 161;
-            }
+            boolean male = "Male".equals(gender);
+            double bmr = HealthFormulas.bmr(weight, height, age, male);
+            double bodyFat = HealthFormulas.bodyFatPercent(HealthFormulas.bmi(weight, height), age, male);
 
             lastCalculatedBMR = bmr;
 
             bmrResultLabel.setText("BMR: " + df.format(bmr) + " Calories/day");
+            bodyFatResultLabel.setText("Estimated Body Fat: " + df.format(bodyFat) + "%");
             tdeeBmrField.setText(df.format(bmr));
 
         } catch (NumberFormatException e) {
@@ -139,10 +124,9 @@ public class CalculatorController {
                 return;
             }
 
-            String factorString = selectedActivity.substring(0, selectedActivity.indexOf(' '));
-            double activityFactor = Double.parseDouble(factorString);
+            double activityFactor = HealthFormulas.activityFactor(selectedActivity);
 
-            double tdee = bmr * activityFactor;
+            double tdee = HealthFormulas.tdee(bmr, activityFactor);
             tdeeResultLabel.setText("TDEE: " + df.format(tdee) + " Calories/day");
 
         } catch (NumberFormatException e) {
@@ -162,20 +146,6 @@ public class CalculatorController {
     // Navigation Handler
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
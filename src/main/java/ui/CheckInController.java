@@ -0,0 +1,187 @@
+package ui;
+
+import db.CheckInLog;
+import db.CheckInService;
+import db.MemberCardDAO;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.paint.Color;
+import model.CheckIn;
+import model.Member;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Door check-in: scan a card or type a member ID or phone number; the answer comes from memory, not a query.
+public class CheckInController implements NavigationAware {
+
+    private static final int RECENT_LIMIT = 50;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final CheckInService checkIn = CheckInService.getInstance();
+    private final CheckInLog checkInLog = CheckInLog.getInstance();
+    private final MemberCardDAO memberCardDAO = new MemberCardDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
+    private final ObservableList<String> recent = FXCollections.observableArrayList();
+    private Member shownMember; // Member on screen, for linking a card
+
+    @FXML private TextField lookupField;
+    @FXML private Label memberNameLabel;
+    @FXML private Label admissionLabel;
+    @FXML private Label detailLabel;
+    @FXML private TextField cardField;
+    @FXML private Button linkCardButton;
+    @FXML private ListView<String> recentListView;
+    @FXML private Label countsLabel;
+    @FXML private Label statusLabel;
+
+    @FXML
+    public void initialize() {
+        recentListView.setItems(recent);
+        linkCardButton.setDisable(true);
+        checkIn.ensureLoaded();
+        checkInLog.seedCounters();
+    }
+
+    // Keep the cursor in the lookup field, where a card scanner types
+    @Override
+    public void onShow() {
+        updateCounts();
+        Platform.runLater(lookupField::requestFocus);
+    }
+
+    @FXML
+    private void handleLookup() {
+        String input = lookupField.getText();
+        if (input == null || input.isBlank()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<CheckInService.Match> matches = checkIn.lookup(input);
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        lookupField.clear();
+
+        if (matches.size() == 1) {
+            show(matches.get(0));
+        } else {
+            shownMember = null;
+            linkCardButton.setDisable(true);
+            admissionLabel.setTextFill(Color.web("#555555"));
+            if (matches.isEmpty()) {
+                memberNameLabel.setText("No member found for \"" + input.trim() + "\"");
+                admissionLabel.setText("❌ Check the card, ID or phone number and try again.");
+                detailLabel.setText("");
+            } else {
+                memberNameLabel.setText(matches.size() + " members use this phone number");
+                admissionLabel.setText("Scan the member's card or enter their member ID.");
+                detailLabel.setText(matches.stream()
+                        .map(match -> match.member().getMemberId() + " " + match.member().getFullName())
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        statusLabel.setText("Looked up in " + micros + " µs" + (checkIn.isLoaded() ? "" : " (membership data still loading)"));
+        lookupField.requestFocus();
+    }
+
+    private void show(CheckInService.Match match) {
+        Member member = match.member();
+        shownMember = member;
+        linkCardButton.setDisable(false);
+        memberNameLabel.setText(member.getFullName() + " (" + member.getMemberId() + ")");
+
+        String icon;
+        switch (match.status()) {
+            case ACTIVE -> {
+                icon = "✅";
+                admissionLabel.setTextFill(Color.web("#2E7D32"));
+                admissionLabel.setText("✅ Welcome! Membership active until " + match.activeUntil() + ".");
+            }
+            case PAYMENT_PENDING -> {
+                icon = "⚠️";
+                admissionLabel.setTextFill(Color.web("#EF6C00"));
+                admissionLabel.setText("⚠️ Payment pending. Please see the front desk.");
+            }
+            case NO_MEMBERSHIP -> {
+                icon = "❌";
+                admissionLabel.setTextFill(Color.web("#D32F2F"));
+                admissionLabel.setText("❌ No active membership.");
+            }
+            default -> {
+                icon = "⏳";
+                admissionLabel.setTextFill(Color.web("#555555"));
+                admissionLabel.setText("⏳ Membership data is still loading. Please check manually.");
+            }
+        }
+        detailLabel.setText("Found by " + switch (match.matchedBy()) {
+            case CARD -> "card";
+            case MEMBER_ID -> "member ID";
+            case PHONE -> "phone number";
+        } + ".");
+
+        // Queued for the database; never waits on it
+        checkInLog.record(CheckIn.now(member.getMemberId(), match.matchedBy().name(), match.status().name()));
+        updateCounts();
+
+        recent.add(0, LocalTime.now().format(TIME_FORMAT) + "  " + icon + "  " + member.getMemberId() + "  " + member.getFullName());
+        if (recent.size() > RECENT_LIMIT) {
+            recent.remove(RECENT_LIMIT, recent.size());
+        }
+    }
+
+    // From the in-memory counters (today so far, including other desks up to when the screen first loaded)
+    private void updateCounts() {
+        countsLabel.setText("Today: " + checkInLog.getDailyCount(LocalDate.now())
+                + " | This hour: " + checkInLog.getHourCount(LocalDateTime.now()));
+    }
+
+    @FXML
+    private void handleLinkCard() {
+        String cardToken = cardField.getText() == null ? "" : cardField.getText().trim();
+        if (shownMember == null || cardToken.isEmpty()) {
+            statusLabel.setText("❌ Error: Look up a member and scan the card to link first.");
+            return;
+        }
+        Member member = shownMember;
+        background.submit(() -> memberCardDAO.linkCard(cardToken, member.getMemberId()), linked -> {
+            if (linked) {
+                cardField.clear();
+                statusLabel.setText("✅ Card linked to " + member.getFullName() + ".");
+            } else {
+                statusLabel.setText("❌ Error: Could not link the card.");
+            }
+        });
+    }
+
+    // Switches off a lost or returned card; it no longer finds anyone at the door
+    @FXML
+    private void handleDeactivateCard() {
+        String cardToken = cardField.getText() == null ? "" : cardField.getText().trim();
+        if (cardToken.isEmpty()) {
+            statusLabel.setText("❌ Error: Scan or type the card to deactivate first.");
+            return;
+        }
+        background.submit(() -> memberCardDAO.deactivateCard(cardToken), deactivated -> {
+            if (deactivated) {
+                cardField.clear();
+                statusLabel.setText("🚫 Card " + cardToken + " deactivated.");
+            } else {
+                statusLabel.setText("❌ Error: Could not deactivate the card (unknown card or database error).");
+            }
+        });
+    }
+
+    // Navigation Handler
+    @FXML
+    private void handleBackToDashboard(ActionEvent event) {
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
+    }
+}
@@ -1,18 +1,14 @@
 package ui;
 
+import db.ChangeFeed;
+import db.SchemaCheck;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.stage.Stage;
+import javafx.scene.layout.VBox;
 import model.User;
 
-import java.io.IOException;
-
 public class DashboardController {
 
     @FXML private Label welcomeLabel;
@@ -22,186 +18,145 @@ public class DashboardController {
     @FXML private Button workoutManagerButton;
     @FXML private Button userManagerButton;
     @FXML private Button calculatorToolsButton;
+    @FXML private VBox moduleButtons;
+    @FXML private Label schemaStatusLabel;
+    @FXML private Button retrySchemaButton;
+
+    private final BackgroundLoader background = new BackgroundLoader();
 
+    // The logged-in user, kept for dashboards loaded later by NavigationService
+    private static User currentUser;
+
+    @FXML
+    public void initialize() {
+        showUser();
+        // The modules query columns and tables the sql/ scripts add, so they stay closed until those have run
+        moduleButtons.setDisable(!SchemaCheck.isCurrent());
+    }
 
      // Initializes the dashboard after authenticating user.
 
     public void initData(User user) {
         if (user != null) {
-            welcomeLabel.setText("User: " + user.getFirstName() + " (" + user.getRole() + ")");
+            currentUser = user;
+            showUser();
             System.out.println("User loaded into Dashboard: " + user.getUsername());
+            checkSchema();
         }
     }
 
+    // Opens the modules once the schema is known to be up to date (usually checked while the user logged in)
+    private void checkSchema() {
+        if (SchemaCheck.isCurrent()) {
+            openModules();
+            return;
+        }
+        schemaStatusLabel.setText("⏳ Checking the database...");
+        retrySchemaButton.setVisible(false);
+        background.submit(SchemaCheck::check, version -> {
+            if (SchemaCheck.isCurrent()) {
+                openModules();
+                return;
+            }
+            if (version.isPresent()) {
+                schemaStatusLabel.setText("❌ The database is at schema version " + version.get() + " but this version of "
+                        + "Apollo Trainer needs " + SchemaCheck.REQUIRED_VERSION + ". Ask your DBA to run the scripts in sql/.");
+            } else {
+                schemaStatusLabel.setText("❌ Could not reach the database. Check the connection and try again.");
+            }
+            retrySchemaButton.setVisible(true);
+        });
+    }
 
-     // Logout button, returning the user to the login screen.
+    private void openModules() {
+        moduleButtons.setDisable(false);
+        schemaStatusLabel.setText("");
+        retrySchemaButton.setVisible(false);
+        WarmUp.start();
+        ChangeFeed.getInstance().start();
+    }
 
     @FXML
-    private void handleLogout(ActionEvent event) {
-        try {
-            // Load the Login FXML
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/login.fxml"));
-            Parent loginRoot = fxmlLoader.load();
+    private void handleRetrySchema() {
+        checkSchema();
+    }
 
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Login");
+    private void showUser() {
+        if (currentUser != null) {
+            welcomeLabel.setText("User: " + currentUser.getFirstName() + " (" + currentUser.getRole() + ")");
+        }
+    }
 
-            Scene scene = new Scene(loginRoot);
-            stage.setScene(scene);
 
-            stage.setMaximized(true);
+     // Logout button, returning the user to the login screen.
 
-            stage.show();
-        } catch (IOException e) {
-            System.err.println("Error loading login screen during logout: " + e.getMessage());
-            e.printStackTrace();
-        }
+    @FXML
+    private void handleLogout(ActionEvent event) {
+        currentUser = null;
+        WarmUp.cancel();
+        ChangeFeed.getInstance().stop();
+        NavigationService navigation = NavigationService.getInstance();
+        navigation.clear();
+        navigation.show(event, NavigationService.View.LOGIN);
+    }
+
+    // Check-in button
+    @FXML
+    private void handleCheckIn(ActionEvent event) {
+        NavigationService.getInstance().show(event, NavigationService.View.CHECK_IN);
     }
 
     // Member management button
     @FXML
     private void handleMemberManagement(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/member.fxml"));
-            Parent memberRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Member Management");
-
-            Scene scene = new Scene(memberRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Member Management screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.MEMBERS);
     }
 
     // Membership & Payments button
     @FXML
     private void handleMembershipManagement(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/membership.fxml"));
-            Parent membershipRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Membership & Payments");
-
-            Scene scene = new Scene(membershipRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Membership Management screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.MEMBERSHIPS);
     }
 
     // Workout management button
     @FXML
     private void handleWorkoutManagement(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/workout.fxml"));
-            Parent workoutRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Workout Management");
-
-            Scene scene = new Scene(workoutRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Workout Management screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.WORKOUTS);
     }
 
     // System user management button
     @FXML
     private void handleUserManagement(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/user-management.fxml"));
-            Parent userRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - User Management");
-
-            Scene scene = new Scene(userRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading User Management screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.USERS);
     }
 
     // Health calculators button
     @FXML
     private void handleCalculatorTools(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/calculator.fxml"));
-            Parent calculatorRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Health Calculators");
-
-            Scene scene = new Scene(calculatorRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Health Calculators screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.CALCULATORS);
     }
 
     // Reports module button
     @FXML
     private void handleReportsModule(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/reports.fxml"));
-            Parent reportsRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Reports Module");
+        NavigationService.getInstance().show(event, NavigationService.View.REPORTS);
+    }
 
-            Scene scene = new Scene(reportsRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
+    // Bulk import button
+    @FXML
+    private void handleBulkImport(ActionEvent event) {
+        NavigationService.getInstance().show(event, NavigationService.View.IMPORT);
+    }
 
-        } catch (IOException e) {
-            System.err.println("Error loading Reports Module screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+    // Diagnostics button
+    @FXML
+    private void handleDiagnostics(ActionEvent event) {
+        NavigationService.getInstance().show(event, NavigationService.View.DIAGNOSTICS);
     }
 
     // Measurement tracking button
     @FXML
     private void handleMeasurementTracking(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/measurements.fxml"));
-            Parent measurementRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Measurement Tracking");
-
-            Scene scene = new Scene(measurementRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Measurement Tracking screen: " + e.getMessage());
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.MEASUREMENTS);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package ui;
+
+import db.CheckInLog;
+import db.ConnectionPool;
+import db.DatabaseConnection;
+import db.QueryMetrics;
+import db.ReportCache;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.util.Duration;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Live query timings, connection pool and report cache figures for tracking down slow screens.
+public class DiagnosticsController implements NavigationAware {
+
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(2);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final QueryMetrics metrics = QueryMetrics.getInstance();
+    private final ObservableList<QueryMetrics.StatementSnapshot> statements = FXCollections.observableArrayList();
+    private final ObservableList<String> slowQueries = FXCollections.observableArrayList();
+    private Timeline refreshTimeline;
+
+    @FXML private TableView<QueryMetrics.StatementSnapshot> statementTable;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, String> sqlColumn;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, Long> executionsColumn;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, Long> errorsColumn;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, String> meanColumn;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, String> p50Column;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, String> p95Column;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, String> p99Column;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, String> maxColumn;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, Long> rowsColumn;
+    @FXML private TableColumn<QueryMetrics.StatementSnapshot, Long> bytesColumn;
+    @FXML private ListView<String> slowQueryListView;
+    @FXML private Label slowQueryTitleLabel;
+    @FXML private Label poolStatsLabel;
+    @FXML private Label cacheStatsLabel;
+    @FXML private Label warmUpLabel;
+    @FXML private Label checkInLabel;
+    @FXML private Label statusLabel;
+
+    @FXML
+    public void initialize() {
+        bind(sqlColumn, QueryMetrics.StatementSnapshot::sql);
+        bind(executionsColumn, QueryMetrics.StatementSnapshot::executions);
+        bind(errorsColumn, QueryMetrics.StatementSnapshot::errors);
+        bind(meanColumn, s -> formatMillis(s.meanMillis()));
+        bind(p50Column, s -> formatMillis(s.p50Millis()));
+        bind(p95Column, s -> formatMillis(s.p95Millis()));
+        bind(p99Column, s -> formatMillis(s.p99Millis()));
+        bind(maxColumn, s -> formatMillis(s.maxMillis()));
+        bind(rowsColumn, QueryMetrics.StatementSnapshot::rows);
+        bind(bytesColumn, QueryMetrics.StatementSnapshot::bytes);
+        statementTable.setItems(statements);
+        slowQueryListView.setItems(slowQueries);
+        slowQueryTitleLabel.setText("Slow Queries (over " + metrics.getSlowQueryMillis() + " ms)");
+
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    // Only refreshes while the screen is visible
+    @Override
+    public void onShow() {
+        refresh();
+        refreshTimeline.play();
+    }
+
+    @Override
+    public void onHide() {
+        refreshTimeline.stop();
+    }
+
+    private static <T> void bind(TableColumn<QueryMetrics.StatementSnapshot, T> column,
+                                 Function<QueryMetrics.StatementSnapshot, T> value) {
+        column.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(value.apply(data.getValue())));
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format("%.2f", millis);
+    }
+
+    // Everything read here is in-memory counters, so it is cheap enough to do on the FX thread
+    private void refresh() {
+        QueryMetrics.StatementSnapshot selected = statementTable.getSelectionModel().getSelectedItem();
+        statements.setAll(metrics.getSnapshot());
+        if (selected != null) {
+            statements.stream()
+                    .filter(s -> s.sql().equals(selected.sql()))
+                    .findFirst()
+                    .ifPresent(s -> statementTable.getSelectionModel().select(s));
+        }
+
+        slowQueries.setAll(metrics.getSlowQueries().stream()
+                .map(q -> q.at().format(TIME_FORMAT) + "  " + q.millis() + " ms  " + q.sql())
+                .toList());
+
+        ConnectionPool.PoolStats pool = DatabaseConnection.getPool().getStats();
+        poolStatsLabel.setText(String.format(
+                "Pool: %d/%d open, %d active, %d waiting | avg wait %d µs, max %d µs | timeouts %d, leaks %d | statement cache hit %.0f%%",
+                pool.totalConnections(), pool.maxSize(), pool.activeConnections(), pool.waitingThreads(),
+                pool.averageWaitMicros(), pool.maxWaitMicros(), pool.timeoutCount(), pool.leakCount(),
+                pool.statementCacheHitRatio() * 100));
+
+        ReportCache.CacheStats cache = ReportCache.getInstance().getStats();
+        cacheStatsLabel.setText(String.format(
+                "Report cache: %d cached | %d hits, %d misses (%.0f%% hit) | %d expired, %d invalidated",
+                cache.cachedReports(), cache.hits(), cache.misses(), cache.hitRatio() * 100,
+                cache.expirations(), cache.invalidations()));
+
+        List<WarmUp.Timing> warmUp = WarmUp.getLastTimings();
+        warmUpLabel.setText(warmUp.isEmpty()
+                ? "Warm-up: not run this session"
+                : "Warm-up: " + warmUp.stream()
+                        .map(t -> t.step() + " " + t.millis() + " ms")
+                        .collect(Collectors.joining(", ")));
+
+        CheckInLog.Stats checkIns = CheckInLog.getInstance().getStats();
+        checkInLabel.setText(String.format(
+                "Check-ins: %d queued, %d written, %d spooled (%d since written), %d lost%s",
+                checkIns.queued(), checkIns.written(), checkIns.spooled(), checkIns.replayed(), checkIns.failed(),
+                checkIns.spoolPending() ? " | spool file waiting for the database" : ""));
+    }
+
+    @FXML
+    private void handleRefresh() {
+        refresh();
+        statusLabel.setText("✅ Refreshed.");
+    }
+
+    @FXML
+    private void handleReset() {
+        metrics.reset();
+        refresh();
+        statusLabel.setText("✅ Query statistics cleared.");
+    }
+
+    @FXML
+    private void handleBackToDashboard(ActionEvent event) {
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
+    }
+}
@@ -0,0 +1,295 @@
+package ui;
+
+import db.BatchResult;
+import db.BodyMeasurementDAO;
+import db.MemberDAO;
+import db.PaymentDAO;
+import export.CsvRowReader;
+import model.BodyMeasurement;
+import model.Member;
+import model.Payment;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// Bulk import of members, payments or body measurements from a CSV file (e.g. a partner gym's roster).
+public class ImportController {
+
+    private static final String MEMBERS = "Members";
+    private static final String PAYMENTS = "Payments";
+    private static final String MEASUREMENTS = "Measurements";
+
+    // Required header columns; any order, any case, extra columns are ignored
+    private static final List<String> MEMBER_COLUMNS =
+            List.of("FirstName", "LastName", "ContactNumber", "Email", "DateOfBirth", "JoiningDate", "Address");
+    private static final List<String> PAYMENT_COLUMNS =
+            List.of("MemberID", "MembershipTypeID", "PaymentDate", "AmountPaid", "PaymentMethod");
+    private static final List<String> MEASUREMENT_COLUMNS =
+            List.of("MemberID", "RecordedAt", "Weight", "Height", "BodyFatPercentage");
+
+    private final MemberDAO memberDAO = new MemberDAO();
+    private final PaymentDAO paymentDAO = new PaymentDAO();
+    private final BodyMeasurementDAO measurementDAO = new BodyMeasurementDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
+    private final ObservableList<String> issues = FXCollections.observableArrayList();
+
+    @FXML private ComboBox<String> importTypeComboBox;
+    @FXML private Label columnsLabel;
+    @FXML private Label fileLabel;
+    @FXML private ListView<String> issuesListView;
+    @FXML private Button importButton;
+    @FXML private Label statusLabel;
+
+    // The parsed file, ready to send to the database
+    private Callable<BatchResult> pendingImport;
+    private List<Integer> pendingLines; // CSV line number of each parsed row
+    private String pendingType;
+
+    // Builds one object from a CSV record; throws IllegalArgumentException for bad values
+    private interface RowParser<T> {
+        T parse(Function<String, String> field);
+    }
+
+    private record ParsedFile<T>(List<T> rows, List<Integer> lines, List<String> problems) {
+    }
+
+    @FXML
+    public void initialize() {
+        importTypeComboBox.setItems(FXCollections.observableArrayList(MEMBERS, PAYMENTS, MEASUREMENTS));
+        importTypeComboBox.setValue(MEMBERS);
+        importTypeComboBox.valueProperty().addListener((obs, oldValue, newValue) -> {
+            showExpectedColumns();
+            clearPending();
+            fileLabel.setText("No file selected.");
+        });
+        issuesListView.setItems(issues);
+        showExpectedColumns();
+        importButton.setDisable(true);
+    }
+
+    private void showExpectedColumns() {
+        List<String> columns = switch (importTypeComboBox.getValue()) {
+            case MEMBERS -> MEMBER_COLUMNS;
+            case PAYMENTS -> PAYMENT_COLUMNS;
+            default -> MEASUREMENT_COLUMNS;
+        };
+        columnsLabel.setText("Expected columns: " + String.join(", ", columns) + "  (dates as yyyy-MM-dd)");
+    }
+
+    // --- Handlers ---
+    @FXML
+    private void handleChooseFile(ActionEvent event) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Choose CSV File");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV file", "*.csv"));
+        File file = chooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        clearPending();
+        String type = importTypeComboBox.getValue();
+        Path path = file.toPath();
+        fileLabel.setText(file.getName());
+        statusLabel.setText("Reading " + file.getName() + "...");
+
+        if (MEMBERS.equals(type)) {
+            background.submit(() -> parse(path, MEMBER_COLUMNS, this::parseMember), parsed ->
+                    showParsed(type, parsed, () -> memberDAO.addMembers(parsed.rows())));
+        } else if (PAYMENTS.equals(type)) {
+            background.submit(() -> parse(path, PAYMENT_COLUMNS, this::parsePayment), parsed ->
+                    showParsed(type, parsed, () -> paymentDAO.addPayments(parsed.rows())));
+        } else {
+            background.submit(() -> parse(path, MEASUREMENT_COLUMNS, this::parseMeasurement), parsed ->
+                    showParsed(type, parsed, () -> measurementDAO.addMeasurements(parsed.rows())));
+        }
+    }
+
+    @FXML
+    private void handleImport() {
+        if (pendingImport == null) {
+            return;
+        }
+        Callable<BatchResult> work = pendingImport;
+        List<Integer> lines = pendingLines;
+        String type = pendingType;
+        importButton.setDisable(true);
+        statusLabel.setText("Importing " + lines.size() + " " + type.toLowerCase() + "...");
+
+        background.submit(work, result -> {
+            if (result.isSuccess()) {
+                clearPending();
+                statusLabel.setText("✅ Imported " + result.inserted() + " " + type.toLowerCase() + ".");
+            } else if (result.error() != null) {
+                importButton.setDisable(false);
+                statusLabel.setText("❌ Error: " + result.error());
+            } else {
+                // Nothing was inserted; point at the offending CSV lines
+                issues.clear();
+                result.rowErrors().forEach((row, message) -> issues.add("Line " + lines.get(row) + ": " + message));
+                importButton.setDisable(false);
+                statusLabel.setText("❌ Nothing imported: " + result.rowErrors().size() + " rows were rejected. Fix them and try again.");
+            }
+        }, error -> {
+            importButton.setDisable(false);
+            statusLabel.setText("❌ Error: " + error.getMessage());
+        });
+    }
+
+    private <T> void showParsed(String type, ParsedFile<T> parsed, Callable<BatchResult> work) {
+        issues.setAll(parsed.problems());
+        if (!parsed.problems().isEmpty()) {
+            statusLabel.setText("❌ " + parsed.problems().size() + " problems found. Fix the file and choose it again.");
+            return;
+        }
+        if (parsed.rows().isEmpty()) {
+            statusLabel.setText("The file has no rows to import.");
+            return;
+        }
+        pendingImport = work;
+        pendingLines = parsed.lines();
+        pendingType = type;
+        importButton.setDisable(false);
+        statusLabel.setText("Ready to import " + parsed.rows().size() + " " + type.toLowerCase() + ".");
+    }
+
+    private void clearPending() {
+        pendingImport = null;
+        pendingLines = null;
+        pendingType = null;
+        importButton.setDisable(true);
+        issues.clear();
+    }
+
+    // --- Parsing (runs in the background) ---
+    private <T> ParsedFile<T> parse(Path file, List<String> columns, RowParser<T> parser) throws IOException {
+        List<T> rows = new ArrayList<>();
+        List<Integer> lines = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+
+        try (CsvRowReader reader = new CsvRowReader(file)) {
+            List<String> header = reader.readRow();
+            if (header == null) {
+                problems.add("The file is empty.");
+                return new ParsedFile<>(rows, lines, problems);
+            }
+
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.put(header.get(i).trim().toLowerCase(), i);
+            }
+            for (String column : columns) {
+                if (!positions.containsKey(column.toLowerCase())) {
+                    problems.add("Missing column: " + column);
+                }
+            }
+            if (!problems.isEmpty()) {
+                return new ParsedFile<>(rows, lines, problems);
+            }
+
+            List<String> fields;
+            while ((fields = reader.readRow()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue; // Blank line
+                }
+                List<String> record = fields;
+                Function<String, String> field = column -> {
+                    int index = positions.get(column.toLowerCase());
+                    return index < record.size() ? record.get(index).trim() : "";
+                };
+                try {
+                    rows.add(parser.parse(field));
+                    lines.add(reader.getLineNumber());
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    problems.add("Line " + reader.getLineNumber() + ": " + e.getMessage());
+                }
+            }
+        }
+        return new ParsedFile<>(rows, lines, problems);
+    }
+
+    private Member parseMember(Function<String, String> field) {
+        String joining = field.apply("JoiningDate");
+        return new Member(
+                required(field, "FirstName"),
+                required(field, "LastName"),
+                required(field, "ContactNumber"),
+                field.apply("Email"),
+                LocalDate.parse(required(field, "DateOfBirth")),
+                joining.isEmpty() ? LocalDate.now() : LocalDate.parse(joining),
+                field.apply("Address")
+        );
+    }
+
+    private Payment parsePayment(Function<String, String> field) {
+        double amount;
+        try {
+            amount = Double.parseDouble(required(field, "AmountPaid"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("AmountPaid is not a number.");
+        }
+        return new Payment(
+                null,
+                required(field, "MemberID"),
+                null,
+                field.apply("MembershipTypeID"),
+                LocalDate.parse(required(field, "PaymentDate")),
+                amount,
+                field.apply("PaymentMethod")
+        );
+    }
+
+    // BMI is computed on insert; RecordedAt may be a date or a date and time, and defaults to now
+    private BodyMeasurement parseMeasurement(Function<String, String> field) {
+        String recordedAt = field.apply("RecordedAt");
+        BodyMeasurement record = new BodyMeasurement(
+                required(field, "MemberID"),
+                number(field, "Weight"),
+                number(field, "Height"),
+                0,
+                number(field, "BodyFatPercentage")
+        );
+        record.setRecordedAt(recordedAt.isEmpty() ? null
+                : recordedAt.contains("T") ? LocalDateTime.parse(recordedAt) : LocalDate.parse(recordedAt).atStartOfDay());
+        return record;
+    }
+
+    private static double number(Function<String, String> field, String column) {
+        try {
+            return Double.parseDouble(required(field, column));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number.");
+        }
+    }
+
+    private static String required(Function<String, String> field, String column) {
+        String value = field.apply(column);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(column + " is required.");
+        }
+        return value;
+    }
+
+    // --- Navigation Handler ---
+    @FXML
+    private void handleBackToDashboard(ActionEvent event) {
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
+    }
+}
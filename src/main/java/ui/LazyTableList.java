@@ -0,0 +1,258 @@
+package ui;
+
+import db.SortKey;
+import javafx.animation.PauseTransition;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Read-only items list for a TableView over a table too big to load whole. The list's size comes
+ * from a COUNT query, but rows are fetched a page at a time, and only when the table asks for them.
+ * get(i) returns the row if its page is cached. Otherwise it returns null (an empty row) and the
+ * page is fetched in the background, then its rows are set in the list. The neighbouring pages are
+ * fetched as well, so scrolling stays ahead of the data. A page next to one already loaded is read by
+ * seeking from that page's edge row; only a jump (dragging the scroll bar) reads by offset. A page whose
+ * read fails is asked for again a few seconds later, as long as its rows are still on screen.
+ * <p>
+ * At most maxPages pages are kept; the least recently used are dropped first. The list installs a
+ * sort policy on the table, so clicking a column header reloads in that order from the database
+ * (see {@link SortKey}) instead of sorting in memory. Columns must use a {@link PropertyValueFactory}
+ * to be sortable this way. Create it with {@link #attach}. FX thread only.
+ */
+public class LazyTableList<T> extends ObservableListBase<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = Integer.getInteger("apollo.ui.windowSize", 100);
+    public static final int DEFAULT_MAX_PAGES = Integer.getInteger("apollo.ui.windowPages", 20);
+
+    private static final Duration RETRY_DELAY = Duration.seconds(5);
+
+    // Reads the table through the DAO, in the given order. Every read is empty if it failed.
+    public interface WindowLoader<T> {
+        Optional<Integer> count();
+
+        // Rows [offset, offset + limit), counted off from the start
+        Optional<List<T>> load(int offset, int limit, List<SortKey> sortOrder);
+
+        // The limit rows right after a loaded row (which sits just before offset); override to seek from it
+        default Optional<List<T>> loadAfter(T row, int offset, int limit, List<SortKey> sortOrder) {
+            return load(offset, limit, sortOrder);
+        }
+
+        // The limit rows right before a loaded row (which sits at offset + limit); override to seek from it
+        default Optional<List<T>> loadBefore(T row, int offset, int limit, List<SortKey> sortOrder) {
+            return load(offset, limit, sortOrder);
+        }
+    }
+
+    // Result of the first fetch after a refresh; rows is null if only the count could be read
+    private record FirstWindow<T>(int count, List<T> rows) {
+    }
+
+    private final TableView<T> table;
+    private final BackgroundLoader background;
+    private final WindowLoader<T> loader;
+    private final int pageSize;
+
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> pending = new HashSet<>();
+    private List<SortKey> sortOrder = List.of();
+    private int size;
+    private long generation; // Bumped by refresh() so pages fetched for an old order or count are ignored
+
+    // Creates the list and makes it the table's items and sort policy.
+    public static <T> LazyTableList<T> attach(TableView<T> table, BackgroundLoader background, WindowLoader<T> loader) {
+        return attach(table, background, loader, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public static <T> LazyTableList<T> attach(TableView<T> table, BackgroundLoader background, WindowLoader<T> loader,
+                                              int pageSize, int maxPages) {
+        LazyTableList<T> list = new LazyTableList<>(table, background, loader, pageSize, maxPages);
+        list.install(); // Only once fully constructed: the table calls size() and get() straight away
+        return list;
+    }
+
+    private LazyTableList(TableView<T> table, BackgroundLoader background, WindowLoader<T> loader,
+                          int pageSize, int maxPages) {
+        this.table = table;
+        this.background = background;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        int capacity = Math.max(maxPages, 3); // The current page and its two neighbours at least
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private void install() {
+        table.setItems(this);
+        table.setSortPolicy(t -> {
+            List<SortKey> order = sortKeys(t);
+            if (!order.equals(sortOrder)) {
+                sortOrder = order;
+                refresh();
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        request(page);
+        request(page + 1);
+        request(page - 1);
+
+        List<T> rows = pages.get(page);
+        int offset = index - page * pageSize;
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Drops all cached pages, counts the rows again and reloads the first page.
+    public void refresh() {
+        refresh(null);
+    }
+
+    // Same as refresh(), calling onLoaded once the new count and first page are in.
+    public void refresh(Runnable onLoaded) {
+        refresh(onLoaded, null);
+    }
+
+    // Same as refresh(Runnable), calling onFailed instead if the rows could not even be counted.
+    public void refresh(Runnable onLoaded, Runnable onFailed) {
+        long requestGeneration = ++generation;
+        pages.clear();
+        pending.clear();
+
+        List<SortKey> order = sortOrder;
+        background.submitForTable(table, () -> {
+            int count = loader.count().orElseThrow(() -> new IllegalStateException("Could not count the rows."));
+            return new FirstWindow<>(count, loader.load(0, pageSize, order).orElse(null));
+        }, first -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            if (first.rows() != null) {
+                pages.put(0, first.rows()); // Otherwise the table asks for the first page again itself
+            }
+            resize(first.count());
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, error -> {
+            if (requestGeneration == generation && onFailed != null) {
+                onFailed.run();
+            }
+        });
+    }
+
+    private void request(int page) {
+        if (page < 0 || page * pageSize >= size || pages.containsKey(page) || !pending.add(page)) {
+            return;
+        }
+
+        long requestGeneration = generation;
+        background.submit(fetch(page), rows -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            pending.remove(page);
+            pages.put(page, rows);
+            rowsChanged(page * pageSize, Math.min(page * pageSize + rows.size(), size));
+        }, error -> {
+            if (requestGeneration == generation) {
+                pending.remove(page);
+                retryLater(page, requestGeneration);
+            }
+        });
+    }
+
+    // Seeks from the edge of a neighbouring page when one is loaded, otherwise reads by offset
+    private Callable<List<T>> fetch(int page) {
+        int offset = page * pageSize;
+        List<SortKey> order = sortOrder;
+        List<T> previous = pages.get(page - 1);
+        List<T> following = pages.get(page + 1);
+
+        return () -> {
+            Optional<List<T>> rows;
+            if (previous != null && previous.size() == pageSize) {
+                rows = loader.loadAfter(previous.getLast(), offset, pageSize, order);
+            } else if (following != null && !following.isEmpty()) {
+                rows = loader.loadBefore(following.getFirst(), offset, pageSize, order);
+            } else {
+                rows = loader.load(offset, pageSize, order);
+            }
+            return rows.orElseThrow(() -> new IllegalStateException("Could not load rows from " + offset + "."));
+        };
+    }
+
+    // Re-announces a failed page's rows after a pause; the table asks for those still on screen again
+    private void retryLater(int page, long requestGeneration) {
+        PauseTransition delay = new PauseTransition(RETRY_DELAY);
+        delay.setOnFinished(e -> {
+            if (requestGeneration == generation && !pages.containsKey(page)) {
+                rowsChanged(page * pageSize, Math.min((page + 1) * pageSize, size));
+            }
+        });
+        delay.play();
+    }
+
+    // Tells the table that rows [from, to) changed, so it reads the ones it shows again
+    private void rowsChanged(int from, int to) {
+        if (from < to) {
+            beginChange();
+            for (int i = from; i < to; i++) {
+                nextSet(i, null); // The row was an empty placeholder until now
+            }
+            endChange();
+        }
+    }
+
+    // Reports the new size as a replacement of every row, so the table re-reads the rows on screen
+    private void resize(int newSize) {
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.<T>nCopies(oldSize, null));
+        }
+        if (newSize > 0) {
+            nextAdd(0, newSize);
+        }
+        endChange();
+    }
+
+    private static <T> List<SortKey> sortKeys(TableView<T> table) {
+        List<SortKey> order = new ArrayList<>();
+        for (TableColumn<T, ?> column : table.getSortOrder()) {
+            Object cellValueFactory = column.getCellValueFactory();
+            if (cellValueFactory instanceof PropertyValueFactory<?, ?> factory) {
+                order.add(new SortKey(factory.getProperty(), column.getSortType() == TableColumn.SortType.ASCENDING));
+            }
+        }
+        return List.copyOf(order);
+    }
+}
@@ -1,39 +1,67 @@
 package ui;
 
+import calc.Lttb;
 import db.BodyMeasurementDAO;
-import db.MemberDAO;
+import db.ChangeFeed;
+import db.ChangeSource;
+import db.MemberCache;
 import model.BodyMeasurement;
 import model.Member;
+import model.TrendPoint;
+import javafx.animation.AnimationTimer;
 import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
-import java.io.IOException;
+import javafx.util.StringConverter;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public class MeasurementController {
+public class MeasurementController implements NavigationAware {
+
+    private static final DateTimeFormatter RECORDED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter CHART_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yy");
+
+    // Progress chart: the database averages a member's history into TREND_POINTS buckets,
+    // then LTTB picks the CHART_POINTS worth drawing, however long the history is
+    private static final int CHART_POINTS = 300;
+    private static final int TREND_POINTS = 4 * CHART_POINTS;
+    private static final int RENDER_CHUNK = 100; // Points added to the chart per frame
+    private static final int MAX_POINTS_WITH_SYMBOLS = 60;
+    private static final String WEIGHT = "Weight (kg)";
+    private static final String BMI = "BMI";
+    private static final String BODY_FAT = "Body Fat (%)";
 
     private final BodyMeasurementDAO measurementDAO = new BodyMeasurementDAO();
-    private final MemberDAO memberDAO = new MemberDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
 
     private final ObservableList<BodyMeasurement> masterMeasurementList = FXCollections.observableArrayList();
-    private final ObservableList<Member> memberLookupList = FXCollections.observableArrayList();
+    private TablePager<BodyMeasurement> measurementPager;
+
+    // Live refresh: IDs this desk wrote (the change feed reports them back), and whether others changed rows meanwhile
+    private final Set<String> ownChanges = new HashSet<>();
+    private boolean showing;
+    private boolean stale;
 
     // --- FXML Components (Table) ---
     @FXML private TableView<BodyMeasurement> measurementTable;
     @FXML private TableColumn<BodyMeasurement, Integer> idColumn;
     @FXML private TableColumn<BodyMeasurement, String> memberIDColumn;
     @FXML private TableColumn<BodyMeasurement, String> memberNameColumn;
-    // @FXML private TableColumn<BodyMeasurement, LocalDate> dateColumn; // Removed Date Column
+    @FXML private TableColumn<BodyMeasurement, LocalDateTime> recordedAtColumn;
     @FXML private TableColumn<BodyMeasurement, Double> weightColumn;
     @FXML private TableColumn<BodyMeasurement, Double> heightColumn; // New Column
     @FXML private TableColumn<BodyMeasurement, Double> bmiColumn;    // New Column
@@ -45,12 +73,24 @@ public class MeasurementController {
     // @FXML private DatePicker datePicker; // Removed Date Picker
     @FXML private TextField weightField;
     @FXML private TextField heightField; // New Field
-    @FXML private TextField bmiField;    // New Field
+    @FXML private TextField bmiField;    // Read-only: computed from weight and height
     @FXML private TextField bodyFatField;
     @FXML private Button updateButton;
     @FXML private Button deleteButton;
     @FXML private Label statusLabel;
 
+    // --- FXML Components (Progress Chart) ---
+    @FXML private ComboBox<String> progressMetricComboBox;
+    @FXML private Label progressLabel;
+    @FXML private LineChart<Number, Number> progressChart;
+    @FXML private NumberAxis progressTimeAxis;
+    @FXML private NumberAxis progressValueAxis;
+
+    private final XYChart.Series<Number, Number> progressSeries = new XYChart.Series<>();
+    private List<TrendPoint> progressPoints = List.of();
+    private String progressMemberID; // Member currently charted
+    private AnimationTimer progressRenderer;
+
 
     @FXML
     public void initialize() {
@@ -58,19 +98,34 @@ public class MeasurementController {
         idColumn.setCellValueFactory(new PropertyValueFactory<>("measurementID"));
         memberIDColumn.setCellValueFactory(new PropertyValueFactory<>("memberID"));
         memberNameColumn.setCellValueFactory(new PropertyValueFactory<>("memberName"));
-        // dateColumn.setCellValueFactory(new PropertyValueFactory<>("recordDate")); // Removed
+        recordedAtColumn.setCellValueFactory(new PropertyValueFactory<>("recordedAt"));
+        recordedAtColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(LocalDateTime item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.format(RECORDED_AT_FORMAT));
+            }
+        });
         weightColumn.setCellValueFactory(new PropertyValueFactory<>("weight"));
         heightColumn.setCellValueFactory(new PropertyValueFactory<>("height"));
         bmiColumn.setCellValueFactory(new PropertyValueFactory<>("bmi"));
         bodyFatColumn.setCellValueFactory(new PropertyValueFactory<>("bodyFatPercentage"));
         measurementTable.setItems(masterMeasurementList);
+        memberComboBox.setItems(MemberCache.getInstance().getMembers()); // Shared cache, no reload per screen
+        measurementPager = TablePager.attach(measurementTable, background, masterMeasurementList, BodyMeasurement::getMeasurementID,
+                (last, pageSize) -> measurementDAO.getMeasurementsPage(last == null ? null : last.getMeasurementID(), pageSize));
+        measurementPager.setOnPageLoaded(() ->
+                statusLabel.setText("Loaded " + masterMeasurementList.size() + " body measurement records."));
 
         // --- Load Data ---
         loadAllData();
+        ChangeFeed.getInstance().addListener(this::onDatabaseChanges);
 
         // --- Event Listeners and Bindings ---
         measurementTable.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldVal, newVal) -> showMeasurementDetails(newVal));
+        weightField.textProperty().addListener((obs, oldVal, newVal) -> showComputedBmi());
+        heightField.textProperty().addListener((obs, oldVal, newVal) -> showComputedBmi());
 
         updateButton.disableProperty().bind(Bindings.isEmpty(measurementTable.getSelectionModel().getSelectedItems()));
         deleteButton.disableProperty().bind(Bindings.isEmpty(measurementTable.getSelectionModel().getSelectedItems()));
@@ -84,19 +139,71 @@ public class MeasurementController {
             }
         });
         memberComboBox.setButtonCell(memberComboBox.getCellFactory().call(null));
+
+        // --- Progress Chart ---
+        progressMetricComboBox.setItems(FXCollections.observableArrayList(WEIGHT, BMI, BODY_FAT));
+        progressMetricComboBox.setValue(WEIGHT);
+        progressMetricComboBox.valueProperty().addListener((obs, oldVal, newVal) -> renderProgress());
+        progressChart.getData().add(progressSeries);
+        progressTimeAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number epochDay) {
+                return LocalDate.ofEpochDay((long) Math.floor(epochDay.doubleValue())).format(CHART_DATE_FORMAT);
+            }
+
+            @Override
+            public Number fromString(String text) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        // Keeps showing the last member when the form is cleared, e.g. right after adding a measurement
+        memberComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null && !newVal.getMemberId().equals(progressMemberID)) {
+                loadProgress(newVal.getMemberId());
+            }
+        });
     }
 
-    private void loadAllData() {
-        // Load measurements
-        masterMeasurementList.clear();
-        masterMeasurementList.addAll(measurementDAO.getAllMeasurements());
+    @Override
+    public void onShow() {
+        showing = true;
+        if (stale) {
+            stale = false;
+            reloadAfterOtherDesks();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+    }
 
-        // Load members for ComboBox lookup
-        memberLookupList.clear();
-        memberLookupList.addAll(memberDAO.getAllMembers());
-        memberComboBox.setItems(memberLookupList);
+    private void onDatabaseChanges(ChangeSource.Changes changes) {
+        if (!changes.resync()) {
+            Set<String> changed = changes.keys("BodyMeasurement");
+            changed.removeIf(ownChanges::remove);
+            if (changed.isEmpty()) {
+                return;
+            }
+        }
+        if (showing) {
+            reloadAfterOtherDesks();
+        } else {
+            stale = true;
+        }
+    }
 
-        statusLabel.setText("Loaded " + masterMeasurementList.size() + " body measurement records.");
+    // The feed doesn't say whose measurements changed, so the chart is reloaded as well (its cache is already cleared)
+    private void reloadAfterOtherDesks() {
+        loadAllData();
+        if (progressMemberID != null) {
+            loadProgress(progressMemberID);
+        }
+    }
+
+    private void loadAllData() {
+        // Load the newest measurements (older pages load on scroll)
+        measurementPager.reset();
     }
 
     private void showMeasurementDetails(BodyMeasurement record) {
@@ -104,13 +211,10 @@ public class MeasurementController {
             measurementIDField.setText(String.valueOf(record.getMeasurementID()));
             weightField.setText(String.valueOf(record.getWeight()));
             heightField.setText(String.valueOf(record.getHeight()));
-            bmiField.setText(String.valueOf(record.getBmi()));
             bodyFatField.setText(String.valueOf(record.getBodyFatPercentage()));
 
             // Select the member in the ComboBox
-            Optional<Member> selectedMember = memberLookupList.stream()
-                    .filter(m -> m.getMemberId().equals(record.getMemberID()))
-                    .findFirst();
+            Optional<Member> selectedMember = MemberCache.getInstance().findById(record.getMemberID());
             selectedMember.ifPresent(memberComboBox.getSelectionModel()::select);
 
         } else {
@@ -118,6 +222,103 @@ public class MeasurementController {
         }
     }
 
+    // Previews the BMI that will be stored, using the same rule as the DAO
+    private void showComputedBmi() {
+        if (isNumeric(weightField.getText()) && isNumeric(heightField.getText())) {
+            bmiField.setText(String.valueOf(BodyMeasurementDAO.storedBmi(
+                    Double.parseDouble(weightField.getText()), Double.parseDouble(heightField.getText()))));
+        } else {
+            bmiField.clear();
+        }
+    }
+
+    // --- Progress Chart ---
+    private void loadProgress(String memberID) {
+        progressMemberID = memberID;
+        progressLabel.setText("Loading progress...");
+        background.submit(() -> measurementDAO.getMemberTrend(memberID, TREND_POINTS), points -> {
+            if (memberID.equals(progressMemberID)) { // Ignore if another member was picked meanwhile
+                progressPoints = points;
+                renderProgress();
+            }
+        });
+    }
+
+    // Reloads the chart if it shows this member, after their measurements changed
+    private void refreshProgress(String memberID) {
+        if (memberID.equals(progressMemberID)) {
+            loadProgress(progressMemberID);
+        }
+    }
+
+    private void renderProgress() {
+        if (progressRenderer != null) {
+            progressRenderer.stop();
+        }
+        progressSeries.getData().clear();
+        if (progressPoints.isEmpty()) {
+            progressLabel.setText(progressMemberID == null
+                    ? "Select a member to see their progress."
+                    : "No measurements recorded for " + progressMemberID + " yet.");
+            return;
+        }
+
+        String metric = progressMetricComboBox.getValue();
+        int count = progressPoints.size();
+        double[] x = new double[count];
+        double[] y = new double[count];
+        int samples = 0;
+        for (int i = 0; i < count; i++) {
+            TrendPoint point = progressPoints.get(i);
+            x[i] = point.at().toEpochSecond(ZoneOffset.UTC) / 86_400.0;
+            y[i] = switch (metric) {
+                case BMI -> point.bmi();
+                case BODY_FAT -> point.bodyFatPercentage();
+                default -> point.weight();
+            };
+            samples += point.samples();
+        }
+
+        int[] kept = Lttb.downsample(x, y, count, CHART_POINTS);
+        List<XYChart.Data<Number, Number>> data = new ArrayList<>(kept.length);
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i : kept) {
+            data.add(new XYChart.Data<>(x[i], y[i]));
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        // Fixed axes, so the chart doesn't rescale as each chunk arrives
+        setAxisRange(progressTimeAxis, x[0], x[count - 1]);
+        setAxisRange(progressValueAxis, minY, maxY);
+        progressChart.setCreateSymbols(kept.length <= MAX_POINTS_WITH_SYMBOLS);
+        progressLabel.setText(samples + " measurements for " + progressMemberID + ", " + kept.length + " points shown.");
+
+        progressRenderer = new AnimationTimer() {
+            private int next;
+
+            @Override
+            public void handle(long now) {
+                int end = Math.min(next + RENDER_CHUNK, data.size());
+                progressSeries.getData().addAll(data.subList(next, end));
+                next = end;
+                if (next == data.size()) {
+                    stop();
+                }
+            }
+        };
+        progressRenderer.start();
+    }
+
+    private static void setAxisRange(NumberAxis axis, double min, double max) {
+        double padding = max > min ? (max - min) * 0.05 : 1;
+        axis.setAutoRanging(false);
+        axis.setLowerBound(min - padding);
+        axis.setUpperBound(max + padding);
+        axis.setTickUnit((max - min + 2 * padding) / 8);
+    }
+
     // --- CRUD Handlers ---
     @FXML
     private void handleClearForm() {
@@ -140,17 +341,23 @@ public class MeasurementController {
                     selectedMember.getMemberId(),
                     Double.parseDouble(weightField.getText()),
                     Double.parseDouble(heightField.getText()),
-                    Double.parseDouble(bmiField.getText()),
+                    0, // Computed by the DAO
                     Double.parseDouble(bodyFatField.getText())
             );
 
-            if (measurementDAO.addMeasurement(newRecord)) {
-                loadAllData(); // Reload to get member names and ID
-                statusLabel.setText("✅ Measurement added for " + selectedMember.getFullName() + ".");
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not add measurement.");
-            }
+            background.submit(() -> measurementDAO.addMeasurement(newRecord), saved -> {
+                if (saved.isPresent()) {
+                    // The DAO fills in the new ID and member name, so just put the row on top
+                    masterMeasurementList.add(0, saved.get());
+                    ownChanges.add(String.valueOf(saved.get().getMeasurementID()));
+                    measurementPager.track(saved.get());
+                    refreshProgress(saved.get().getMemberID());
+                    statusLabel.setText("✅ Measurement added for " + selectedMember.getFullName() + ".");
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not add measurement.");
+                }
+            });
         }
     }
 
@@ -162,17 +369,20 @@ public class MeasurementController {
             // Update model properties
             selectedRecord.setWeight(Double.parseDouble(weightField.getText()));
             selectedRecord.setHeight(Double.parseDouble(heightField.getText()));
-            selectedRecord.setBmi(Double.parseDouble(bmiField.getText()));
+            selectedRecord.setBmi(BodyMeasurementDAO.storedBmi(selectedRecord.getWeight(), selectedRecord.getHeight()));
             selectedRecord.setBodyFatPercentage(Double.parseDouble(bodyFatField.getText()));
 
-            if (measurementDAO.updateMeasurement(selectedRecord)) {
-                measurementTable.refresh();
-                statusLabel.setText("🔄 Record ID " + selectedRecord.getMeasurementID() + " updated.");
-                handleClearForm();
-                loadAllData();
-            } else {
-                statusLabel.setText("❌ Error: Could not update record.");
-            }
+            background.submit(() -> measurementDAO.updateMeasurement(selectedRecord), updated -> {
+                if (updated) {
+                    ownChanges.add(String.valueOf(selectedRecord.getMeasurementID()));
+                    measurementTable.refresh();
+                    refreshProgress(selectedRecord.getMemberID());
+                    statusLabel.setText("🔄 Record ID " + selectedRecord.getMeasurementID() + " updated.");
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not update record.");
+                }
+            });
         }
     }
 
@@ -187,13 +397,17 @@ public class MeasurementController {
             alert.showAndWait();
 
             if (alert.getResult() == ButtonType.YES) {
-                if (measurementDAO.deleteMeasurement(recordId)) {
-                    masterMeasurementList.remove(selectedRecord);
-                    statusLabel.setText("🗑️ Record ID " + recordId + " deleted.");
-                    handleClearForm();
-                } else {
-                    statusLabel.setText("❌ Error: Could not delete record.");
-                }
+                background.submit(() -> measurementDAO.deleteMeasurement(recordId), deleted -> {
+                    if (deleted) {
+                        ownChanges.add(String.valueOf(recordId));
+                        masterMeasurementList.remove(selectedRecord);
+                        refreshProgress(selectedRecord.getMemberID());
+                        statusLabel.setText("🗑️ Record ID " + recordId + " deleted.");
+                        handleClearForm();
+                    } else {
+                        statusLabel.setText("❌ Error: Could not delete record.");
+                    }
+                });
             }
         }
     }
@@ -209,7 +423,9 @@ public class MeasurementController {
         // Simple numeric validation for all measurement fields
         if (!isNumeric(weightField.getText())) { errorMessage += "Weight must be a valid number.\n"; }
         if (!isNumeric(heightField.getText())) { errorMessage += "Height must be a valid number.\n"; }
-        if (!isNumeric(bmiField.getText())) { errorMessage += "BMI must be a valid number.\n"; }
+        if (isNumeric(heightField.getText()) && Double.parseDouble(heightField.getText()) <= 0) {
+            errorMessage += "Height must be greater than zero.\n";
+        }
         if (!isNumeric(bodyFatField.getText())) { errorMessage += "Body Fat must be a valid number.\n"; }
 
         if (errorMessage.isEmpty()) { return true; }
@@ -230,23 +446,6 @@ public class MeasurementController {
     // --- Navigation Handler ---
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        // ... (Navigation code remains the same)
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load dashboard view.");
-            alert.showAndWait();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
\ No newline at end of file
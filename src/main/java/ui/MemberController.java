@@ -1,11 +1,16 @@
 package ui;
 
+import db.ChangeFeed;
+import db.ChangeSource;
+import db.MemberCache;
 import db.MemberDAO;
 import model.Member;
+import javafx.animation.PauseTransition;
 import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.collections.WeakListChangeListener;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -14,14 +19,18 @@ import javafx.event.ActionEvent; // <-- FIX 1: ADDED MISSING IMPORT
 import javafx.scene.Node;          // <-- FIX 3: ADDED MISSING IMPORT
 import javafx.stage.Stage;         // <-- FIX 3: ADDED MISSING IMPORT
 import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.util.Duration;
 
-import java.io.IOException;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 public class MemberController {
 
+    // Wait for a pause in typing before searching, and cap how many matches are shown
+    private static final Duration SEARCH_DELAY = Duration.millis(150);
+    private static final int MAX_SEARCH_RESULTS = 500;
+
     // --- FXML UI Components ---
     @FXML private TableView<Member> memberTable;
     @FXML private TableColumn<Member, String> idColumn;
@@ -49,7 +58,16 @@ public class MemberController {
 
     // --- Data and Logic ---
     private final MemberDAO memberDAO = new MemberDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
     private final ObservableList<Member> masterMemberList = FXCollections.observableArrayList();
+    private TablePager<Member> memberPager;
+
+    // Search runs against the shared member cache's index rather than the paged rows
+    private final ObservableList<Member> searchResults = FXCollections.observableArrayList();
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    private SortedList<Member> pagedData;
+    private SortedList<Member> searchData;
+    private ListChangeListener<Member> memberCacheListener; // Strong reference for the weak listener below
 
     // Initialization method (Called automatically by FXMLLoader)
     @FXML
@@ -62,8 +80,15 @@ public class MemberController {
         joiningDateColumn.setCellValueFactory(new PropertyValueFactory<>("joiningDate"));
         emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
 
+        // Members are loaded a page at a time as the table is scrolled
+        memberPager = TablePager.attach(memberTable, background, masterMemberList, Member::getMemberId,
+                (last, pageSize) -> memberDAO.getMembersPage(last == null ? null : last.getMemberId(), pageSize));
+        memberPager.setOnPageLoaded(() ->
+                statusLabel.setText("Loaded " + masterMemberList.size() + " members from database."));
+
         // Load initial data
         loadMembers();
+        ChangeFeed.getInstance().addListener(this::onDatabaseChanges);
 
         // 1. Handle row selection: Populate fields with selected member details
         memberTable.getSelectionModel().selectedItemProperty().addListener(
@@ -82,40 +107,95 @@ public class MemberController {
 
     // --- Search Implementation ---
     private void setupSearchFilter() {
-        FilteredList<Member> filteredData = new FilteredList<>(masterMemberList, p -> true);
+        pagedData = new SortedList<>(masterMemberList);
+        pagedData.comparatorProperty().bind(memberTable.comparatorProperty());
+        searchData = new SortedList<>(searchResults);
+        searchData.comparatorProperty().bind(memberTable.comparatorProperty());
+        memberTable.setItems(pagedData);
+
+        // Debounced: the index is queried once typing pauses, not on every keystroke
+        searchDelay.setOnFinished(event -> runSearch());
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> searchDelay.playFromStart());
+
+        // Re-run an active search when members change or the cache finishes loading
+        memberCacheListener = change -> {
+            if (isSearching()) {
+                searchDelay.playFromStart();
+            }
+        };
+        MemberCache.getInstance().getMembers().addListener(new WeakListChangeListener<>(memberCacheListener));
+    }
+
+    // --- Live refresh ---
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredData.setPredicate(member -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true; // Display all if filter is empty
+    // Patches the loaded rows with what other desks changed; MemberCache has already read the new values
+    private void onDatabaseChanges(ChangeSource.Changes changes) {
+        MemberCache cache = MemberCache.getInstance();
+        if (changes.resync()) {
+            loadMembers();
+            return;
+        }
+        if (!cache.isLoaded()) {
+            return;
+        }
+        for (String memberId : changes.keys("Member")) {
+            int index = indexOfMember(memberId);
+            Optional<Member> current = cache.findById(memberId);
+            if (current.isEmpty()) {
+                if (index >= 0) {
+                    masterMemberList.remove(index);
                 }
-                String lowerCaseFilter = newValue.toLowerCase();
-
-                // Search logic (checks ID, First Name, Last Name, Email)
-                if (member.getMemberId().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                } else if (member.getFirstName().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                } else if (member.getLastName().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                } else if (member.getEmail().toLowerCase().contains(lowerCaseFilter)) { // Improved search
-                    return true;
+            } else if (index >= 0) {
+                if (masterMemberList.get(index) != current.get()) {
+                    masterMemberList.set(index, current.get());
                 }
-                return false;
-            });
-        });
+            } else if (!memberPager.hasMore()) {
+                // New IDs sort last (ID order is length first), so it belongs at the end once every page is in
+                masterMemberList.add(current.get());
+                memberPager.track(current.get());
+            }
+        }
+    }
+
+    private int indexOfMember(String memberId) {
+        for (int i = 0; i < masterMemberList.size(); i++) {
+            if (masterMemberList.get(i).getMemberId().equals(memberId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isSearching() {
+        String query = searchField.getText();
+        return query != null && !query.isBlank();
+    }
+
+    private void runSearch() {
+        if (!isSearching()) {
+            searchResults.clear();
+            memberTable.setItems(pagedData); // Display all (paged) if filter is empty
+            return;
+        }
+
+        MemberCache cache = MemberCache.getInstance();
+        List<Member> matches = cache.search(searchField.getText(), MAX_SEARCH_RESULTS);
+        searchResults.setAll(matches);
+        memberTable.setItems(searchData);
 
-        SortedList<Member> sortedData = new SortedList<>(filteredData);
-        sortedData.comparatorProperty().bind(memberTable.comparatorProperty());
-        memberTable.setItems(sortedData);
+        if (!cache.isLoaded()) {
+            statusLabel.setText("Loading members for search...");
+        } else if (matches.size() >= MAX_SEARCH_RESULTS) {
+            statusLabel.setText("Showing the first " + MAX_SEARCH_RESULTS + " matches. Keep typing to narrow the search.");
+        } else {
+            statusLabel.setText("Found " + matches.size() + " matching members.");
+        }
     }
 
     // --- Data Loading ---
     @FXML
     public void loadMembers() {
-        masterMemberList.clear();
-        masterMemberList.addAll(memberDAO.getAllMembers());
-        statusLabel.setText("Loaded " + masterMemberList.size() + " members from database.");
+        memberPager.reset(); // First page only; later pages load on scroll
     }
 
     // --- Detail Panel Population ---
@@ -149,13 +229,18 @@ public class MemberController {
                     addressField.getText()
             );
 
-            if (memberDAO.addMember(newMember)) {
-                masterMemberList.add(newMember);
-                statusLabel.setText("✅ Member added successfully! ID: " + newMember.getMemberId());
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not add member.");
-            }
+            background.submit(() -> memberDAO.addMember(newMember), added -> {
+                if (added) {
+                    if (indexOfMember(newMember.getMemberId()) < 0) { // The change feed may have shown it already
+                        masterMemberList.add(newMember);
+                        memberPager.track(newMember);
+                    }
+                    statusLabel.setText("✅ Member added successfully! ID: " + newMember.getMemberId());
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not add member.");
+                }
+            });
         }
     }
 
@@ -164,23 +249,31 @@ public class MemberController {
         Member selectedMember = memberTable.getSelectionModel().getSelectedItem();
         if (selectedMember != null && isInputValid()) {
 
-            // Update the selected Member object
-            selectedMember.setFirstName(firstNameField.getText());
-            selectedMember.setLastName(lastNameField.getText());
-            selectedMember.setContactNumber(contactField.getText());
-            selectedMember.setEmail(emailField.getText());
-            selectedMember.setDateOfBirth(dobPicker.getValue());
-            selectedMember.setJoiningDate(joiningPicker.getValue());
-            selectedMember.setAddress(addressField.getText());
-
-            if (memberDAO.updateMember(selectedMember)) {
-                // Refresh the table view to show updated data
-                memberTable.refresh();
-                statusLabel.setText("🔄 Member ID " + selectedMember.getMemberId() + " updated successfully.");
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not update member.");
-            }
+            // Edit a copy, so the row keeps its stored values if the write fails
+            Member editedMember = new Member(
+                    selectedMember.getMemberId(),
+                    firstNameField.getText(),
+                    lastNameField.getText(),
+                    contactField.getText(),
+                    emailField.getText(),
+                    dobPicker.getValue(),
+                    joiningPicker.getValue(),
+                    addressField.getText()
+            );
+
+            background.submit(() -> memberDAO.updateMember(editedMember), updated -> {
+                if (updated) {
+                    // Replace the row (matched on the ID, it may be a search result) to show the updated data
+                    int index = indexOfMember(editedMember.getMemberId());
+                    if (index >= 0) {
+                        masterMemberList.set(index, editedMember);
+                    }
+                    statusLabel.setText("🔄 Member ID " + editedMember.getMemberId() + " updated successfully.");
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not update member.");
+                }
+            });
         }
     }
 
@@ -189,13 +282,17 @@ public class MemberController {
         Member selectedMember = memberTable.getSelectionModel().getSelectedItem();
         if (selectedMember != null) {
 
-            if (memberDAO.deleteMember(selectedMember.getMemberId())) {
-                masterMemberList.remove(selectedMember);
-                statusLabel.setText("🗑️ Member ID " + selectedMember.getMemberId() + " deleted.");
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not delete member.");
-            }
+            String memberId = selectedMember.getMemberId();
+            background.submit(() -> memberDAO.deleteMember(memberId), deleted -> {
+                if (deleted) {
+                    // The row may be a search result rather than a paged row, so match on the ID
+                    masterMemberList.removeIf(member -> memberId.equals(member.getMemberId()));
+                    statusLabel.setText("🗑️ Member ID " + memberId + " deleted.");
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not delete member.");
+                }
+            });
         }
     }
 
@@ -247,24 +344,6 @@ public class MemberController {
     // --- Navigation Handler ---
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        try {
-            // Load the Dashboard FXML
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load dashboard view.");
-            alert.showAndWait();
-            e.printStackTrace();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
\ No newline at end of file
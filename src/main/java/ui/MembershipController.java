@@ -1,7 +1,10 @@
 package ui;
 
-import db.MemberDAO;
+import db.ChangeFeed;
+import db.ChangeSource;
+import db.MemberCache;
 import db.MembershipDAO;
+import db.SortKey;
 import model.Member;
 import model.Membership;
 import javafx.beans.binding.Bindings;
@@ -9,26 +12,27 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
-import java.io.IOException;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
-public class MembershipController {
+public class MembershipController implements NavigationAware {
 
     // DAOs
     private final MembershipDAO membershipDAO = new MembershipDAO();
-    private final MemberDAO memberDAO = new MemberDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
 
-    // Data Lists
-    private final ObservableList<Membership> masterMembershipList = FXCollections.observableArrayList();
-    private final ObservableList<Member> memberLookupList = FXCollections.observableArrayList();
+    // Data Lists (the table only ever holds the rows around what is on screen)
+    private LazyTableList<Membership> membershipList;
+
+    // Live refresh: IDs this desk wrote (the change feed reports them back), and whether others changed rows meanwhile
+    private final Set<String> ownChanges = new HashSet<>();
+    private boolean showing;
+    private boolean stale;
     private final ObservableList<String> planTypes = FXCollections.observableArrayList("Monthly", "Quarterly", "Annual", "Premium");
     private final ObservableList<String> paymentStatuses = FXCollections.observableArrayList("Paid", "Pending", "Cancelled");
 
@@ -64,13 +68,35 @@ public class MembershipController {
         paymentAmountColumn.setCellValueFactory(new PropertyValueFactory<>("paymentAmount"));
         paymentDateColumn.setCellValueFactory(new PropertyValueFactory<>("paymentDate"));
         paymentStatusColumn.setCellValueFactory(new PropertyValueFactory<>("paymentStatus"));
-        membershipTable.setItems(masterMembershipList);
+        membershipList = LazyTableList.attach(membershipTable, background, new LazyTableList.WindowLoader<>() {
+            @Override
+            public Optional<Integer> count() {
+                return membershipDAO.countMemberships();
+            }
+
+            @Override
+            public Optional<List<Membership>> load(int offset, int limit, List<SortKey> sortOrder) {
+                return membershipDAO.getMembershipsWindow(offset, limit, sortOrder);
+            }
 
-        // Setup ComboBoxes
+            @Override
+            public Optional<List<Membership>> loadAfter(Membership row, int offset, int limit, List<SortKey> sortOrder) {
+                return membershipDAO.getMembershipsAfter(row, limit, sortOrder);
+            }
+
+            @Override
+            public Optional<List<Membership>> loadBefore(Membership row, int offset, int limit, List<SortKey> sortOrder) {
+                return membershipDAO.getMembershipsBefore(row, limit, sortOrder);
+            }
+        });
+
+        // Setup ComboBoxes (members come from the shared cache, so no reload per screen)
         planTypeComboBox.setItems(planTypes);
         statusComboBox.setItems(paymentStatuses);
+        memberComboBox.setItems(MemberCache.getInstance().getMembers());
 
         loadAllData();
+        ChangeFeed.getInstance().addListener(this::onDatabaseChanges);
 
         // Bindings & Defaults
         deleteRecordButton.disableProperty().bind(Bindings.isEmpty(membershipTable.getSelectionModel().getSelectedItems()));
@@ -89,15 +115,38 @@ public class MembershipController {
     }
 
     private void loadAllData() {
-        // Load existing membership records
-        masterMembershipList.clear();
-        masterMembershipList.addAll(membershipDAO.getAllMemberships());
-
-        // Load member data for ComboBox lookup
-        memberLookupList.clear();
-        memberLookupList.addAll(memberDAO.getAllMembers());
-        memberComboBox.setItems(memberLookupList);
-        statusLabel.setText("Loaded " + masterMembershipList.size() + " membership records.");
+        // Count the records and load the newest ones (the rest load as they scroll into view)
+        membershipList.refresh(() -> statusLabel.setText("Loaded " + membershipList.size() + " membership records."),
+                () -> statusLabel.setText("❌ Error: Could not load membership records."));
+    }
+
+    @Override
+    public void onShow() {
+        showing = true;
+        if (stale) {
+            stale = false;
+            membershipList.refresh();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        showing = false;
+    }
+
+    private void onDatabaseChanges(ChangeSource.Changes changes) {
+        if (!changes.resync()) {
+            Set<String> changed = changes.keys("Membership");
+            changed.removeIf(ownChanges::remove);
+            if (changed.isEmpty()) {
+                return;
+            }
+        }
+        if (showing) {
+            membershipList.refresh(() -> statusLabel.setText("🔄 Membership records updated from another desk."));
+        } else {
+            stale = true;
+        }
     }
 
     // CRUD Handlers
@@ -129,13 +178,17 @@ public class MembershipController {
                     statusComboBox.getValue()
             );
 
-            if (membershipDAO.addMembership(newMembership)) {
-                loadAllData(); // Reload to get the new ID
-                statusLabel.setText("✅ Membership recorded successfully!");
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not record membership.");
-            }
+            background.submit(() -> membershipDAO.addMembership(newMembership), saved -> {
+                if (saved.isPresent()) {
+                    // Only the count and the pages on screen are read again
+                    ownChanges.add(String.valueOf(saved.get().getMembershipID()));
+                    membershipList.refresh();
+                    statusLabel.setText("✅ Membership recorded successfully! Record ID: " + saved.get().getMembershipID());
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not record membership.");
+                }
+            });
         }
     }
 
@@ -145,12 +198,15 @@ public class MembershipController {
         if (selectedRecord != null) {
             int recordId = selectedRecord.getMembershipID();
 
-            if (membershipDAO.deleteMembership(recordId)) {
-                masterMembershipList.remove(selectedRecord);
-                statusLabel.setText("🗑️ Membership Record ID " + recordId + " deleted.");
-            } else {
-                statusLabel.setText("❌ Error: Could not delete record.");
-            }
+            background.submit(() -> membershipDAO.deleteMembership(recordId), deleted -> {
+                if (deleted) {
+                    ownChanges.add(String.valueOf(recordId));
+                    membershipList.refresh();
+                    statusLabel.setText("🗑️ Membership Record ID " + recordId + " deleted.");
+                } else {
+                    statusLabel.setText("❌ Error: Could not delete record.");
+                }
+            });
         }
     }
 
@@ -191,22 +247,6 @@ public class MembershipController {
     // Navigation Handler
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load dashboard view.");
-            alert.showAndWait();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ui;
+
+/**
+ * Implemented by controllers that want to know when {@link NavigationService} shows or hides their
+ * screen. Screens are kept after they are first loaded, so initialize() only runs once; onShow() is
+ * the place to refresh anything that may have changed while the user was elsewhere.
+ */
+public interface NavigationAware {
+
+    // Called every time the screen becomes visible, including the first time (after initialize()).
+    default void onShow() {
+    }
+
+    // Called when the user moves to another screen or logs out.
+    default void onHide() {
+    }
+}
@@ -0,0 +1,144 @@
+package ui;
+
+import javafx.event.ActionEvent;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Switches between the application's screens. Each screen's FXML is loaded once and kept with its
+ * controller, and switching only swaps the root of the window's existing Scene, so returning to a
+ * screen is instant and it still shows the rows it had loaded. Controllers implementing
+ * {@link NavigationAware} are told when their screen is shown and hidden.
+ * Used from the FX thread only.
+ */
+public class NavigationService {
+
+    private static final NavigationService INSTANCE = new NavigationService();
+
+    public enum View {
+        LOGIN("/fxml/login.fxml", "Login", false), // Never kept: each login starts clean
+        DASHBOARD("/fxml/dashboard.fxml", "Dashboard", true),
+        MEMBERS("/fxml/member.fxml", "Member Management", true),
+        MEMBERSHIPS("/fxml/membership.fxml", "Membership & Payments", true),
+        WORKOUTS("/fxml/workout.fxml", "Workout Management", true),
+        USERS("/fxml/user-management.fxml", "User Management", true),
+        CALCULATORS("/fxml/calculator.fxml", "Health Calculators", true),
+        REPORTS("/fxml/reports.fxml", "Reports Module", true),
+        IMPORT("/fxml/import.fxml", "Bulk Import", true),
+        DIAGNOSTICS("/fxml/diagnostics.fxml", "Diagnostics", true),
+        MEASUREMENTS("/fxml/measurements.fxml", "Measurement Tracking", true),
+        CHECK_IN("/fxml/checkin.fxml", "Member Check-In", true);
+
+        private final String fxml;
+        private final String title;
+        private final boolean cached;
+
+        View(String fxml, String title, boolean cached) {
+            this.fxml = fxml;
+            this.title = title;
+            this.cached = cached;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    private record LoadedView(Parent root, Object controller) {
+    }
+
+    private final Map<View, LoadedView> views = new EnumMap<>(View.class);
+    private LoadedView current;
+
+    private NavigationService() {
+    }
+
+    public static NavigationService getInstance() {
+        return INSTANCE;
+    }
+
+    // Shows view in the window the event came from.
+    public void show(ActionEvent event, View view) {
+        show((Stage) ((Node) event.getSource()).getScene().getWindow(), view);
+    }
+
+    /**
+     * Shows view in stage, loading it first if it isn't kept yet, and returns its controller
+     * (null if the FXML could not be loaded).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T show(Stage stage, View view) {
+        LoadedView next = load(view);
+        if (next == null) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load " + view.title + " view.");
+            alert.showAndWait();
+            return null;
+        }
+
+        if (current != null && current != next && current.controller() instanceof NavigationAware aware) {
+            aware.onHide();
+        }
+        current = next;
+
+        Scene scene = stage.getScene();
+        if (scene == null) {
+            stage.setScene(new Scene(next.root()));
+        } else {
+            scene.setRoot(next.root());
+        }
+        stage.setTitle("Apollo Trainer - " + view.title);
+        stage.setMaximized(true);
+        stage.show();
+
+        if (next.controller() instanceof NavigationAware aware) {
+            aware.onShow();
+        }
+        return (T) next.controller();
+    }
+
+    /**
+     * Loads and keeps view without showing it (used by {@link WarmUp}), so the first visit is as
+     * fast as any later one. Returns false if the FXML could not be loaded.
+     */
+    public boolean preload(View view) {
+        return !view.cached || load(view) != null;
+    }
+
+    // Returns the kept copy of view, loading (and keeping) it first if needed; null on error
+    private LoadedView load(View view) {
+        LoadedView loaded = views.get(view);
+        if (loaded != null) {
+            return loaded;
+        }
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource(view.fxml));
+            Parent root = fxmlLoader.load();
+            loaded = new LoadedView(root, fxmlLoader.getController());
+        } catch (IOException e) {
+            System.err.println("Error loading " + view.title + " screen: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+        if (view.cached) {
+            views.put(view, loaded);
+        }
+        return loaded;
+    }
+
+    // Drops every kept screen (on logout), so the next user gets freshly loaded ones.
+    public void clear() {
+        if (current != null && current.controller() instanceof NavigationAware aware) {
+            aware.onHide();
+        }
+        current = null;
+        views.clear();
+    }
+}
@@ -1,27 +1,58 @@
 package ui;
 
+import db.ReportCache;
 import db.ReportDAO;
+import export.ExportFormat;
+import export.RowWriter;
 import model.MemberReportEntry;
 import model.FinancialReportEntry;
+import model.ReportGroupEntry;
+import model.ReportSummary;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
-import java.io.IOException;
+import javafx.stage.FileChooser;
+import java.io.File;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
+import java.util.List;
 
-public class ReportsController {
+public class ReportsController implements NavigationAware {
 
     private final ReportDAO reportDAO = new ReportDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
     private final DecimalFormat currencyFormat = new DecimalFormat("'Rs.' #,##0.00");
+    private ReportSummary summary;
+    private long loadedGeneration; // ReportCache generation the shown figures were loaded at
+
+    // Summary Components
+    @FXML private Label summaryRevenueLabel;
+    @FXML private Label activeMembershipsLabel;
+    @FXML private Label expiredMembershipsLabel;
+    @FXML private ComboBox<String> periodComboBox;
+    @FXML private TableView<ReportGroupEntry> periodTable;
+    @FXML private TableColumn<ReportGroupEntry, String> periodColumn;
+    @FXML private TableColumn<ReportGroupEntry, Integer> periodCountColumn;
+    @FXML private TableColumn<ReportGroupEntry, Double> periodAmountColumn;
+    @FXML private TableView<ReportGroupEntry> planTypeTable;
+    @FXML private TableColumn<ReportGroupEntry, String> planTypeColumn;
+    @FXML private TableColumn<ReportGroupEntry, Integer> planTypeCountColumn;
+    @FXML private TableColumn<ReportGroupEntry, Double> planTypeAmountColumn;
+    @FXML private TableView<ReportGroupEntry> paymentStatusTable;
+    @FXML private TableColumn<ReportGroupEntry, String> paymentStatusColumn;
+    @FXML private TableColumn<ReportGroupEntry, Integer> paymentStatusCountColumn;
+    @FXML private TableColumn<ReportGroupEntry, Double> paymentStatusAmountColumn;
+
+    // The detail tabs list every row, so they are only loaded when first opened
+    @FXML private Tab memberReportTab;
+    @FXML private Tab financialReportTab;
+    private boolean memberReportLoaded;
+    private boolean financialReportLoaded;
 
     // Member Report Components
     @FXML private TableView<MemberReportEntry> memberReportTable;
@@ -41,10 +72,24 @@ public class ReportsController {
     @FXML private TableColumn<FinancialReportEntry, Double> frPaymentAmountColumn;
     @FXML private TableColumn<FinancialReportEntry, String> frPaymentStatusColumn;
     @FXML private Label totalRevenueLabel;
+    @FXML private Label exportStatusLabel;
+
+    // Streams a report into an already opened writer and returns the row count
+    private interface ReportExport {
+        long writeTo(RowWriter writer) throws Exception;
+    }
 
 
     @FXML
     public void initialize() {
+        // Setup Summary Tables
+        setupGroupTable(periodColumn, periodCountColumn, periodAmountColumn);
+        setupGroupTable(planTypeColumn, planTypeCountColumn, planTypeAmountColumn);
+        setupGroupTable(paymentStatusColumn, paymentStatusCountColumn, paymentStatusAmountColumn);
+        periodComboBox.setItems(FXCollections.observableArrayList("Day", "Week", "Month"));
+        periodComboBox.setValue("Month");
+        periodComboBox.valueProperty().addListener((obs, oldValue, newValue) -> showPeriodGroups());
+
         // Setup Member Report Table
         mrMemberIDColumn.setCellValueFactory(new PropertyValueFactory<>("memberID"));
         mrFullNameColumn.setCellValueFactory(new PropertyValueFactory<>("fullName"));
@@ -62,7 +107,44 @@ public class ReportsController {
         frPaymentStatusColumn.setCellValueFactory(new PropertyValueFactory<>("paymentStatus"));
 
         // Format the currency column
-        frPaymentAmountColumn.setCellFactory(tc -> new TableCell<FinancialReportEntry, Double>() {
+        frPaymentAmountColumn.setCellFactory(tc -> currencyCell());
+
+        // Detail reports load the first time their tab is opened
+        memberReportTab.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
+            if (isSelected) {
+                loadMemberReport();
+            }
+        });
+        financialReportTab.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
+            if (isSelected) {
+                loadFinancialReport();
+            }
+        });
+
+        // Load Data
+        loadReportsData();
+    }
+
+    // Reload only if payments or memberships changed while the screen was hidden
+    @Override
+    public void onShow() {
+        if (ReportCache.getInstance().getGeneration() != loadedGeneration) {
+            memberReportLoaded = false;
+            financialReportLoaded = false;
+            loadReportsData();
+        }
+    }
+
+    private <S> void setupGroupTable(TableColumn<S, String> groupColumn, TableColumn<S, Integer> countColumn,
+                                     TableColumn<S, Double> amountColumn) {
+        groupColumn.setCellValueFactory(new PropertyValueFactory<>("group"));
+        countColumn.setCellValueFactory(new PropertyValueFactory<>("count"));
+        amountColumn.setCellValueFactory(new PropertyValueFactory<>("totalAmount"));
+        amountColumn.setCellFactory(tc -> currencyCell());
+    }
+
+    private <S> TableCell<S, Double> currencyCell() {
+        return new TableCell<S, Double>() {
             @Override
             protected void updateItem(Double amount, boolean empty) {
                 super.updateItem(amount, empty);
@@ -72,45 +154,111 @@ public class ReportsController {
                     setText(currencyFormat.format(amount));
                 }
             }
-        });
-
-        // Load Data
-        loadReportsData();
+        };
     }
 
     private void loadReportsData() {
-        // Load Member Report
-        ObservableList<MemberReportEntry> memberData = FXCollections.observableArrayList(reportDAO.getMemberReport());
-        memberReportTable.setItems(memberData);
+        loadedGeneration = ReportCache.getInstance().getGeneration();
+        // One round trip for every figure on the Summary tab
+        summaryRevenueLabel.setText("Calculating...");
+        totalRevenueLabel.setText("Calculating...");
+        background.submitForTable(periodTable, reportDAO::getReportSummary, result -> {
+            if (result == null) {
+                summaryRevenueLabel.setText("❌ Error loading summary");
+                totalRevenueLabel.setText("❌ Error loading summary");
+                return;
+            }
+            summary = result;
+            summaryRevenueLabel.setText(currencyFormat.format(result.totalRevenue()));
+            totalRevenueLabel.setText(currencyFormat.format(result.totalRevenue()));
+            activeMembershipsLabel.setText(String.valueOf(result.activeMemberships()));
+            expiredMembershipsLabel.setText(String.valueOf(result.expiredMemberships()));
+            planTypeTable.setItems(FXCollections.observableArrayList(result.byMembershipType()));
+            paymentStatusTable.setItems(FXCollections.observableArrayList(result.byPaymentStatus()));
+            showPeriodGroups();
+        }, null);
 
-        // Load Financial Report
-        ObservableList<FinancialReportEntry> financialData = FXCollections.observableArrayList(reportDAO.getFinancialReport());
-        financialReportTable.setItems(financialData);
+        if (memberReportTab.isSelected()) {
+            loadMemberReport();
+        }
+        if (financialReportTab.isSelected()) {
+            loadFinancialReport();
+        }
+    }
+
+    private void showPeriodGroups() {
+        if (summary == null) {
+            return;
+        }
+        List<ReportGroupEntry> groups = switch (periodComboBox.getValue()) {
+            case "Day" -> summary.revenueByDay();
+            case "Week" -> summary.revenueByWeek();
+            default -> summary.revenueByMonth();
+        };
+        periodTable.setItems(FXCollections.observableArrayList(groups));
+    }
+
+    private void loadMemberReport() {
+        if (memberReportLoaded) {
+            return;
+        }
+        memberReportLoaded = true;
+        background.submitForTable(memberReportTable, reportDAO::getMemberReport, rows -> {
+            ObservableList<MemberReportEntry> memberData = FXCollections.observableArrayList(rows);
+            memberReportTable.setItems(memberData);
+        }, error -> memberReportLoaded = false);
+    }
+
+    private void loadFinancialReport() {
+        if (financialReportLoaded) {
+            return;
+        }
+        financialReportLoaded = true;
+        background.submitForTable(financialReportTable, reportDAO::getFinancialReport, rows -> {
+            ObservableList<FinancialReportEntry> financialData = FXCollections.observableArrayList(rows);
+            financialReportTable.setItems(financialData);
+        }, error -> financialReportLoaded = false);
+    }
 
-        // Calculate and display Total Revenue
-        double totalRevenue = reportDAO.getTotalRevenue();
-        totalRevenueLabel.setText(currencyFormat.format(totalRevenue));
+    // --- Export Handlers ---
+    @FXML
+    private void handleExportMemberReport(ActionEvent event) {
+        exportReport(event, "member-report", "Members", reportDAO::exportMemberReport);
+    }
+
+    @FXML
+    private void handleExportFinancialReport(ActionEvent event) {
+        exportReport(event, "financial-report", "Payments", reportDAO::exportFinancialReport);
+    }
+
+    // Exports straight from the database rather than from the table, so the file has every row
+    private void exportReport(ActionEvent event, String baseName, String sheetName, ReportExport export) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Report");
+        chooser.setInitialFileName(baseName + "-" + LocalDate.now() + ".csv");
+        for (ExportFormat format : ExportFormat.values()) {
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format.getDescription(), format.getPattern()));
+        }
+
+        File file = chooser.showSaveDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        Path path = file.toPath();
+        ExportFormat format = ExportFormat.forFile(path);
+
+        exportStatusLabel.setText("Exporting to " + file.getName() + "...");
+        background.submit(() -> {
+            try (RowWriter writer = format.open(path, sheetName)) {
+                return export.writeTo(writer);
+            }
+        }, rows -> exportStatusLabel.setText("✅ Exported " + rows + " rows to " + file.getName() + "."),
+           error -> exportStatusLabel.setText("❌ Error: Export failed (" + error.getMessage() + ")."));
     }
 
     // Navigation Handler
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load dashboard view.");
-            alert.showAndWait();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package ui;
+
+import db.Page;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fills a TableView one keyset page at a time: the first page is loaded straight away and
+ * the next one whenever the user scrolls near the bottom of the table.
+ * Pages are fetched in the background through the screen's {@link BackgroundLoader}.
+ * Create it with {@link #attach}.
+ */
+public class TablePager<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = Integer.getInteger("apollo.ui.pageSize", 200);
+
+    // Start fetching the next page when the scroll bar is this far down
+    private static final double PREFETCH_THRESHOLD = 0.9;
+
+    // Loads the page that follows lastItem (null for the first page)
+    public interface PageLoader<T> {
+        Page<T> loadAfter(T lastItem, int pageSize);
+    }
+
+    private final TableView<T> table;
+    private final BackgroundLoader background;
+    private final ObservableList<T> items;
+    private final Function<T, Object> keyExtractor;
+    private final PageLoader<T> loader;
+    private final int pageSize;
+
+    // Keys already in the list, so rows added locally (e.g. a new insert) are not loaded twice
+    private final Set<Object> loadedKeys = new HashSet<>();
+    private T lastItem;
+    private boolean hasMore = true;
+    private boolean loading;
+    private long generation; // Bumped by reset() so late results from an old load are ignored
+    private Runnable onPageLoaded;
+
+    // Creates the pager and starts watching the table's scroll bar.
+    public static <T> TablePager<T> attach(TableView<T> table, BackgroundLoader background, ObservableList<T> items,
+                                           Function<T, Object> keyExtractor, PageLoader<T> loader) {
+        return attach(table, background, items, keyExtractor, loader, DEFAULT_PAGE_SIZE);
+    }
+
+    public static <T> TablePager<T> attach(TableView<T> table, BackgroundLoader background, ObservableList<T> items,
+                                           Function<T, Object> keyExtractor, PageLoader<T> loader, int pageSize) {
+        TablePager<T> pager = new TablePager<>(table, background, items, keyExtractor, loader, pageSize);
+        pager.install(); // The listener refers to the pager, so only once it is fully constructed
+        return pager;
+    }
+
+    private TablePager(TableView<T> table, BackgroundLoader background, ObservableList<T> items,
+                       Function<T, Object> keyExtractor, PageLoader<T> loader, int pageSize) {
+        this.table = table;
+        this.background = background;
+        this.items = items;
+        this.keyExtractor = keyExtractor;
+        this.loader = loader;
+        this.pageSize = pageSize;
+    }
+
+    private void install() {
+        // The scroll bars only exist once the table has a skin
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                Platform.runLater(this::attachToScrollBar);
+            }
+        });
+    }
+
+    // Drops everything loaded so far and loads the first page again.
+    public void reset() {
+        generation++;
+        items.clear();
+        loadedKeys.clear();
+        lastItem = null;
+        hasMore = true;
+        loading = false;
+        loadNextPage();
+    }
+
+    public void loadNextPage() {
+        if (!hasMore || loading) {
+            return;
+        }
+        loading = true;
+
+        long requestGeneration = generation;
+        T after = lastItem;
+        Callable<Page<T>> work = () -> loader.loadAfter(after, pageSize);
+        Consumer<Page<T>> onLoaded = page -> {
+            if (requestGeneration == generation) {
+                loading = false;
+                append(page);
+            }
+        };
+        Consumer<Throwable> onFailed = error -> {
+            if (requestGeneration == generation) {
+                loading = false;
+            }
+        };
+
+        if (items.isEmpty()) {
+            background.submitForTable(table, work, onLoaded, onFailed);
+        } else {
+            background.submit(work, onLoaded, onFailed);
+        }
+    }
+
+    private void append(Page<T> page) {
+        List<T> fresh = new ArrayList<>(page.items().size());
+        for (T item : page.items()) {
+            if (loadedKeys.add(keyExtractor.apply(item))) {
+                fresh.add(item);
+            }
+        }
+        items.addAll(fresh);
+
+        if (!page.isEmpty()) {
+            lastItem = page.last();
+        }
+        hasMore = page.hasMore();
+
+        if (onPageLoaded != null) {
+            onPageLoaded.run();
+        }
+    }
+
+    // Records a row that was added to the list outside of paging.
+    public void track(T item) {
+        loadedKeys.add(keyExtractor.apply(item));
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public void setOnPageLoaded(Runnable onPageLoaded) {
+        this.onPageLoaded = onPageLoaded;
+    }
+
+    private void attachToScrollBar() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= bar.getMax() * PREFETCH_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+                return;
+            }
+        }
+    }
+}
@@ -7,18 +7,13 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
-import java.io.IOException;
 
 public class UserController {
 
     private final SystemUserDAO userDAO = new SystemUserDAO();
+    private final BackgroundLoader background = new BackgroundLoader();
     private final ObservableList<SystemUser> masterUserList = FXCollections.observableArrayList();
     private final ObservableList<String> roles = FXCollections.observableArrayList("Admin", "Instructor", "Staff");
 
@@ -69,9 +64,10 @@ public class UserController {
     }
 
     private void loadAllUsers() {
-        masterUserList.clear();
-        masterUserList.addAll(userDAO.getAllUsers());
-        statusLabel.setText("Loaded " + masterUserList.size() + " system user accounts.");
+        background.submitForTable(userTable, userDAO::getAllUsers, users -> {
+            masterUserList.setAll(users);
+            statusLabel.setText("Loaded " + masterUserList.size() + " system user accounts.");
+        }, error -> statusLabel.setText("❌ Error: Could not load system users."));
     }
 
     private void showUserDetails(SystemUser user) {
@@ -120,13 +116,16 @@ public class UserController {
             );
             newUser.setIsActive(isActiveCheckBox.isSelected());
 
-            if (userDAO.addUser(newUser, passwordField.getText())) {
-                masterUserList.add(newUser);
-                statusLabel.setText("✅ User '" + newUser.getUsername() + "' added successfully!");
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not add user (Username may already exist).");
-            }
+            String rawPassword = passwordField.getText();
+            background.submit(() -> userDAO.addUser(newUser, rawPassword), added -> {
+                if (added) {
+                    masterUserList.add(newUser);
+                    statusLabel.setText("✅ User '" + newUser.getUsername() + "' added successfully!");
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not add user (Username may already exist).");
+                }
+            });
         }
     }
 
@@ -144,13 +143,15 @@ public class UserController {
             selectedUser.setRole(roleComboBox.getValue());
             selectedUser.setIsActive(isActiveCheckBox.isSelected());
 
-            if (userDAO.updateUser(selectedUser, newPassword)) {
-                userTable.refresh();
-                statusLabel.setText("🔄 User ID " + selectedUser.getUserID() + " updated successfully!");
-                handleClearForm();
-            } else {
-                statusLabel.setText("❌ Error: Could not update user.");
-            }
+            background.submit(() -> userDAO.updateUser(selectedUser, newPassword), updated -> {
+                if (updated) {
+                    userTable.refresh();
+                    statusLabel.setText("🔄 User ID " + selectedUser.getUserID() + " updated successfully!");
+                    handleClearForm();
+                } else {
+                    statusLabel.setText("❌ Error: Could not update user.");
+                }
+            });
         }
     }
 
@@ -164,13 +165,15 @@ public class UserController {
             alert.showAndWait();
 
             if (alert.getResult() == ButtonType.YES) {
-                if (userDAO.deleteUser(userId)) {
-                    masterUserList.remove(selectedUser);
-                    statusLabel.setText("🗑️ User ID " + userId + " deleted.");
-                    handleClearForm();
-                } else {
-                    statusLabel.setText("❌ Error: Could not delete user.");
-                }
+                background.submit(() -> userDAO.deleteUser(userId), deleted -> {
+                    if (deleted) {
+                        masterUserList.remove(selectedUser);
+                        statusLabel.setText("🗑️ User ID " + userId + " deleted.");
+                        handleClearForm();
+                    } else {
+                        statusLabel.setText("❌ Error: Could not delete user.");
+                    }
+                });
             }
         }
     }
@@ -201,22 +204,6 @@ public class UserController {
     // Navigation Handler
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load dashboard view.");
-            alert.showAndWait();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package ui;
+
+import db.DataAccessExecutor;
+import db.DatabaseConnection;
+import db.MemberCache;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post-login warm-up, so the first click on each module is as fast as the tenth. It opens the
+ * pool's idle connections in the background, starts the member cache load, and then preloads every
+ * dashboard screen through {@link NavigationService}. Preloading runs each screen's initialize(),
+ * so FXML parsing, class loading and the screen's first queries (which also fill the connections'
+ * prepared-statement caches) are done before the user gets there. Screens load on the FX thread
+ * one per event, so the dashboard stays responsive meanwhile.
+ * <p>
+ * On by default; start with -Dapollo.warmup=false to skip it. FX thread only.
+ */
+public final class WarmUp {
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("apollo.warmup"));
+
+    // Most used first, so they are ready soonest
+    private static final List<NavigationService.View> VIEWS = List.of(
+            NavigationService.View.DASHBOARD,
+            NavigationService.View.CHECK_IN,
+            NavigationService.View.MEMBERS,
+            NavigationService.View.MEMBERSHIPS,
+            NavigationService.View.MEASUREMENTS,
+            NavigationService.View.WORKOUTS,
+            NavigationService.View.REPORTS,
+            NavigationService.View.CALCULATORS,
+            NavigationService.View.USERS,
+            NavigationService.View.IMPORT,
+            NavigationService.View.DIAGNOSTICS);
+
+    public record Timing(String step, long millis) {
+    }
+
+    private static List<Timing> lastTimings = List.of();
+    private static int session; // Bumped by cancel(), so a warm-up cut short by logout stops preloading
+
+    private WarmUp() {
+    }
+
+    // Starts the warm-up for a freshly logged-in user (does nothing if disabled).
+    public static void start() {
+        if (!ENABLED) {
+            return;
+        }
+        int warmUpSession = ++session;
+        long started = System.nanoTime();
+        List<Timing> timings = new ArrayList<>();
+
+        DataAccessExecutor.execute(() -> {
+            long poolStart = System.nanoTime();
+            DatabaseConnection.getPool().prefill();
+            Timing poolTiming = new Timing("Connection pool", elapsedMillis(poolStart));
+
+            Platform.runLater(() -> {
+                if (warmUpSession != session) {
+                    return;
+                }
+                timings.add(poolTiming);
+                MemberCache.getInstance().ensureLoaded();
+                preload(0, warmUpSession, started, timings);
+            });
+        });
+    }
+
+    // Stops a warm-up still in progress (on logout).
+    public static void cancel() {
+        session++;
+    }
+
+    // Step timings of the last completed warm-up, for the Diagnostics screen.
+    public static List<Timing> getLastTimings() {
+        return lastTimings;
+    }
+
+    private static void preload(int index, int warmUpSession, long started, List<Timing> timings) {
+        if (warmUpSession != session) {
+            return;
+        }
+        if (index == VIEWS.size()) {
+            timings.add(new Timing("Total", elapsedMillis(started)));
+            lastTimings = List.copyOf(timings);
+            return;
+        }
+
+        NavigationService.View view = VIEWS.get(index);
+        long viewStart = System.nanoTime();
+        if (NavigationService.getInstance().preload(view)) {
+            timings.add(new Timing(view.getTitle(), elapsedMillis(viewStart)));
+        }
+        // Queue the next screen behind whatever else is waiting, rather than loading them all in one go
+        Platform.runLater(() -> preload(index + 1, warmUpSession, started, timings));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
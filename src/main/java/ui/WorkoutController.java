@@ -1,6 +1,6 @@
 package ui;
 
-import db.MemberDAO;
+import db.MemberCache;
 import db.MemberWorkoutDAO;
 import db.WorkoutPlanDAO;
 import model.Member;
@@ -11,14 +11,8 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
-import java.io.IOException;
 import java.time.LocalDate;
 
 public class WorkoutController {
@@ -26,12 +20,11 @@ public class WorkoutController {
     // DAOs
     private final WorkoutPlanDAO planDAO = new WorkoutPlanDAO();
     private final MemberWorkoutDAO assignmentDAO = new MemberWorkoutDAO();
-    private final MemberDAO memberDAO = new MemberDAO(); // Reusing the existing MemberDAO
+    private final BackgroundLoader background = new BackgroundLoader();
 
     // Data Lists
     private final ObservableList<WorkoutPlan> masterPlanList = FXCollections.observableArrayList();
     private final ObservableList<MemberWorkout> masterAssignmentList = FXCollections.observableArrayList();
-    private final ObservableList<Member> memberLookupList = FXCollections.observableArrayList();
 
     // FXML Components (Plan Library Tab)
     @FXML private TableView<WorkoutPlan> planTable;
@@ -123,20 +116,20 @@ public class WorkoutController {
 
     private void loadAllData() {
         // Load plan data
-        masterPlanList.clear();
-        masterPlanList.addAll(planDAO.getAllPlans());
-        planComboBox.setItems(masterPlanList);
+        background.submitForTable(planTable, planDAO::getAllPlans, plans -> {
+            masterPlanList.setAll(plans);
+            planComboBox.setItems(masterPlanList);
+            planStatusLabel.setText("Loaded " + masterPlanList.size() + " workout plans.");
+        }, error -> planStatusLabel.setText("❌ Error: Could not load workout plans."));
 
-        // Load member data for ComboBox lookup
-        memberLookupList.clear();
-        memberLookupList.addAll(memberDAO.getAllMembers());
-        memberComboBox.setItems(memberLookupList);
+        // Member ComboBox is bound to the shared cache (loaded once per session)
+        memberComboBox.setItems(MemberCache.getInstance().getMembers());
 
         // Load assignment records
-        masterAssignmentList.clear();
-        masterAssignmentList.addAll(assignmentDAO.getAllAssignments());
-        planStatusLabel.setText("Loaded " + masterPlanList.size() + " workout plans.");
-        assignmentStatusLabel.setText("Loaded " + masterAssignmentList.size() + " member assignments.");
+        background.submitForTable(assignmentTable, assignmentDAO::getAllAssignments, assignments -> {
+            masterAssignmentList.setAll(assignments);
+            assignmentStatusLabel.setText("Loaded " + masterAssignmentList.size() + " member assignments.");
+        }, error -> assignmentStatusLabel.setText("❌ Error: Could not load member assignments."));
     }
 
     // Workout Plan CRUD Handlers
@@ -166,14 +159,16 @@ public class WorkoutController {
                     planNameField.getText(),
                     planDescriptionArea.getText()
             );
-            if (planDAO.addPlan(newPlan)) {
-                masterPlanList.add(newPlan);
-                planStatusLabel.setText("✅ Plan added: " + newPlan.getPlanName());
-                handleClearPlanForm();
-                planComboBox.setItems(masterPlanList); // Refresh Plan ComboBox
-            } else {
-                planStatusLabel.setText("❌ Error: Could not add plan.");
-            }
+            background.submit(() -> planDAO.addPlan(newPlan), added -> {
+                if (added) {
+                    masterPlanList.add(newPlan);
+                    planStatusLabel.setText("✅ Plan added: " + newPlan.getPlanName());
+                    handleClearPlanForm();
+                    planComboBox.setItems(masterPlanList); // Refresh Plan ComboBox
+                } else {
+                    planStatusLabel.setText("❌ Error: Could not add plan.");
+                }
+            });
         }
     }
 
@@ -184,13 +179,15 @@ public class WorkoutController {
             selectedPlan.setPlanName(planNameField.getText());
             selectedPlan.setDescription(planDescriptionArea.getText());
 
-            if (planDAO.updatePlan(selectedPlan)) {
-                planTable.refresh();
-                planStatusLabel.setText("🔄 Plan updated: " + selectedPlan.getPlanName());
-                handleClearPlanForm();
-            } else {
-                planStatusLabel.setText("❌ Error: Could not update plan.");
-            }
+            background.submit(() -> planDAO.updatePlan(selectedPlan), updated -> {
+                if (updated) {
+                    planTable.refresh();
+                    planStatusLabel.setText("🔄 Plan updated: " + selectedPlan.getPlanName());
+                    handleClearPlanForm();
+                } else {
+                    planStatusLabel.setText("❌ Error: Could not update plan.");
+                }
+            });
         }
     }
 
@@ -198,14 +195,17 @@ public class WorkoutController {
     private void handleDeletePlan() {
         WorkoutPlan selectedPlan = planTable.getSelectionModel().getSelectedItem();
         if (selectedPlan != null) {
-            if (planDAO.deletePlan(selectedPlan.getPlanID())) {
-                masterPlanList.remove(selectedPlan);
-                planStatusLabel.setText("🗑️ Plan deleted: " + selectedPlan.getPlanName());
-                handleClearPlanForm();
-                planComboBox.setItems(masterPlanList); // Refresh Plan ComboBox
-            } else {
-                planStatusLabel.setText("❌ Error: Could not delete plan. Check for existing member assignments linked to this plan.");
-            }
+            int planId = selectedPlan.getPlanID();
+            background.submit(() -> planDAO.deletePlan(planId), deleted -> {
+                if (deleted) {
+                    masterPlanList.remove(selectedPlan);
+                    planStatusLabel.setText("🗑️ Plan deleted: " + selectedPlan.getPlanName());
+                    handleClearPlanForm();
+                    planComboBox.setItems(masterPlanList); // Refresh Plan ComboBox
+                } else {
+                    planStatusLabel.setText("❌ Error: Could not delete plan. Check for existing member assignments linked to this plan.");
+                }
+            });
         }
     }
 
@@ -231,13 +231,15 @@ public class WorkoutController {
                     assignedDatePicker.getValue()
             );
 
-            if (assignmentDAO.assignPlan(newAssignment)) {
-                loadAllData(); // Reload to get the new ID and names
-                assignmentStatusLabel.setText("✅ Plan '" + plan.getPlanName() + "' assigned to " + member.getFullName() + ".");
-                handleClearAssignmentForm();
-            } else {
-                assignmentStatusLabel.setText("❌ Error: Could not assign plan. (Possible duplicate assignment on the same date)");
-            }
+            background.submit(() -> assignmentDAO.assignPlan(newAssignment), saved -> {
+                if (saved.isPresent()) {
+                    masterAssignmentList.add(0, saved.get()); // Newest first, like the initial load
+                    assignmentStatusLabel.setText("✅ Plan '" + plan.getPlanName() + "' assigned to " + member.getFullName() + ".");
+                    handleClearAssignmentForm();
+                } else {
+                    assignmentStatusLabel.setText("❌ Error: Could not assign plan. (Possible duplicate assignment on the same date)");
+                }
+            });
         }
     }
 
@@ -247,12 +249,14 @@ public class WorkoutController {
         if (selectedAssignment != null) {
             int assignmentId = selectedAssignment.getAssignmentID();
 
-            if (assignmentDAO.deleteAssignment(assignmentId)) {
-                masterAssignmentList.remove(selectedAssignment);
-                assignmentStatusLabel.setText("🗑️ Assignment ID " + assignmentId + " deleted.");
-            } else {
-                assignmentStatusLabel.setText("❌ Error: Could not delete assignment.");
-            }
+            background.submit(() -> assignmentDAO.deleteAssignment(assignmentId), deleted -> {
+                if (deleted) {
+                    masterAssignmentList.remove(selectedAssignment);
+                    assignmentStatusLabel.setText("🗑️ Assignment ID " + assignmentId + " deleted.");
+                } else {
+                    assignmentStatusLabel.setText("❌ Error: Could not delete assignment.");
+                }
+            });
         }
     }
 
@@ -287,22 +291,6 @@ public class WorkoutController {
     // Navigation Handler
     @FXML
     private void handleBackToDashboard(ActionEvent event) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/dashboard.fxml"));
-            Parent dashboardRoot = fxmlLoader.load();
-
-            Stage stage = (Stage)((Node)event.getSource()).getScene().getWindow();
-            stage.setTitle("Apollo Trainer - Dashboard");
-
-            Scene scene = new Scene(dashboardRoot);
-            stage.setScene(scene);
-            stage.setMaximized(true);
-            stage.show();
-
-        } catch (IOException e) {
-            System.err.println("Error loading Dashboard screen: " + e.getMessage());
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not load dashboard view.");
-            alert.showAndWait();
-        }
+        NavigationService.getInstance().show(event, NavigationService.View.DASHBOARD);
     }
 }
\ No newline at end of file
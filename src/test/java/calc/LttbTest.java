@@ -0,0 +1,78 @@
+package calc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LttbTest {
+
+    private static double[] range(int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    @Test
+    void shortSeriesIsKeptWhole() {
+        double[] x = range(5);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, Lttb.downsample(x, x, 5, 5));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, Lttb.downsample(x, x, 5, 10));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, Lttb.downsample(x, x, 5, 2)); // Threshold below 3
+        assertArrayEquals(new int[0], Lttb.downsample(x, x, 0, 10));
+    }
+
+    @Test
+    void keepsThresholdAscendingPointsIncludingFirstAndLast() {
+        double[] x = range(1_000);
+        double[] y = new double[1_000];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = Math.sin(i / 20.0);
+        }
+
+        int[] kept = Lttb.downsample(x, y, 1_000, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(999, kept[49]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1], "indexes must ascend at " + i);
+        }
+    }
+
+    @Test
+    void keepsAnIsolatedSpike() {
+        double[] x = range(1_000);
+        double[] y = new double[1_000];
+        y[537] = 100;
+        y[212] = -80;
+
+        int[] kept = Lttb.downsample(x, y, 1_000, 20);
+
+        assertTrue(contains(kept, 537), "peak dropped");
+        assertTrue(contains(kept, 212), "dip dropped");
+    }
+
+    @Test
+    void onlyTheFirstCountPointsAreUsed() {
+        double[] x = range(100);
+        double[] y = range(100);
+        y[99] = 1_000; // Outside count, must be ignored
+
+        int[] kept = Lttb.downsample(x, y, 60, 10);
+
+        assertEquals(10, kept.length);
+        assertEquals(59, kept[9]);
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
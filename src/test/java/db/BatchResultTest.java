@@ -0,0 +1,79 @@
+package db;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchResultTest {
+
+    private static final int DUPLICATE_KEY = 2627;
+    private static final int DEADLOCK_VICTIM = 1205;
+
+    private static BatchUpdateException failure(String sqlState, int errorCode, int[] updateCounts) {
+        return new BatchUpdateException("batch failed", sqlState, errorCode, updateCounts);
+    }
+
+    @Test
+    void marksTheStatementsTheDriverFlaggedAsFailed() {
+        int[] counts = {1, Statement.EXECUTE_FAILED, 1, Statement.EXECUTE_FAILED};
+
+        BatchResult result = BatchResult.fromBatchFailure(500, 1000, failure("23000", DUPLICATE_KEY, counts));
+
+        assertFalse(result.isSuccess());
+        assertNull(result.error());
+        assertEquals(0, result.inserted());
+        assertEquals(Map.of(501, "batch failed", 503, "batch failed"), result.rowErrors());
+    }
+
+    @Test
+    void blamesTheRowAfterTheLastCountWhenTheDriverStopped() {
+        BatchResult result = BatchResult.fromBatchFailure(1000, 2000, failure("23000", DUPLICATE_KEY, new int[]{1, 1, 1}));
+
+        assertEquals(Map.of(1003, "batch failed"), result.rowErrors());
+    }
+
+    @Test
+    void neverBlamesARowPastTheChunk() {
+        // The driver returned a count for every row of the last chunk, so no row can be blamed
+        BatchResult result = BatchResult.fromBatchFailure(0, 3, failure("23000", DUPLICATE_KEY, new int[]{1, 1, 1}));
+
+        assertEquals("batch failed", result.error());
+        assertTrue(result.rowErrors().isEmpty());
+    }
+
+    @Test
+    void blamesTheFirstRowWithoutAnyCounts() {
+        assertEquals(Map.of(0, "batch failed"), BatchResult.fromBatchFailure(0, 10, failure("22001", 8152, null)).rowErrors());
+        assertEquals(Map.of(0, "batch failed"), BatchResult.fromBatchFailure(0, 10, failure("23000", DUPLICATE_KEY, new int[0])).rowErrors());
+    }
+
+    @Test
+    void recognisesRowErrorsByErrorCodeWhenTheStateIsGeneric() {
+        BatchResult result = BatchResult.fromBatchFailure(0, 10, failure("S0001", 547, new int[]{1}));
+
+        assertEquals(Map.of(1, "batch failed"), result.rowErrors());
+    }
+
+    @Test
+    void reportsErrorsNotCausedByARowAsAFailedBatch() {
+        BatchResult deadlock = BatchResult.fromBatchFailure(0, 10, failure("40001", DEADLOCK_VICTIM, new int[]{1, 1}));
+        BatchResult timeout = BatchResult.fromBatchFailure(0, 10, failure("HY008", 0, null));
+
+        assertEquals("batch failed", deadlock.error());
+        assertTrue(deadlock.rowErrors().isEmpty());
+        assertFalse(deadlock.isSuccess());
+        assertEquals("batch failed", timeout.error());
+    }
+
+    @Test
+    void insertedIsASuccess() {
+        BatchResult result = BatchResult.inserted(3);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.inserted());
+    }
+}
@@ -0,0 +1,123 @@
+package db;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private static final long RESYNC_MILLIS = 60_000;
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<ChangeSource.Changes> delivered = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicLong version = new AtomicLong(-1);
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        // Listeners run inline instead of on the FX thread; the caches only log that they were updated
+        feed = new ChangeFeed(changes -> calls.add("caches"), Runnable::run, now::get, RESYNC_MILLIS);
+        feed.addListener(changes -> {
+            calls.add("listener");
+            delivered.add(changes);
+        });
+    }
+
+    // Reports resync on every poll, as a database without change tracking does
+    private static class UntrackedSource implements ChangeSource {
+        @Override
+        public long currentVersion() {
+            return 0;
+        }
+
+        @Override
+        public Changes poll(long sinceVersion) {
+            return new Changes(0, List.of(), true);
+        }
+    }
+
+    @Test
+    void startsFromTheCurrentVersionAndAdvancesWithEachPoll() {
+        InMemoryChangeSource source = new InMemoryChangeSource();
+        source.publish("Member", ChangeEvent.Operation.INSERT, "M0001"); // Before the feed started: not reported
+
+        feed.poll(source, version);
+        assertEquals(1, version.get());
+
+        source.publish("Member", ChangeEvent.Operation.UPDATE, "M0002");
+        source.publish("Payment", ChangeEvent.Operation.INSERT, "17");
+        feed.poll(source, version);
+
+        assertEquals(3, version.get());
+        assertEquals(1, delivered.size());
+        assertEquals(List.of("M0002"), List.copyOf(delivered.getFirst().keys("Member")));
+        assertTrue(delivered.getFirst().touches("Payment"));
+
+        feed.poll(source, version); // Nothing new: no listener call
+        assertEquals(3, version.get());
+        assertEquals(1, delivered.size());
+
+        source.publish("Member", ChangeEvent.Operation.DELETE, "M0003");
+        feed.poll(source, version);
+        assertEquals(List.of("M0003"), List.copyOf(delivered.getLast().keys("Member")));
+    }
+
+    @Test
+    void updatesTheCachesBeforeTellingTheListeners() {
+        InMemoryChangeSource source = new InMemoryChangeSource();
+        feed.poll(source, version);
+
+        source.publish("Member", ChangeEvent.Operation.UPDATE, "M0001");
+        feed.poll(source, version);
+
+        assertEquals(List.of("caches", "listener"), calls);
+    }
+
+    @Test
+    void holdsBackAResyncAskedForTooSoonAndReleasesItLater() {
+        ChangeSource source = new UntrackedSource();
+        feed.poll(source, version);
+
+        now.addAndGet(3_000);
+        feed.poll(source, version);
+        assertTrue(delivered.isEmpty());
+
+        now.addAndGet(RESYNC_MILLIS - 3_000);
+        feed.poll(source, version);
+        assertEquals(1, delivered.size());
+        assertTrue(delivered.getFirst().resync());
+
+        now.addAndGet(3_000); // The next one is held back again
+        feed.poll(source, version);
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    void aHeldBackResyncIsNotLostWhenLaterPollsAreQuiet() {
+        InMemoryChangeSource source = new InMemoryChangeSource();
+        feed.poll(source, version);
+
+        // The poller fell further behind than the source keeps history for
+        for (int i = 0; i <= 10_000; i++) {
+            source.publish("Membership", ChangeEvent.Operation.UPDATE, String.valueOf(i));
+        }
+        now.addAndGet(3_000);
+        feed.poll(source, version);
+        assertTrue(delivered.isEmpty());
+
+        now.addAndGet(3_000);
+        feed.poll(source, version); // Nothing new, but the resync is still owed
+        assertTrue(delivered.isEmpty());
+
+        now.addAndGet(RESYNC_MILLIS);
+        feed.poll(source, version);
+        assertEquals(1, delivered.size());
+        assertTrue(delivered.getFirst().resync());
+    }
+}
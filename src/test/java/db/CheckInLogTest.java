@@ -0,0 +1,171 @@
+package db;
+
+import model.CheckIn;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckInLogTest {
+
+    // Stands in for the database: stores check-ins by ID (like the real insert) unless told to fail
+    private static class StubCheckInDAO extends CheckInDAO {
+        final Map<UUID, CheckIn> stored = new LinkedHashMap<>();
+        boolean down;
+        boolean throwing;
+        boolean blameOutOfRange;
+        String rejectedMemberID;
+
+        @Override
+        public synchronized BatchResult addCheckIns(List<CheckIn> checkIns) {
+            if (throwing) {
+                throw new IllegalStateException("driver bug");
+            }
+            if (down) {
+                return BatchResult.failed("connection refused");
+            }
+            if (blameOutOfRange) {
+                return BatchResult.rejected(new TreeMap<>(Map.of(checkIns.size(), "no such row")));
+            }
+            TreeMap<Integer, String> rowErrors = new TreeMap<>();
+            for (int i = 0; i < checkIns.size(); i++) {
+                if (checkIns.get(i).memberID().equals(rejectedMemberID)) {
+                    rowErrors.put(i, "foreign key");
+                }
+            }
+            if (!rowErrors.isEmpty()) {
+                return BatchResult.rejected(rowErrors);
+            }
+            checkIns.forEach(checkIn -> stored.putIfAbsent(checkIn.checkInID(), checkIn));
+            return BatchResult.inserted(checkIns.size());
+        }
+
+        synchronized List<String> storedMemberIDs() {
+            return stored.values().stream().map(CheckIn::memberID).toList();
+        }
+    }
+
+    @TempDir
+    Path dir;
+
+    private StubCheckInDAO dao;
+    private Path spoolFile;
+    private CheckInLog log;
+
+    @BeforeEach
+    void setUp() {
+        dao = new StubCheckInDAO();
+        spoolFile = dir.resolve("checkin-spool.tsv");
+        log = new CheckInLog(dao, spoolFile, 0); // No wait between retries
+    }
+
+    private static CheckIn checkIn(String memberID) {
+        return CheckIn.now(memberID, "ID", "ADMITTED");
+    }
+
+    @Test
+    void writesStraightThroughWhileTheDatabaseAnswers() {
+        log.write(List.of(checkIn("M0001"), checkIn("M0002")));
+
+        assertEquals(List.of("M0001", "M0002"), dao.storedMemberIDs());
+        assertFalse(Files.exists(spoolFile));
+        assertEquals(2, log.getStats().written());
+        assertFalse(log.getStats().spoolPending());
+    }
+
+    @Test
+    void spoolsWhileDownAndReplaysInOrderOnceBack() {
+        dao.down = true;
+        log.write(List.of(checkIn("M0001")));
+        log.write(List.of(checkIn("M0002")));
+
+        assertTrue(Files.exists(spoolFile));
+        assertTrue(dao.stored.isEmpty());
+        assertEquals(2, log.getStats().spooled());
+
+        dao.down = false;
+        log.write(List.of(checkIn("M0003")));
+
+        assertEquals(List.of("M0001", "M0002", "M0003"), dao.storedMemberIDs());
+        assertEquals(2, log.getStats().replayed());
+        assertFalse(log.getStats().spoolPending());
+    }
+
+    @Test
+    void keepsTheReplayFileWhenTheDatabaseGoesDownAgain() {
+        dao.down = true;
+        log.write(List.of(checkIn("M0001")));
+
+        assertFalse(log.retrySpool());
+        assertTrue(log.getStats().spoolPending());
+
+        dao.down = false;
+        assertTrue(log.retrySpool());
+        assertEquals(List.of("M0001"), dao.storedMemberIDs());
+        assertFalse(log.getStats().spoolPending());
+    }
+
+    @Test
+    void dropsOnlyTheRowsRejectedForTheirValues() {
+        dao.rejectedMemberID = "M9999";
+
+        log.write(List.of(checkIn("M0001"), checkIn("M9999"), checkIn("M0003")));
+
+        assertEquals(List.of("M0001", "M0003"), dao.storedMemberIDs());
+        assertEquals(1, log.getStats().failed());
+        assertFalse(Files.exists(spoolFile));
+    }
+
+    @Test
+    void spoolsABatchBlamedOnARowItDoesNotHave() {
+        dao.blameOutOfRange = true;
+
+        log.write(List.of(checkIn("M0001"), checkIn("M0002")));
+
+        assertEquals(2, log.getStats().spooled());
+        assertEquals(0, log.getStats().failed());
+
+        dao.blameOutOfRange = false;
+        assertTrue(log.retrySpool());
+        assertEquals(List.of("M0001", "M0002"), dao.storedMemberIDs());
+    }
+
+    @Test
+    void spoolsABatchWhenTheDaoThrows() {
+        dao.throwing = true;
+
+        log.write(List.of(checkIn("M0001")));
+
+        assertEquals(1, log.getStats().spooled());
+        assertTrue(dao.stored.isEmpty());
+
+        dao.throwing = false;
+        assertTrue(log.retrySpool());
+        assertEquals(List.of("M0001"), dao.storedMemberIDs());
+    }
+
+    @Test
+    void closeWritesEverythingRecorded() {
+        List<String> memberIDs = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String memberID = String.format("M%04d", i);
+            memberIDs.add(memberID);
+            log.record(checkIn(memberID));
+        }
+
+        log.close();
+
+        assertEquals(memberIDs, dao.storedMemberIDs());
+        assertEquals(1_000, log.getStats().written());
+    }
+}
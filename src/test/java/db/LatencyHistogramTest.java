@@ -0,0 +1,87 @@
+package db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final long[] SAMPLES = {0, 1, 7, 8, 9, 15, 16, 17, 100, 999, 1_000, 1_023, 1_024,
+            65_535, 1_000_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+
+    @Test
+    void valuesBelowEightHaveABucketEach() {
+        for (int value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.indexFor(value));
+            assertEquals(value, LatencyHistogram.lowerBound(value));
+        }
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucket() {
+        for (long value : SAMPLES) {
+            int index = LatencyHistogram.indexFor(value);
+            assertTrue(LatencyHistogram.lowerBound(index) <= value, "lower bound of " + value);
+            assertTrue(value < LatencyHistogram.lowerBound(index + 1) || LatencyHistogram.lowerBound(index + 1) == Long.MAX_VALUE,
+                    "upper bound of " + value);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndAtMostAnEighthWide() {
+        for (int index = 8; index < 480; index++) {
+            long lower = LatencyHistogram.lowerBound(index);
+            long next = LatencyHistogram.lowerBound(index + 1);
+            assertEquals(index, LatencyHistogram.indexFor(lower), "first value of bucket " + index);
+            assertEquals(index, LatencyHistogram.indexFor(next - 1), "last value of bucket " + index);
+            assertTrue(next - lower <= lower / 8, "width of bucket " + index);
+        }
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void percentilesAreWithinAnEighthOfTheExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+
+        for (double percentile : new double[]{10, 50, 90, 99}) {
+            long exact = (long) (percentile * 10);
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact + exact / 8,
+                    "p" + percentile + " was " + reported + ", exact " + exact);
+        }
+        assertEquals(1_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100); // Bucket [96, 104)
+
+        assertEquals(100, histogram.getValueAtPercentile(50));
+        assertEquals(100, histogram.getMaxMicros());
+    }
+
+    @Test
+    void countsMeanAndNegativeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(30);
+        histogram.record(-5); // Clock went backwards: counted as 0
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(40.0 / 3, histogram.getMeanMicros(), 1e-9);
+        assertEquals(30, histogram.getMaxMicros());
+        assertEquals(0, histogram.getValueAtPercentile(1));
+    }
+}
@@ -0,0 +1,111 @@
+package db;
+
+import model.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberSearchIndexTest {
+
+    private MemberSearchIndex index;
+    private Member john;
+    private Member jane;
+    private Member joan;
+
+    private static Member member(String id, String first, String last, String phone, String email) {
+        return new Member(id, first, last, phone, email, LocalDate.of(1990, 1, 1), LocalDate.of(2024, 1, 1), "");
+    }
+
+    private static List<String> ids(List<Member> members) {
+        return members.stream().map(Member::getMemberId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new MemberSearchIndex();
+        john = member("M0012", "John", "Smith", "077 123-4567", "john.smith@example.com");
+        jane = member("M0013", "Jane", "Smithers", "0771234567", "jane@example.com");
+        joan = member("M0140", "Joan", "Baker", "+94 71 555 0000", null);
+        index.add(john);
+        index.add(jane);
+        index.add(joan);
+    }
+
+    @Test
+    void findsByNamePrefixIgnoringCase() {
+        assertEquals(List.of("M0012", "M0013"), ids(index.search("SMI", 10)));
+        assertEquals(List.of("M0012", "M0140"), ids(index.search("jo", 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertEquals(List.of("M0012"), ids(index.search("jo sm", 10)));
+        assertEquals(List.of("M0012"), ids(index.search("  smith   john ", 10)));
+        assertTrue(index.search("jo xyz", 10).isEmpty());
+    }
+
+    @Test
+    void findsByMemberIdEmailAndPhoneDigits() {
+        assertEquals(List.of("M0012"), ids(index.search("m0012", 10)));
+        assertEquals(List.of("M0140"), ids(index.search("140", 10)));
+        assertEquals(List.of("M0012"), ids(index.search("12", 10)));
+        assertEquals(List.of("M0012"), ids(index.search("john.smith@", 10)));
+        assertEquals(List.of("M0140"), ids(index.search("94715", 10)));
+    }
+
+    @Test
+    void blankQueryFindsNothing() {
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        assertEquals(1, index.search("j", 1).size());
+    }
+
+    @Test
+    void reindexingReplacesOldTokens() {
+        index.add(member("M0012", "Johnny", "Walker", "", ""));
+
+        assertTrue(index.search("smith john", 10).isEmpty());
+        assertEquals(List.of("M0012"), ids(index.search("walk", 10)));
+    }
+
+    @Test
+    void findsByExactPhoneDigitsIgnoringPunctuation() {
+        assertEquals(List.of("M0012", "M0013"), ids(index.findByPhone("(077) 123 4567")));
+        assertEquals(List.of("M0140"), ids(index.findByPhone("+94-71-555-0000")));
+        assertTrue(index.findByPhone("077123").isEmpty()); // A prefix is not a match
+        assertTrue(index.findByPhone("").isEmpty());
+        assertTrue(index.findByPhone(null).isEmpty());
+    }
+
+    @Test
+    void phoneLookupFollowsReindexingAndRemoval() {
+        index.add(member("M0013", "Jane", "Smithers", "0779999999", "jane@example.com"));
+        assertEquals(List.of("M0012"), ids(index.findByPhone("0771234567")));
+        assertEquals(List.of("M0013"), ids(index.findByPhone("0779999999")));
+
+        index.remove("M0012");
+        assertTrue(index.findByPhone("0771234567").isEmpty());
+    }
+
+    @Test
+    void phoneDigitsStripsEverythingButDigits() {
+        assertEquals("94715550000", MemberSearchIndex.phoneDigits("+94 (71) 555-0000"));
+        assertEquals("", MemberSearchIndex.phoneDigits(null));
+    }
+
+    @Test
+    void removedMembersAreNotFound() {
+        index.remove("M0013");
+
+        assertEquals(List.of("M0012"), ids(index.search("smi", 10)));
+        index.remove("M9999"); // Unknown IDs are ignored
+    }
+}
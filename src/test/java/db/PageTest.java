@@ -0,0 +1,44 @@
+package db;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTest {
+
+    @Test
+    void extraRowMeansAnotherPageAndIsDropped() {
+        Page<Integer> page = Page.of(List.of(1, 2, 3, 4), 3);
+
+        assertEquals(List.of(1, 2, 3), page.items());
+        assertTrue(page.hasMore());
+        assertEquals(3, page.last());
+    }
+
+    @Test
+    void fullPageWithoutExtraRowIsTheLast() {
+        Page<Integer> page = Page.of(List.of(1, 2, 3), 3);
+
+        assertEquals(List.of(1, 2, 3), page.items());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void shortPageIsTheLast() {
+        Page<Integer> page = Page.of(List.of(1), 3);
+
+        assertEquals(List.of(1), page.items());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void emptyPageHasNoLastItem() {
+        Page<Integer> page = Page.of(List.of(), 3);
+
+        assertTrue(page.isEmpty());
+        assertFalse(page.hasMore());
+        assertNull(page.last());
+    }
+}
@@ -0,0 +1,89 @@
+package export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file(String content) throws IOException {
+        Path file = dir.resolve("in.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private List<List<String>> readAll(String content) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvRowReader reader = new CsvRowReader(file(content))) {
+            List<String> row;
+            while ((row = reader.readRow()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void splitsPlainFieldsAndKeepsEmptyOnes() throws IOException {
+        assertEquals(List.of(List.of("a", "b", ""), List.of("", "", "c")), readAll("a,b,\n,,c\n"));
+    }
+
+    @Test
+    void acceptsCrLfLfAndCrLineEndingsAndNoFinalNewline() throws IOException {
+        assertEquals(List.of(List.of("1"), List.of("2"), List.of("3"), List.of("4")), readAll("1\r\n2\n3\r4"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        assertEquals(List.of(List.of("a,b", "say \"hi\"", "two\r\nlines", "")),
+                readAll("\"a,b\",\"say \"\"hi\"\"\",\"two\r\nlines\",\"\"\r\n"));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("5'11\"", "x")), readAll("5'11\",x\n"));
+    }
+
+    @Test
+    void skipsTheByteOrderMark() throws IOException {
+        assertEquals(List.of(List.of("FirstName", "LastName")), readAll("\uFEFFFirstName,LastName\r\n"));
+    }
+
+    @Test
+    void reportsTheLineEachRecordStartedOn() throws IOException {
+        try (CsvRowReader reader = new CsvRowReader(file("h1,h2\n\"multi\nline\",x\nlast,y\n"))) {
+            reader.readRow();
+            assertEquals(1, reader.getLineNumber());
+            reader.readRow();
+            assertEquals(2, reader.getLineNumber());
+            assertEquals(List.of("last", "y"), reader.readRow());
+            assertEquals(4, reader.getLineNumber());
+            assertNull(reader.readRow());
+        }
+    }
+
+    @Test
+    void readsBackWhatTheWriterWrote() throws IOException {
+        Path file = dir.resolve("round-trip.csv");
+        try (CsvRowWriter writer = new CsvRowWriter(file)) {
+            writer.writeHeader("Name", "Notes");
+            writer.writeRow("O'Brien, Pat", "likes \"heavy\" days\nand mornings");
+        }
+        try (CsvRowReader reader = new CsvRowReader(file)) {
+            assertEquals(List.of("Name", "Notes"), reader.readRow());
+            assertEquals(List.of("O'Brien, Pat", "likes \"heavy\" days\nand mornings"), reader.readRow());
+            assertNull(reader.readRow());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowWriterTest {
+
+    private static final String BOM = "\uFEFF";
+
+    @TempDir
+    Path dir;
+
+    private String write(Object[]... rows) throws IOException {
+        Path file = dir.resolve("out.csv");
+        try (CsvRowWriter writer = new CsvRowWriter(file)) {
+            for (Object[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        return Files.readString(file, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void startsWithAByteOrderMarkAndEndsRowsWithCrLf() throws IOException {
+        assertEquals(BOM + "a,b\r\nc,d\r\n", write(new Object[]{"a", "b"}, new Object[]{"c", "d"}));
+    }
+
+    @Test
+    void quotesOnlyFieldsThatNeedIt() throws IOException {
+        assertEquals(BOM + "plain,\"a,b\",\"say \"\"hi\"\"\",\"two\r\nlines\",\"x\ny\"\r\n",
+                write(new Object[]{"plain", "a,b", "say \"hi\"", "two\r\nlines", "x\ny"}));
+    }
+
+    @Test
+    void writesNullsEmptyAndDatesAndNumbersAsText() throws IOException {
+        assertEquals(BOM + ",2024-02-29,12.5,7\r\n", write(new Object[]{null, LocalDate.of(2024, 2, 29), 12.5, 7}));
+    }
+
+    @Test
+    void headerIsWrittenLikeARow() throws IOException {
+        Path file = dir.resolve("header.csv");
+        try (CsvRowWriter writer = new CsvRowWriter(file)) {
+            writer.writeHeader("Member ID", "Name, full");
+        }
+        assertEquals(BOM + "Member ID,\"Name, full\"\r\n", Files.readString(file, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxRowWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private static String entry(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        assertNotNull(entry, name);
+        return new String(zip.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void writesOneSheetWhileTheRowsFit() throws IOException {
+        Path file = dir.resolve("out.xlsx");
+        try (XlsxRowWriter writer = new XlsxRowWriter(file, "Payments", 3)) {
+            writer.writeHeader("Member", "Amount");
+            writer.writeRow("M0001", 50.0);
+            writer.writeRow("M0002", 25.5);
+        }
+
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            assertTrue(entry(zip, "xl/workbook.xml").contains("<sheet name=\"Payments\" sheetId=\"1\" r:id=\"rId1\"/>"));
+            assertTrue(entry(zip, "xl/worksheets/sheet1.xml").contains("<row r=\"3\">"));
+            assertNull(zip.getEntry("xl/worksheets/sheet2.xml"));
+        }
+    }
+
+    @Test
+    void carriesOnInANewSheetWithTheHeaderOnceOneIsFull() throws IOException {
+        Path file = dir.resolve("out.xlsx");
+        try (XlsxRowWriter writer = new XlsxRowWriter(file, "Payments", 3)) {
+            writer.writeHeader("Member", "Paid on");
+            for (int i = 1; i <= 5; i++) {
+                writer.writeRow("M000" + i, LocalDate.of(2026, 1, i));
+            }
+        }
+
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            String workbook = entry(zip, "xl/workbook.xml");
+            assertTrue(workbook.contains("<sheet name=\"Payments\" sheetId=\"1\" r:id=\"rId1\"/>"));
+            assertTrue(workbook.contains("<sheet name=\"Payments (2)\" sheetId=\"2\" r:id=\"rId2\"/>"));
+            assertTrue(workbook.contains("<sheet name=\"Payments (3)\" sheetId=\"3\" r:id=\"rId3\"/>"));
+            assertTrue(entry(zip, "[Content_Types].xml").contains("/xl/worksheets/sheet3.xml"));
+            assertTrue(entry(zip, "xl/_rels/workbook.xml.rels").contains("Target=\"worksheets/sheet3.xml\""));
+
+            String second = entry(zip, "xl/worksheets/sheet2.xml");
+            assertTrue(second.contains("<row r=\"1\"><c t=\"inlineStr\" s=\"3\"><is><t xml:space=\"preserve\">Member</t>"));
+            assertTrue(second.contains("M0003") && second.contains("M0004"));
+            assertFalse(second.contains("<row r=\"4\">"));
+            assertTrue(entry(zip, "xl/worksheets/sheet3.xml").contains("M0005"));
+        }
+    }
+
+    @Test
+    void shortensLongSheetNamesToFitTheNumber() throws IOException {
+        Path file = dir.resolve("out.xlsx");
+        try (XlsxRowWriter writer = new XlsxRowWriter(file, "Membership payments by member ID", 1)) {
+            writer.writeRow("a");
+            writer.writeRow("b");
+        }
+
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            assertTrue(entry(zip, "xl/workbook.xml").contains("<sheet name=\"Membership payments by memb (2)\""));
+        }
+    }
+
+    @Test
+    void picksTheFormatFromTheExtensionInAnyCase() {
+        assertEquals(ExportFormat.XLSX, ExportFormat.forFile(Path.of("report.XLSX")));
+        assertEquals(ExportFormat.CSV, ExportFormat.forFile(Path.of("report.csv")));
+    }
+}